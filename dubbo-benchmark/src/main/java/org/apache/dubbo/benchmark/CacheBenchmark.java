@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.cache.CacheFactory;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.rpc.RpcInvocation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result cache lookups done by the cache filter from several threads: a get, followed by a put on a miss. The keys
+ * are skewed so that a small part of them makes most of the calls, and there are ten times more keys than the cache
+ * can hold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class CacheBenchmark {
+
+    private static final int CACHE_SIZE = 1000;
+
+    private static final int KEY_COUNT = 1 << 16;
+
+    @Param({"lru", "threadlocal", "expiring", "tinylfu"})
+    public String cache;
+
+    private Cache instance;
+
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/org.apache.dubbo.benchmark.service.DemoService?cache=" + cache
+                + "&cache.size=" + CACHE_SIZE);
+        RpcInvocation invocation = new RpcInvocation("sayHello", new Class<?>[]{String.class}, new Object[]{"world"});
+        instance = ExtensionLoader.getExtensionLoader(CacheFactory.class).getExtension(cache).getCache(url, invocation);
+        Random random = new Random(0);
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            // roughly a power law over 10 times the cache size
+            keys[i] = "key-" + (int) (Math.pow(random.nextDouble(), 3) * CACHE_SIZE * 10);
+        }
+    }
+
+    @Benchmark
+    public Object getOrPut(ThreadCounter counter) {
+        String key = keys[counter.next() & (KEY_COUNT - 1)];
+        Object value = instance.get(key);
+        if (value == null) {
+            value = key;
+            instance.put(key, value);
+        }
+        return value;
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCounter {
+
+        private int count = (int) Thread.currentThread().getId() * 7919;
+
+        int next() {
+            return count++;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.benchmark.service.DemoService;
+import org.apache.dubbo.benchmark.service.DemoServiceImpl;
+import org.apache.dubbo.benchmark.service.User;
+import org.apache.dubbo.benchmark.support.BenchmarkChannel;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.Codec2;
+import org.apache.dubbo.remoting.buffer.ChannelBuffer;
+import org.apache.dubbo.remoting.buffer.ChannelBuffers;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.codec.ExchangeCodec;
+import org.apache.dubbo.rpc.AppResponse;
+import org.apache.dubbo.rpc.Exporter;
+import org.apache.dubbo.rpc.ProxyFactory;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.protocol.dubbo.DubboCodec;
+import org.apache.dubbo.rpc.protocol.dubbo.DubboProtocol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.dubbo.common.constants.CommonConstants.PATH_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.VERSION_KEY;
+import static org.apache.dubbo.remoting.Constants.SERIALIZATION_KEY;
+
+/**
+ * Encoding and decoding of a request and of a response, by {@link ExchangeCodec} alone and by {@link DubboCodec}.
+ * Run with <code>-prof gc</code> to see the allocation per message as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"hessian2", "fastjson", "kryo", "fst"})
+    public String serialization;
+
+    private Codec2 exchangeCodec;
+
+    private Codec2 dubboCodec;
+
+    private Channel channel;
+
+    private Exporter<DemoService> exporter;
+
+    private Request exchangeRequest;
+
+    private Request dubboRequest;
+
+    private Response dubboResponse;
+
+    private byte[] exchangeRequestBytes;
+
+    private byte[] dubboRequestBytes;
+
+    private byte[] dubboResponseBytes;
+
+    private ChannelBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        int port = NetUtils.getAvailablePort();
+        URL url = URL.valueOf("dubbo://127.0.0.1:" + port + "/" + DemoService.class.getName())
+                .addParameter(SERIALIZATION_KEY, serialization);
+        // the provider side codec looks up the exported service while decoding the arguments
+        ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class).getAdaptiveExtension();
+        exporter = DubboProtocol.getDubboProtocol().export(
+                proxyFactory.getInvoker(new DemoServiceImpl(), DemoService.class, url));
+
+        exchangeCodec = new ExchangeCodec();
+        dubboCodec = new DubboCodec();
+        channel = new BenchmarkChannel(url);
+        buffer = ChannelBuffers.dynamicBuffer(1024);
+
+        List<String> tags = new ArrayList<String>();
+        tags.add("dubbo");
+        tags.add("benchmark");
+        User user = new User(1L, "user-1", 18, tags);
+
+        exchangeRequest = newRequest(user);
+
+        RpcInvocation invocation = new RpcInvocation("getUser", new Class<?>[]{long.class}, new Object[]{1L});
+        invocation.setAttachment(PATH_KEY, DemoService.class.getName());
+        invocation.setAttachment(VERSION_KEY, "0.0.0");
+        dubboRequest = newRequest(invocation);
+
+        dubboResponse = new Response(dubboRequest.getId(), dubboRequest.getVersion());
+        dubboResponse.setResult(new AppResponse(user));
+
+        exchangeRequestBytes = encode(exchangeCodec, exchangeRequest);
+        dubboRequestBytes = encode(dubboCodec, dubboRequest);
+        dubboResponseBytes = encode(dubboCodec, dubboResponse);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        exporter.unexport();
+    }
+
+    @Benchmark
+    public ChannelBuffer exchangeEncodeRequest() throws IOException {
+        buffer.clear();
+        exchangeCodec.encode(channel, buffer, exchangeRequest);
+        return buffer;
+    }
+
+    @Benchmark
+    public Object exchangeDecodeRequest() throws IOException {
+        return exchangeCodec.decode(channel, ChannelBuffers.wrappedBuffer(exchangeRequestBytes));
+    }
+
+    @Benchmark
+    public ChannelBuffer dubboEncodeRequest() throws IOException {
+        buffer.clear();
+        dubboCodec.encode(channel, buffer, dubboRequest);
+        return buffer;
+    }
+
+    @Benchmark
+    public Object dubboDecodeRequest() throws IOException {
+        return dubboCodec.decode(channel, ChannelBuffers.wrappedBuffer(dubboRequestBytes));
+    }
+
+    @Benchmark
+    public ChannelBuffer dubboEncodeResponse() throws IOException {
+        buffer.clear();
+        dubboCodec.encode(channel, buffer, dubboResponse);
+        return buffer;
+    }
+
+    @Benchmark
+    public Object dubboDecodeResponse() throws IOException {
+        return dubboCodec.decode(channel, ChannelBuffers.wrappedBuffer(dubboResponseBytes));
+    }
+
+    private static Request newRequest(Object data) {
+        Request request = new Request();
+        request.setVersion("2.0.2");
+        request.setTwoWay(true);
+        request.setData(data);
+        return request;
+    }
+
+    private byte[] encode(Codec2 codec, Object message) throws IOException {
+        ChannelBuffer encoded = ChannelBuffers.dynamicBuffer(1024);
+        codec.encode(channel, encoded, message);
+        byte[] bytes = new byte[encoded.readableBytes()];
+        encoded.readBytes(bytes);
+        return bytes;
+    }
+}
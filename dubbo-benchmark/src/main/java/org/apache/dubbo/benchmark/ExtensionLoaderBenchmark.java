@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Protocol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.dubbo.common.constants.CommonConstants.CONSUMER;
+import static org.apache.dubbo.rpc.Constants.REFERENCE_FILTER_KEY;
+
+/**
+ * Lookups of already loaded extensions, as done by the code paths resolving an extension per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtensionLoaderBenchmark {
+
+    private URL url;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        url = URL.valueOf("dubbo://127.0.0.1:20880/benchmark?side=consumer");
+        // load everything once, only the cached lookups are measured
+        getExtension();
+        getActivateExtension();
+    }
+
+    @Benchmark
+    public Protocol getExtension() {
+        return ExtensionLoader.getExtensionLoader(Protocol.class).getExtension("dubbo");
+    }
+
+    @Benchmark
+    public Protocol getAdaptiveExtension() {
+        return ExtensionLoader.getExtensionLoader(Protocol.class).getAdaptiveExtension();
+    }
+
+    @Benchmark
+    public List<Filter> getActivateExtension() {
+        return ExtensionLoader.getExtensionLoader(Filter.class).getActivateExtension(url, REFERENCE_FILTER_KEY, CONSUMER);
+    }
+}
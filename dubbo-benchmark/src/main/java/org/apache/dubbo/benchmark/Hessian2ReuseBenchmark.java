@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.benchmark.service.User;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.io.UnsafeByteArrayInputStream;
+import org.apache.dubbo.common.io.UnsafeByteArrayOutputStream;
+import org.apache.dubbo.common.serialize.Cleanable;
+import org.apache.dubbo.common.serialize.ObjectInput;
+import org.apache.dubbo.common.serialize.ObjectOutput;
+import org.apache.dubbo.common.serialize.hessian2.Hessian2Serialization;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hessian2 with and without <code>hessian2.reuse</code>. Run it with the gc profiler to compare the allocation rate:
+ * <pre>
+ *     mvn -pl dubbo-benchmark exec:exec -Djmh.args="Hessian2ReuseBenchmark -prof gc"
+ * </pre>
+ * and look at <code>gc.alloc.rate.norm</code>, the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Hessian2ReuseBenchmark {
+
+    @Param({"false", "true"})
+    public boolean reuse;
+
+    private final Hessian2Serialization serialization = new Hessian2Serialization();
+
+    private URL url;
+
+    private User user;
+
+    private UnsafeByteArrayOutputStream output;
+
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        url = URL.valueOf("dubbo://127.0.0.1:20880/benchmark?" + Hessian2Serialization.REUSE_KEY + "=" + reuse);
+        List<String> tags = new ArrayList<String>();
+        tags.add("dubbo");
+        tags.add("benchmark");
+        user = new User(1L, "user-1", 18, tags);
+        output = new UnsafeByteArrayOutputStream(1024);
+        bytes = serialize().toByteArray();
+    }
+
+    @Benchmark
+    public UnsafeByteArrayOutputStream serialize() throws IOException {
+        output.reset();
+        ObjectOutput out = serialization.serialize(url, output);
+        out.writeObject(user);
+        out.flushBuffer();
+        ((Cleanable) out).cleanup();
+        return output;
+    }
+
+    @Benchmark
+    public User deserialize() throws IOException, ClassNotFoundException {
+        ObjectInput in = serialization.deserialize(url, new UnsafeByteArrayInputStream(bytes));
+        User result = in.readObject(User.class);
+        ((Cleanable) in).cleanup();
+        return result;
+    }
+}
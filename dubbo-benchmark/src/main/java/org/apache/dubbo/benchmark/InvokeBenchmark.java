@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.benchmark.service.DemoService;
+import org.apache.dubbo.benchmark.service.DemoServiceImpl;
+import org.apache.dubbo.benchmark.service.User;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.rpc.Exporter;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Protocol;
+import org.apache.dubbo.rpc.ProxyFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A synchronous call through the proxy and the whole filter chains, either in the same jvm or to a dubbo provider
+ * listening on the loopback interface with the netty4 transporter. Use <code>-t</code> to change the number of
+ * calling threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvokeBenchmark {
+
+    @Param({"injvm", "dubbo"})
+    public String protocol;
+
+    @Param({"hessian2"})
+    public String serialization;
+
+    private Exporter<DemoService> exporter;
+
+    private Invoker<DemoService> invoker;
+
+    private DemoService demoService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Protocol protocolInstance = ExtensionLoader.getExtensionLoader(Protocol.class).getAdaptiveExtension();
+        ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class).getAdaptiveExtension();
+        URL url;
+        if ("injvm".equals(protocol)) {
+            url = URL.valueOf("injvm://127.0.0.1/" + DemoService.class.getName());
+        } else {
+            url = URL.valueOf("dubbo://127.0.0.1:" + NetUtils.getAvailablePort() + "/" + DemoService.class.getName()
+                    + "?server=netty4&client=netty4&timeout=3000&serialization=" + serialization);
+        }
+        exporter = protocolInstance.export(proxyFactory.getInvoker(new DemoServiceImpl(), DemoService.class, url));
+        invoker = protocolInstance.refer(DemoService.class, url);
+        demoService = proxyFactory.getProxy(invoker);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        invoker.destroy();
+        exporter.unexport();
+    }
+
+    @Benchmark
+    public String sayHello() {
+        return demoService.sayHello("world");
+    }
+
+    @Benchmark
+    public User getUser() {
+        return demoService.getUser(1L);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.benchmark.service.DemoService;
+import org.apache.dubbo.benchmark.support.BenchmarkInvokers;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcStatus;
+import org.apache.dubbo.rpc.cluster.LoadBalance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LoadBalance#select(List, URL, org.apache.dubbo.rpc.Invocation)} of every load balance extension, over
+ * providers of different weights. The argument changes on each call so that the hash based balancing does not always
+ * hit the same node. Every provider gets a latency sample and some active calls in {@link RpcStatus}, so that the
+ * least active and the adaptive balancing compare real statistics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBalanceBenchmark {
+
+    private static final int ARGUMENT_COUNT = 1024;
+
+    private static final String METHOD = "sayHello";
+
+    @Param({"random", "roundrobin", "leastactive", "consistenthash", "adaptive"})
+    public String loadbalance;
+
+    @Param({"10", "100"})
+    public int invokerCount;
+
+    private LoadBalance instance;
+
+    private List<Invoker<DemoService>> invokers;
+
+    private URL consumerUrl;
+
+    private RpcInvocation[] invocations;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        instance = ExtensionLoader.getExtensionLoader(LoadBalance.class).getExtension(loadbalance);
+        invokers = BenchmarkInvokers.newInvokers(DemoService.class, invokerCount, true);
+        consumerUrl = URL.valueOf("consumer://127.0.0.1/" + DemoService.class.getName()
+                + "?application=benchmark-consumer&loadbalance=" + loadbalance);
+        invocations = new RpcInvocation[ARGUMENT_COUNT];
+        for (int i = 0; i < ARGUMENT_COUNT; i++) {
+            invocations[i] = new RpcInvocation(METHOD, new Class<?>[]{String.class}, new Object[]{"world-" + i});
+        }
+        for (int i = 0; i < invokers.size(); i++) {
+            URL url = invokers.get(i).getUrl();
+            // a finished call for the elapsed average, then a few calls left in flight
+            RpcStatus.beginCount(url, METHOD);
+            RpcStatus.endCount(url, METHOD, 1 + i % 10, true);
+            for (int j = 0; j < i % 3; j++) {
+                RpcStatus.beginCount(url, METHOD);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Invoker<DemoService> invoker : invokers) {
+            RpcStatus.removeStatus(invoker.getUrl());
+            RpcStatus.removeStatus(invoker.getUrl(), METHOD);
+        }
+    }
+
+    @Benchmark
+    public Invoker<DemoService> select(ThreadCounter counter) {
+        return instance.select(invokers, consumerUrl, invocations[counter.next() & (ARGUMENT_COUNT - 1)]);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCounter {
+
+        private int count;
+
+        int next() {
+            return count++;
+        }
+    }
+}
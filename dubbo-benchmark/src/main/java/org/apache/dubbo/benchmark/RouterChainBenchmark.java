@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.benchmark.service.DemoService;
+import org.apache.dubbo.benchmark.support.BenchmarkInvokers;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.cluster.RouterChain;
+import org.apache.dubbo.rpc.cluster.router.condition.ConditionRouter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RouterChain#route(URL, Invocation)} with the builtin routers (mock, tag, app and service condition rules)
+ * and, optionally, one condition rule excluding a single provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterChainBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int invokerCount;
+
+    @Param({"false", "true"})
+    public boolean conditionRule;
+
+    private RouterChain<DemoService> routerChain;
+
+    private URL consumerUrl;
+
+    private Invocation invocation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        consumerUrl = URL.valueOf("consumer://127.0.0.1/" + DemoService.class.getName()
+                + "?application=benchmark-consumer&interface=" + DemoService.class.getName());
+        routerChain = RouterChain.buildChain(consumerUrl);
+        if (conditionRule) {
+            routerChain.addRouters(Collections.singletonList(new ConditionRouter("=> host != 10.0.0.1", false, true)));
+        }
+        routerChain.setInvokers(BenchmarkInvokers.newInvokers(DemoService.class, invokerCount, false));
+        invocation = new RpcInvocation("sayHello", new Class<?>[]{String.class}, new Object[]{"world"});
+    }
+
+    @Benchmark
+    public List<Invoker<DemoService>> route() {
+        return routerChain.route(consumerUrl, invocation);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Several threads dispatch batches of short tasks to the thread pool, the way io threads hand requests over to the
+ * server executor, and wait for each batch to complete. The backlog is large enough for no task to be rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ThreadPoolBenchmark {
+
+    private static final int BATCH = 64;
+
+    private static final int QUEUES = 1024;
+
+    private static final long TASK_TOKENS = 100;
+
+    @Param({"fixed", "cached", "limited", "eager", "stealing"})
+    public String threadpool;
+
+    @Param({"16", "32", "64", "128"})
+    public int threads;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/org.apache.dubbo.benchmark.service.DemoService?threadpool="
+                + threadpool + "&threads=" + threads + "&queues=" + QUEUES + "&threadname=benchmark");
+        executor = (ExecutorService) ExtensionLoader.getExtensionLoader(ThreadPool.class).getExtension(threadpool)
+                .getExecutor(url);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void dispatch() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(BATCH);
+        Runnable task = () -> {
+            Blackhole.consumeCPU(TASK_TOKENS);
+            latch.countDown();
+        };
+        for (int i = 0; i < BATCH; i++) {
+            executor.execute(task);
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark;
+
+import org.apache.dubbo.common.URL;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and formatting of a provider url as pushed by a registry, and the parameter lookups done on each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBenchmark {
+
+    private static final String PROVIDER_URL = "dubbo://10.20.130.230:20880/org.apache.dubbo.benchmark.service.DemoService"
+            + "?anyhost=true&application=benchmark-provider&bean.name=org.apache.dubbo.benchmark.service.DemoService"
+            + "&deprecated=false&dubbo=2.0.2&dynamic=true&generic=false&interface=org.apache.dubbo.benchmark.service.DemoService"
+            + "&methods=sayHello,getUser&pid=12345&register=true&release=2.7.2&side=provider&timeout=3000"
+            + "&getUser.timeout=5000&getUser.retries=0&timestamp=1561000000000";
+
+    private URL url;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        url = URL.valueOf(PROVIDER_URL);
+    }
+
+    @Benchmark
+    public URL valueOf() {
+        return URL.valueOf(PROVIDER_URL);
+    }
+
+    @Benchmark
+    public String toFullString() {
+        // a new url each time, as the string is cached once built
+        return URL.valueOf(PROVIDER_URL).toFullString();
+    }
+
+    @Benchmark
+    public int getMethodParameter() {
+        return url.getMethodParameter("getUser", "timeout", 1000);
+    }
+
+    @Benchmark
+    public int getParameter() {
+        return url.getParameter("timeout", 1000);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.support;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invoker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.dubbo.common.constants.CommonConstants.REMOTE_APPLICATION_KEY;
+import static org.apache.dubbo.rpc.cluster.Constants.WEIGHT_KEY;
+
+/**
+ * Builds the provider lists shared by the cluster benchmarks.
+ */
+public final class BenchmarkInvokers {
+
+    private BenchmarkInvokers() {
+    }
+
+    /**
+     * @param weighted whether the providers get different weights, 100, 150 and 200 in turn, instead of the default one
+     */
+    public static <T> List<Invoker<T>> newInvokers(Class<T> type, int count, boolean weighted) {
+        List<Invoker<T>> invokers = new ArrayList<Invoker<T>>(count);
+        for (int i = 0; i < count; i++) {
+            URL url = new URL("dubbo", "10.0." + (i / 250) + "." + (i % 250 + 1), 20880, type.getName())
+                    .addParameter(REMOTE_APPLICATION_KEY, "benchmark-provider");
+            if (weighted) {
+                url = url.addParameter(WEIGHT_KEY, 100 + (i % 3) * 50);
+            }
+            invokers.add(new BenchmarkInvoker<T>(type, url));
+        }
+        return invokers;
+    }
+}
@@ -25,15 +25,33 @@ import org.apache.dubbo.rpc.Invoker;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import static org.apache.dubbo.rpc.Constants.FORCE_USE_TAG;
+import static org.apache.dubbo.rpc.cluster.Constants.INVOCATION_NEED_MOCK;
+import static org.apache.dubbo.rpc.cluster.Constants.TAG_KEY;
+
 /**
  * Router chain
+ * <p>
+ * The leading routers which are not {@link Router#isRuntime() runtime} only depend on the addresses, the consumer url,
+ * the method name and the tag and mock attachments, so their result is computed once per such key and reused until
+ * the addresses, the routers or a rule change. The remaining routers still run on every invocation.
  */
 public class RouterChain<T> {
 
+    // bounds the precomputed results of a chain, as the keys partly come from the invocation attachments.
+    private static final int MAX_CACHED_ROUTES = 1024;
+
+    // bumped whenever a rule of a router changes, invalidates the precomputed results of all the chains.
+    private static final AtomicLong RULES_VERSION = new AtomicLong();
+
     // full list of addresses from registry, classified by method name.
-    private List<Invoker<T>> invokers = Collections.emptyList();
+    private volatile List<Invoker<T>> invokers = Collections.emptyList();
 
     // containing all routers, reconstruct every time 'route://' urls change.
     private volatile List<Router> routers = Collections.emptyList();
@@ -42,6 +60,12 @@ public class RouterChain<T> {
     // instance will never delete or recreate.
     private List<Router> builtinRouters = Collections.emptyList();
 
+    // bumped whenever the addresses or the routers of this chain change.
+    private final AtomicLong version = new AtomicLong();
+
+    // results precomputed for the current addresses and routers, replaced as a whole once stale.
+    private volatile RouteCache<T> routeCache;
+
     public static <T> RouterChain<T> buildChain(URL url) {
         return new RouterChain<>(url);
     }
@@ -65,6 +89,15 @@ public class RouterChain<T> {
         this.builtinRouters = builtinRouters;
         this.routers = new ArrayList<>(builtinRouters);
         this.sort();
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * Invalidates the precomputed routing results of all the chains, to be called by the routers whose rules can
+     * change after they were created.
+     */
+    public static void notifyRuleChanged() {
+        RULES_VERSION.incrementAndGet();
     }
 
     /**
@@ -81,6 +114,7 @@ public class RouterChain<T> {
         newRouters.addAll(routers);
         CollectionUtils.sort(newRouters);
         this.routers = newRouters;
+        this.version.incrementAndGet();
     }
 
     private void sort() {
@@ -94,6 +128,30 @@ public class RouterChain<T> {
      * @return
      */
     public List<Invoker<T>> route(URL url, Invocation invocation) {
+        RouteCache<T> cache = routeCache;
+        if (cache == null || !cache.isValid(url, version.get())) {
+            // read the versions before the addresses and routers, a concurrent change then makes this cache stale
+            cache = new RouteCache<>(url, version.get(), RULES_VERSION.get(), invokers, routers);
+            routeCache = cache;
+        }
+
+        List<Invoker<T>> finalInvokers = cache.invokers;
+        if (!cache.cachedRouters.isEmpty()) {
+            RouteKey key = new RouteKey(invocation);
+            finalInvokers = cache.routes.get(key);
+            if (finalInvokers == null) {
+                finalInvokers = doRoute(cache.invokers, cache.cachedRouters, url, invocation);
+                // the mock router answers null when no mock provider is available, which is not worth caching
+                if (finalInvokers != null && cache.routes.size() < MAX_CACHED_ROUTES) {
+                    cache.routes.putIfAbsent(key, finalInvokers);
+                }
+            }
+        }
+        return doRoute(finalInvokers, cache.runtimeRouters, url, invocation);
+    }
+
+    private static <T> List<Invoker<T>> doRoute(List<Invoker<T>> invokers, List<Router> routers, URL url,
+                                                Invocation invocation) {
         List<Invoker<T>> finalInvokers = invokers;
         for (Router router : routers) {//三种路由：条件路由、脚本路由、标签路由（tag）
             //所以做三次循环，经过三个路由，最终得到一个invokerlist
@@ -109,5 +167,92 @@ public class RouterChain<T> {
     public void setInvokers(List<Invoker<T>> invokers) {
         this.invokers = (invokers == null ? Collections.emptyList() : invokers);
         routers.forEach(router -> router.notify(this.invokers));
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * The routing results for one set of addresses and routers, under one consumer url.
+     */
+    private static final class RouteCache<T> {
+
+        private final URL url;
+
+        private final long version;
+
+        private final long rulesVersion;
+
+        private final List<Invoker<T>> invokers;
+
+        // the leading routers whose results are cached
+        private final List<Router> cachedRouters;
+
+        // the routers following the first runtime one, executed on every invocation
+        private final List<Router> runtimeRouters;
+
+        private final ConcurrentMap<RouteKey, List<Invoker<T>>> routes = new ConcurrentHashMap<>();
+
+        RouteCache(URL url, long version, long rulesVersion, List<Invoker<T>> invokers, List<Router> routers) {
+            this.url = url;
+            this.version = version;
+            this.rulesVersion = rulesVersion;
+            this.invokers = invokers;
+            int split = 0;
+            while (split < routers.size() && !routers.get(split).isRuntime()) {
+                split++;
+            }
+            this.cachedRouters = new ArrayList<>(routers.subList(0, split));
+            this.runtimeRouters = new ArrayList<>(routers.subList(split, routers.size()));
+        }
+
+        boolean isValid(URL url, long version) {
+            return this.version == version
+                    && this.rulesVersion == RULES_VERSION.get()
+                    && (this.url == url || Objects.equals(this.url, url));
+        }
+    }
+
+    /**
+     * What a non runtime router may depend on in an invocation.
+     */
+    private static final class RouteKey {
+
+        private final String methodName;
+
+        private final String tag;
+
+        private final String forceTag;
+
+        private final String needMock;
+
+        RouteKey(Invocation invocation) {
+            this.methodName = invocation.getMethodName();
+            this.tag = invocation.getAttachment(TAG_KEY);
+            this.forceTag = invocation.getAttachment(FORCE_USE_TAG);
+            this.needMock = invocation.getAttachment(INVOCATION_NEED_MOCK);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey that = (RouteKey) o;
+            return Objects.equals(methodName, that.methodName)
+                    && Objects.equals(tag, that.tag)
+                    && Objects.equals(forceTag, that.forceTag)
+                    && Objects.equals(needMock, that.needMock);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hashCode(methodName);
+            result = 31 * result + Objects.hashCode(tag);
+            result = 31 * result + Objects.hashCode(forceTag);
+            result = 31 * result + Objects.hashCode(needMock);
+            return result;
+        }
     }
 }
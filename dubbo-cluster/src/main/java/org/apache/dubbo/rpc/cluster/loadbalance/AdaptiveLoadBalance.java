@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.loadbalance;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcStatus;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * AdaptiveLoadBalance
+ * <p>
+ * Power of two choices: picks two invokers at random and keeps the one with the lower cost, where the cost grows with
+ * the moving average response time and the active calls of the invoker, and shrinks with its weight. Slow invokers
+ * get less traffic without starving them, since an idle invoker's latency average decays over time.
+ * <p>
+ * The statistics come from {@link RpcStatus}, like {@link LeastActiveLoadBalance}, which is fed by the
+ * <code>ActiveLimitFilter</code>: configure <code>actives</code>, "0" means no limit.
+ */
+public class AdaptiveLoadBalance extends AbstractLoadBalance {
+
+    public static final String NAME = "adaptive";
+
+    @Override
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, URL url, Invocation invocation) {
+        int length = invokers.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(length);
+        // a different one, uniformly among the others
+        int second = random.nextInt(length - 1);
+        if (second >= first) {
+            second++;
+        }
+        Invoker<T> invoker1 = invokers.get(first);
+        Invoker<T> invoker2 = invokers.get(second);
+        double cost1 = cost(invoker1, invocation);
+        double cost2 = cost(invoker2, invocation);
+        if (cost1 == cost2) {
+            return random.nextBoolean() ? invoker1 : invoker2;
+        }
+        return cost1 < cost2 ? invoker1 : invoker2;
+    }
+
+    private double cost(Invoker<?> invoker, Invocation invocation) {
+        int weight = getWeight(invoker, invocation);
+        if (weight <= 0) {
+            return Double.MAX_VALUE;
+        }
+        RpcStatus status = RpcStatus.getStatus(invoker.getUrl(), invocation.getMethodName());
+        // one millisecond more, so that the active calls still count when there is no latency sample yet
+        return (status.getEwmaElapsed() + 1) * (status.getActive() + 1) / weight;
+    }
+}
@@ -21,12 +21,10 @@ import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.support.RpcUtils;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -34,6 +32,12 @@ import static org.apache.dubbo.common.constants.CommonConstants.COMMA_SPLIT_PATT
 
 /**
  * ConsistentHashLoadBalance
+ * <p>
+ * The virtual nodes of the invokers are kept in a sorted <code>long[]</code> ring searched by binary search, and both
+ * the nodes and the arguments are hashed by a fast non-cryptographic hash, FNV-1a with a MurmurHash3 finalizer.
+ * Selecting an invoker does not allocate when the hashed arguments are strings or integral numbers. When the invokers
+ * change, the nodes of the addresses still there are kept in order and only the nodes of new addresses are sorted and
+ * merged into them.
  */
 public class ConsistentHashLoadBalance extends AbstractLoadBalance {
     public static final String NAME = "consistenthash";
@@ -48,6 +52,10 @@ public class ConsistentHashLoadBalance extends AbstractLoadBalance {
      */
     public static final String HASH_ARGUMENTS = "hash.arguments";
 
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     private final ConcurrentMap<String, ConsistentHashSelector<?>> selectors = new ConcurrentHashMap<String, ConsistentHashSelector<?>>();
 
     @SuppressWarnings("unchecked")
@@ -58,15 +66,35 @@ public class ConsistentHashLoadBalance extends AbstractLoadBalance {
         int identityHashCode = System.identityHashCode(invokers);
         ConsistentHashSelector<T> selector = (ConsistentHashSelector<T>) selectors.get(key);
         if (selector == null || selector.identityHashCode != identityHashCode) {
-            selectors.put(key, new ConsistentHashSelector<T>(invokers, methodName, identityHashCode));
-            selector = (ConsistentHashSelector<T>) selectors.get(key);
+            // the nodes of the invokers still there are merged from the previous ring
+            selector = new ConsistentHashSelector<T>(invokers, methodName, identityHashCode, selector);
+            selectors.put(key, selector);
         }
         return selector.select(invocation);
     }
 
     private static final class ConsistentHashSelector<T> {
 
-        private final TreeMap<Long, Invoker<T>> virtualInvokers;
+        /**
+         * Sorted positions of the virtual nodes, in [0, 2^31).
+         */
+        private final long[] ring;
+
+        /**
+         * The invoker owning the virtual node at the same index of {@link #ring}.
+         */
+        private final Invoker<T>[] owners;
+
+        /**
+         * The index in {@link #addresses} of the invoker owning the virtual node at the same index of {@link #ring}.
+         */
+        private final int[] ownerIndexes;
+
+        /**
+         * The address of each invoker, in the order of the invoker list, null if two invokers share an address.
+         * Used to merge the next ring into this one.
+         */
+        private final String[] addresses;
 
         private final int replicaNumber;
 
@@ -74,71 +102,154 @@ public class ConsistentHashLoadBalance extends AbstractLoadBalance {
 
         private final int[] argumentIndex;
 
-        ConsistentHashSelector(List<Invoker<T>> invokers, String methodName, int identityHashCode) {
-            this.virtualInvokers = new TreeMap<Long, Invoker<T>>();
+        @SuppressWarnings("unchecked")
+        ConsistentHashSelector(List<Invoker<T>> invokers, String methodName, int identityHashCode,
+                               ConsistentHashSelector<T> previous) {
             this.identityHashCode = identityHashCode;
             URL url = invokers.get(0).getUrl();
-            this.replicaNumber = url.getMethodParameter(methodName, HASH_NODES, 160);
+            this.replicaNumber = Math.max(1, url.getMethodParameter(methodName, HASH_NODES, 160));
             String[] index = COMMA_SPLIT_PATTERN.split(url.getMethodParameter(methodName, HASH_ARGUMENTS, "0"));
             argumentIndex = new int[index.length];
             for (int i = 0; i < index.length; i++) {
                 argumentIndex[i] = Integer.parseInt(index[i]);
             }
-            for (Invoker<T> invoker : invokers) {
-                String address = invoker.getUrl().getAddress();
-                for (int i = 0; i < replicaNumber / 4; i++) {
-                    byte[] digest = md5(address + i);
-                    for (int h = 0; h < 4; h++) {
-                        long m = hash(digest, h);
-                        virtualInvokers.put(m, invoker);
+
+            int size = invokers.size();
+            String[] invokerAddresses = new String[size];
+            Map<String, Integer> indexes = new HashMap<String, Integer>(size * 2);
+            for (int i = 0; i < size; i++) {
+                invokerAddresses[i] = invokers.get(i).getUrl().getAddress();
+                if (indexes.put(invokerAddresses[i], i) != null) {
+                    // an address shared by two invokers, the ring is built from scratch this time and next time
+                    indexes = null;
+                    break;
+                }
+            }
+            addresses = indexes != null ? invokerAddresses : null;
+
+            // the invokers the previous ring already has nodes for, by their index in the previous ring
+            boolean[] retained = new boolean[size];
+            int[] previousToCurrent = null;
+            if (indexes != null && previous != null && previous.addresses != null
+                    && previous.replicaNumber == replicaNumber) {
+                previousToCurrent = new int[previous.addresses.length];
+                for (int i = 0; i < previousToCurrent.length; i++) {
+                    Integer current = indexes.get(previous.addresses[i]);
+                    previousToCurrent[i] = current != null ? current : -1;
+                    if (current != null) {
+                        retained[current] = true;
+                    }
+                }
+            }
+
+            // a node is packed as its 31 bits position followed by the index of its invoker, so that sorting the
+            // packed values sorts the nodes by position without boxing them
+            int added = 0;
+            for (boolean r : retained) {
+                if (!r) {
+                    added++;
+                }
+            }
+            long[] packed = new long[added * replicaNumber];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!retained[i]) {
+                    long seed = hash(FNV_OFFSET_BASIS, invokerAddresses[i]);
+                    for (int j = 0; j < replicaNumber; j++) {
+                        packed[n++] = (position(hash(seed, j)) << 32) | i;
                     }
                 }
             }
+            Arrays.sort(packed);
+
+            int total = (size - added) * replicaNumber + packed.length;
+            ring = new long[total];
+            ownerIndexes = new int[total];
+            // merges the sorted new nodes into the nodes of the previous ring still owned, which are in order already
+            int p = 0;
+            int a = 0;
+            int previousLength = previousToCurrent != null ? previous.ring.length : 0;
+            for (int i = 0; i < total; i++) {
+                while (p < previousLength && previousToCurrent[previous.ownerIndexes[p]] < 0) {
+                    p++;
+                }
+                if (p < previousLength && (a == packed.length || previous.ring[p] <= packed[a] >>> 32)) {
+                    ring[i] = previous.ring[p];
+                    ownerIndexes[i] = previousToCurrent[previous.ownerIndexes[p++]];
+                } else {
+                    ring[i] = packed[a] >>> 32;
+                    ownerIndexes[i] = (int) (packed[a++] & 0xFFFFFFFFL);
+                }
+            }
+
+            owners = new Invoker[total];
+            for (int i = 0; i < total; i++) {
+                owners[i] = invokers.get(ownerIndexes[i]);
+            }
         }
 
         public Invoker<T> select(Invocation invocation) {
-            String key = toKey(invocation.getArguments());
-            byte[] digest = md5(key);
-            return selectForKey(hash(digest, 0));
+            return selectForKey(position(hash(invocation.getArguments())));
         }
 
-        private String toKey(Object[] args) {
-            StringBuilder buf = new StringBuilder();
+        /**
+         * Hashes the selected arguments one after the other, without concatenating them.
+         */
+        private long hash(Object[] args) {
+            long h = FNV_OFFSET_BASIS;
             for (int i : argumentIndex) {
                 if (i >= 0 && i < args.length) {
-                    buf.append(args[i]);
+                    Object arg = args[i];
+                    if (arg instanceof CharSequence) {
+                        h = hash(h, (CharSequence) arg);
+                    } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+                        h = hash(h, ((Number) arg).longValue());
+                    } else {
+                        h = hash(h, String.valueOf(arg));
+                    }
                 }
             }
-            return buf.toString();
+            return h;
         }
 
-        private Invoker<T> selectForKey(long hash) {
-            Map.Entry<Long, Invoker<T>> entry = virtualInvokers.ceilingEntry(hash);
-            if (entry == null) {
-                entry = virtualInvokers.firstEntry();
+        private Invoker<T> selectForKey(long position) {
+            int index = Arrays.binarySearch(ring, position);
+            if (index < 0) {
+                // the first node after the position, wrapping around the ring
+                index = -index - 1;
+                if (index == ring.length) {
+                    index = 0;
+                }
             }
-            return entry.getValue();
+            return owners[index];
         }
 
-        private long hash(byte[] digest, int number) {
-            return (((long) (digest[3 + number * 4] & 0xFF) << 24)
-                    | ((long) (digest[2 + number * 4] & 0xFF) << 16)
-                    | ((long) (digest[1 + number * 4] & 0xFF) << 8)
-                    | (digest[number * 4] & 0xFF))
-                    & 0xFFFFFFFFL;
+        private static long hash(long h, CharSequence value) {
+            for (int i = 0, length = value.length(); i < length; i++) {
+                char c = value.charAt(i);
+                h = (h ^ (c & 0xFF)) * FNV_PRIME;
+                h = (h ^ (c >>> 8)) * FNV_PRIME;
+            }
+            return h;
         }
 
-        private byte[] md5(String value) {
-            MessageDigest md5;
-            try {
-                md5 = MessageDigest.getInstance("MD5");
-            } catch (NoSuchAlgorithmException e) {
-                throw new IllegalStateException(e.getMessage(), e);
+        private static long hash(long h, long value) {
+            for (int i = 0; i < 64; i += 8) {
+                h = (h ^ ((value >>> i) & 0xFF)) * FNV_PRIME;
             }
-            md5.reset();
-            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
-            md5.update(bytes);
-            return md5.digest();
+            return h;
+        }
+
+        /**
+         * MurmurHash3 finalizer, spreads the FNV state before keeping 31 bits of it.
+         */
+        private static long position(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h >>> 33;
         }
 
     }
@@ -29,6 +29,7 @@ import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
 import org.apache.dubbo.rpc.cluster.Router;
+import org.apache.dubbo.rpc.cluster.RouterChain;
 import org.apache.dubbo.rpc.cluster.router.AbstractRouter;
 import org.apache.dubbo.rpc.cluster.router.condition.ConditionRouter;
 import org.apache.dubbo.rpc.cluster.router.condition.config.model.ConditionRouterRule;
@@ -74,6 +75,7 @@ public abstract class ListenableRouter extends AbstractRouter implements Configu
                         "if the condition rule matches with the template, the raw rule is:\n " + event.getValue(), e);
             }
         }
+        RouterChain.notifyRuleChanged();
     }
 
     @Override
@@ -100,6 +102,11 @@ public abstract class ListenableRouter extends AbstractRouter implements Configu
         return (routerRule != null && routerRule.isForce());
     }
 
+    @Override
+    public boolean isRuntime() {
+        return isRuleRuntime();
+    }
+
     private boolean isRuleRuntime() {
         return routerRule != null && routerRule.isValid() && routerRule.isRuntime();
     }
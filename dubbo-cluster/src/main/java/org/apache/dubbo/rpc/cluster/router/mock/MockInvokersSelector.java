@@ -62,6 +62,14 @@ public class MockInvokersSelector extends AbstractRouter {
         return invokers;
     }
 
+    /**
+     * Only depends on the mock attachment of the invocation, so the result can be cached by the router chain.
+     */
+    @Override
+    public boolean isRuntime() {
+        return false;
+    }
+
     private <T> List<Invoker<T>> getMockedInvokers(final List<Invoker<T>> invokers) {
         if (!hasMockProviders(invokers)) {
             return null;
@@ -31,6 +31,7 @@ import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
 import org.apache.dubbo.rpc.cluster.Constants;
+import org.apache.dubbo.rpc.cluster.RouterChain;
 import org.apache.dubbo.rpc.cluster.router.AbstractRouter;
 import org.apache.dubbo.rpc.cluster.router.tag.model.TagRouterRule;
 import org.apache.dubbo.rpc.cluster.router.tag.model.TagRuleParser;
@@ -77,6 +78,7 @@ public class TagRouter extends AbstractRouter implements ConfigurationListener {
             logger.error("Failed to parse the raw tag router rule and it will not take effect, please check if the " +
                     "rule matches with the template, the raw rule is:\n ", e);
         }
+        RouterChain.notifyRuleChanged();
     }
 
     @Override
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.cluster.router.AbstractRouter;
+import org.apache.dubbo.rpc.cluster.router.MockInvoker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.dubbo.rpc.cluster.Constants.TAG_KEY;
+
+public class RouterChainTest {
+
+    private URL consumerUrl = URL.valueOf("consumer://127.0.0.1/org.apache.dubbo.rpc.cluster.RouterChainTest");
+
+    private List<Invoker<RouterChainTest>> invokers = new ArrayList<>();
+
+    private CountingRouter cachedRouter;
+
+    private CountingRouter runtimeRouter;
+
+    private RouterChain<RouterChainTest> routerChain;
+
+    @BeforeEach
+    public void setUp() {
+        invokers.clear();
+        invokers.add(new MockInvoker<>(URL.valueOf("dubbo://10.20.3.1:20880/org.apache.dubbo.rpc.cluster.RouterChainTest")));
+        invokers.add(new MockInvoker<>(URL.valueOf("dubbo://10.20.3.2:20880/org.apache.dubbo.rpc.cluster.RouterChainTest")));
+        cachedRouter = new CountingRouter(false, 1);
+        runtimeRouter = new CountingRouter(true, 2);
+        routerChain = RouterChain.buildChain(consumerUrl);
+        routerChain.initWithRouters(Arrays.asList(cachedRouter, runtimeRouter));
+        routerChain.setInvokers(invokers);
+    }
+
+    @Test
+    public void testCachedPerMethodAndTag() {
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(invokers, routerChain.route(consumerUrl, newInvocation("sayHello", null)));
+        }
+        Assertions.assertEquals(1, cachedRouter.count);
+        Assertions.assertEquals(3, runtimeRouter.count);
+
+        routerChain.route(consumerUrl, newInvocation("sayBye", null));
+        routerChain.route(consumerUrl, newInvocation("sayHello", "gray"));
+        routerChain.route(consumerUrl, newInvocation("sayHello", "gray"));
+        Assertions.assertEquals(3, cachedRouter.count);
+        Assertions.assertEquals(6, runtimeRouter.count);
+    }
+
+    @Test
+    public void testInvalidatedByChanges() {
+        routerChain.route(consumerUrl, newInvocation("sayHello", null));
+        Assertions.assertEquals(1, cachedRouter.count);
+
+        List<Invoker<RouterChainTest>> newInvokers = new ArrayList<>(invokers.subList(0, 1));
+        routerChain.setInvokers(newInvokers);
+        Assertions.assertEquals(newInvokers, routerChain.route(consumerUrl, newInvocation("sayHello", null)));
+        Assertions.assertEquals(2, cachedRouter.count);
+
+        RouterChain.notifyRuleChanged();
+        routerChain.route(consumerUrl, newInvocation("sayHello", null));
+        Assertions.assertEquals(3, cachedRouter.count);
+
+        routerChain.route(consumerUrl.addParameter("application", "other"), newInvocation("sayHello", null));
+        Assertions.assertEquals(4, cachedRouter.count);
+    }
+
+    @Test
+    public void testRuntimeRouterFirstDisablesCache() {
+        CountingRouter leadingRuntimeRouter = new CountingRouter(true, 1);
+        CountingRouter followingRouter = new CountingRouter(false, 2);
+        routerChain.initWithRouters(Arrays.asList(leadingRuntimeRouter, followingRouter));
+        routerChain.route(consumerUrl, newInvocation("sayHello", null));
+        routerChain.route(consumerUrl, newInvocation("sayHello", null));
+        Assertions.assertEquals(2, leadingRuntimeRouter.count);
+        Assertions.assertEquals(2, followingRouter.count);
+    }
+
+    private static Invocation newInvocation(String methodName, String tag) {
+        RpcInvocation invocation = new RpcInvocation();
+        invocation.setMethodName(methodName);
+        if (tag != null) {
+            invocation.setAttachment(TAG_KEY, tag);
+        }
+        return invocation;
+    }
+
+    private static class CountingRouter extends AbstractRouter {
+
+        private final boolean runtime;
+
+        private int count;
+
+        CountingRouter(boolean runtime, int priority) {
+            this.runtime = runtime;
+            this.priority = priority;
+        }
+
+        @Override
+        public <T> List<Invoker<T>> route(List<Invoker<T>> invokers, URL url, Invocation invocation) throws RpcException {
+            count++;
+            return invokers;
+        }
+
+        @Override
+        public boolean isRuntime() {
+            return runtime;
+        }
+    }
+}
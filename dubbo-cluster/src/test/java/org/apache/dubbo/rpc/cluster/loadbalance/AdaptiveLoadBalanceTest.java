@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License")); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.loadbalance;
+
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcStatus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AdaptiveLoadBalanceTest extends LoadBalanceBaseTest {
+
+    @AfterEach
+    public void tearDown() {
+        for (Invoker<LoadBalanceBaseTest> invoker : invokers) {
+            RpcStatus.removeStatus(invoker.getUrl());
+            RpcStatus.removeStatus(invoker.getUrl(), "method1");
+        }
+    }
+
+    @Test
+    public void testSelectWithoutStatistics() {
+        int runs = 10000;
+        Map<Invoker, AtomicLong> counter = getInvokeCounter(runs, AdaptiveLoadBalance.NAME);
+        for (Map.Entry<Invoker, AtomicLong> entry : counter.entrySet()) {
+            Long count = entry.getValue().get();
+            Assertions.assertTrue(
+                    Math.abs(count - runs / (0f + invokers.size())) < runs / (0f + invokers.size()), "abs diff should < avg");
+        }
+    }
+
+    @Test
+    public void testAvoidSlowInvoker() {
+        for (Invoker<LoadBalanceBaseTest> invoker : invokers) {
+            RpcStatus.beginCount(invoker.getUrl(), "method1");
+            RpcStatus.endCount(invoker.getUrl(), "method1", invoker == invoker1 ? 500 : 5, true);
+        }
+        Assertions.assertTrue(RpcStatus.getStatus(invoker1.getUrl(), "method1").getEwmaElapsed() > 100);
+
+        Map<Invoker, AtomicLong> counter = getInvokeCounter(10000, AdaptiveLoadBalance.NAME);
+        // the slowest one always loses against the one it is compared with
+        Assertions.assertEquals(0, counter.get(invoker1).get());
+    }
+
+    @Test
+    public void testAvoidBusyInvoker() {
+        for (int i = 0; i < 10; i++) {
+            RpcStatus.beginCount(invoker2.getUrl(), "method1");
+        }
+
+        Map<Invoker, AtomicLong> counter = getInvokeCounter(10000, AdaptiveLoadBalance.NAME);
+        Assertions.assertEquals(0, counter.get(invoker2).get());
+    }
+}
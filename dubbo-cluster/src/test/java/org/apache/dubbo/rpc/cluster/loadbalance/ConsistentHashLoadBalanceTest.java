@@ -16,12 +16,16 @@
  */
 package org.apache.dubbo.rpc.cluster.loadbalance;
 
+import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcInvocation;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -51,4 +55,61 @@ public class ConsistentHashLoadBalanceTest extends LoadBalanceBaseTest {
                 hitedInvokers.values().iterator().next().intValue(), "the number of hited count should be the number of runs");
     }
 
+    @Test
+    public void testRemoveInvoker() {
+        ConsistentHashLoadBalance lb = new ConsistentHashLoadBalance();
+        int keys = 1000;
+        Map<String, Invoker> before = new HashMap<>();
+        Map<Invoker, Long> hits = new HashMap<>();
+        for (int i = 0; i < keys; i++) {
+            String key = "key" + i;
+            Invoker selected = lb.select(invokers, null, invocation(key));
+            before.put(key, selected);
+            hits.merge(selected, 1L, Long::sum);
+        }
+        Assertions.assertEquals(invokers.size(), hits.size(), "every invoker should own some keys");
+
+        List<Invoker<LoadBalanceBaseTest>> remaining = new ArrayList<>(invokers);
+        remaining.remove(invoker3);
+        for (int i = 0; i < keys; i++) {
+            String key = "key" + i;
+            Invoker selected = lb.select(remaining, null, invocation(key));
+            Assertions.assertNotSame(invoker3, selected);
+            if (before.get(key) != invoker3) {
+                Assertions.assertSame(before.get(key), selected, "only the keys of the removed invoker should move");
+            }
+        }
+    }
+
+    @Test
+    public void testSameKeySameInvoker() {
+        ConsistentHashLoadBalance lb = new ConsistentHashLoadBalance();
+        Invoker selected = lb.select(invokers, null, invocation(12345L));
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertSame(selected, lb.select(invokers, null, invocation(12345L)));
+        }
+    }
+
+    @Test
+    public void testMergedRingSameAsRebuilt() {
+        ConsistentHashLoadBalance merged = new ConsistentHashLoadBalance();
+        List<Invoker<LoadBalanceBaseTest>> current = new ArrayList<>(invokers);
+        current.remove(invoker5);
+        merged.select(current, null, invocation("key"));
+
+        // one invoker leaves and another one joins, then the merged ring must match a ring built from scratch
+        current = new ArrayList<>(current);
+        current.remove(invoker2);
+        current.add(invoker5);
+        for (int i = 0; i < 1000; i++) {
+            String key = "key" + i;
+            Assertions.assertSame(new ConsistentHashLoadBalance().select(current, null, invocation(key)),
+                    merged.select(current, null, invocation(key)));
+        }
+    }
+
+    private static Invocation invocation(Object argument) {
+        return new RpcInvocation("method1", new Class<?>[]{argument.getClass()}, new Object[]{argument});
+    }
+
 }
@@ -45,6 +45,7 @@ import static org.apache.dubbo.common.constants.CommonConstants.PORT_KEY;
 import static org.apache.dubbo.common.constants.CommonConstants.ANYHOST_KEY;
 import static org.apache.dubbo.common.constants.CommonConstants.ANYHOST_VALUE;
 import static org.apache.dubbo.common.constants.CommonConstants.COMMA_SPLIT_PATTERN;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_KEY;
 import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_KEY_PREFIX;
 import static org.apache.dubbo.common.constants.CommonConstants.GROUP_KEY;
 import static org.apache.dubbo.common.constants.CommonConstants.INTERFACE_KEY;
@@ -112,10 +113,20 @@ class URL implements Serializable {
 
     private volatile transient Map<String, Number> numbers;
 
+    // method name -> key -> value, built from the "method.key" parameters
+    private volatile transient Map<String, Map<String, String>> methodParameters;
+
+    // method name -> key -> parsed number
+    private volatile transient Map<String, Map<String, Number>> methodNumbers;
+
     private volatile transient Map<String, URL> urls;
 
     private volatile transient String ip;
 
+    private volatile transient String address;
+
+    private volatile transient String serviceKey;
+
     private volatile transient String full;
 
     private volatile transient String identity;
@@ -408,7 +419,10 @@ class URL implements Serializable {
     }
 
     public String getAddress() {
-        return port <= 0 ? host : host + ":" + port;
+        if (address == null) {
+            address = port <= 0 ? host : host + ":" + port;
+        }
+        return address;
     }
 
     public URL setAddress(String address) {
@@ -531,6 +545,59 @@ class URL implements Serializable {
         return numbers;
     }
 
+    private Map<String, Map<String, String>> getMethodParameters() {
+        if (methodParameters == null) { // concurrent initialization is tolerant
+            methodParameters = toMethodParameters(parameters);
+        }
+        return methodParameters;
+    }
+
+    /**
+     * Splits the "method.key" parameters into a table by method, so that method parameters are looked up without
+     * building the full key on every call. Parameters prefixed with "default." end up in the table of method
+     * "default", which is where {@link #getMethodParameter(String, String)} falls back to.
+     */
+    private static Map<String, Map<String, String>> toMethodParameters(Map<String, String> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Map<String, String>> methodParameters = new HashMap<>();
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            String fullKey = entry.getKey();
+            int i = fullKey.indexOf('.');
+            if (i <= 0 || i == fullKey.length() - 1) {
+                continue;
+            }
+            methodParameters.computeIfAbsent(fullKey.substring(0, i), k -> new HashMap<>())
+                    .put(fullKey.substring(i + 1), entry.getValue());
+        }
+        return methodParameters;
+    }
+
+    /**
+     * The parsed numbers of a method, or null when the method or the key is null, which the concurrent maps do not
+     * hold. Those are looked up through {@link #getMethodParameter(String, String)} on every call then.
+     */
+    private Map<String, Number> getMethodNumbers(String method, String key) {
+        if (method == null || key == null) {
+            return null;
+        }
+        Map<String, Map<String, Number>> all = methodNumbers;
+        if (all == null) { // concurrent initialization is tolerant
+            all = new ConcurrentHashMap<>();
+            methodNumbers = all;
+        }
+        Map<String, Number> numbers = all.get(method);
+        if (numbers == null) {
+            numbers = new ConcurrentHashMap<>();
+            Map<String, Number> old = all.putIfAbsent(method, numbers);
+            if (old != null) {
+                numbers = old;
+            }
+        }
+        return numbers;
+    }
+
     private Map<String, URL> getUrls() {
         if (urls == null) { // concurrent initialization is tolerant
             urls = new ConcurrentHashMap<>();
@@ -732,13 +799,22 @@ class URL implements Serializable {
     }
 
     public String getMethodParameter(String method, String key) {
-        String value = parameters.get(method + "." + key);
+        Map<String, Map<String, String>> methodParameters = getMethodParameters();
+        String value = getMethodParameter(methodParameters, method, key);
         if (StringUtils.isEmpty(value)) {
-            return getParameter(key);
+            value = parameters.get(key);
+            if (StringUtils.isEmpty(value)) {
+                value = getMethodParameter(methodParameters, DEFAULT_KEY, key);
+            }
         }
         return value;
     }
 
+    private static String getMethodParameter(Map<String, Map<String, String>> methodParameters, String method, String key) {
+        Map<String, String> keys = methodParameters.get(method);
+        return keys == null ? null : keys.get(key);
+    }
+
     public String getMethodParameter(String method, String key, String defaultValue) {
         String value = getMethodParameter(method, key);
         if (StringUtils.isEmpty(value)) {
@@ -748,8 +824,8 @@ class URL implements Serializable {
     }
 
     public double getMethodParameter(String method, String key, double defaultValue) {
-        String methodKey = method + "." + key;
-        Number n = getNumbers().get(methodKey);
+        Map<String, Number> methodNumbers = getMethodNumbers(method, key);
+        Number n = methodNumbers == null ? null : methodNumbers.get(key);
         if (n != null) {
             return n.doubleValue();
         }
@@ -758,13 +834,15 @@ class URL implements Serializable {
             return defaultValue;
         }
         double d = Double.parseDouble(value);
-        getNumbers().put(methodKey, d);
+        if (methodNumbers != null) {
+            methodNumbers.put(key, d);
+        }
         return d;
     }
 
     public float getMethodParameter(String method, String key, float defaultValue) {
-        String methodKey = method + "." + key;
-        Number n = getNumbers().get(methodKey);
+        Map<String, Number> methodNumbers = getMethodNumbers(method, key);
+        Number n = methodNumbers == null ? null : methodNumbers.get(key);
         if (n != null) {
             return n.floatValue();
         }
@@ -773,13 +851,15 @@ class URL implements Serializable {
             return defaultValue;
         }
         float f = Float.parseFloat(value);
-        getNumbers().put(methodKey, f);
+        if (methodNumbers != null) {
+            methodNumbers.put(key, f);
+        }
         return f;
     }
 
     public long getMethodParameter(String method, String key, long defaultValue) {
-        String methodKey = method + "." + key;
-        Number n = getNumbers().get(methodKey);
+        Map<String, Number> methodNumbers = getMethodNumbers(method, key);
+        Number n = methodNumbers == null ? null : methodNumbers.get(key);
         if (n != null) {
             return n.longValue();
         }
@@ -788,13 +868,15 @@ class URL implements Serializable {
             return defaultValue;
         }
         long l = Long.parseLong(value);
-        getNumbers().put(methodKey, l);
+        if (methodNumbers != null) {
+            methodNumbers.put(key, l);
+        }
         return l;
     }
 
     public int getMethodParameter(String method, String key, int defaultValue) {
-        String methodKey = method + "." + key;
-        Number n = getNumbers().get(methodKey);
+        Map<String, Number> methodNumbers = getMethodNumbers(method, key);
+        Number n = methodNumbers == null ? null : methodNumbers.get(key);
         if (n != null) {
             return n.intValue();
         }
@@ -803,13 +885,15 @@ class URL implements Serializable {
             return defaultValue;
         }
         int i = Integer.parseInt(value);
-        getNumbers().put(methodKey, i);
+        if (methodNumbers != null) {
+            methodNumbers.put(key, i);
+        }
         return i;
     }
 
     public short getMethodParameter(String method, String key, short defaultValue) {
-        String methodKey = method + "." + key;
-        Number n = getNumbers().get(methodKey);
+        Map<String, Number> methodNumbers = getMethodNumbers(method, key);
+        Number n = methodNumbers == null ? null : methodNumbers.get(key);
         if (n != null) {
             return n.shortValue();
         }
@@ -818,13 +902,15 @@ class URL implements Serializable {
             return defaultValue;
         }
         short s = Short.parseShort(value);
-        getNumbers().put(methodKey, s);
+        if (methodNumbers != null) {
+            methodNumbers.put(key, s);
+        }
         return s;
     }
 
     public byte getMethodParameter(String method, String key, byte defaultValue) {
-        String methodKey = method + "." + key;
-        Number n = getNumbers().get(methodKey);
+        Map<String, Number> methodNumbers = getMethodNumbers(method, key);
+        Number n = methodNumbers == null ? null : methodNumbers.get(key);
         if (n != null) {
             return n.byteValue();
         }
@@ -833,7 +919,9 @@ class URL implements Serializable {
             return defaultValue;
         }
         byte b = Byte.parseByte(value);
-        getNumbers().put(methodKey, b);
+        if (methodNumbers != null) {
+            methodNumbers.put(key, b);
+        }
         return b;
     }
 
@@ -930,13 +1018,7 @@ class URL implements Serializable {
             return false;
         }
         if (key == null) {
-            String prefix = method + ".";
-            for (String fullKey : parameters.keySet()) {
-                if (fullKey.startsWith(prefix)) {
-                    return true;
-                }
-            }
-            return false;
+            return getMethodParameters().containsKey(method);
         }
         String value = getMethodParameter(method, key);
         return value != null && value.length() > 0;
@@ -1331,11 +1413,14 @@ class URL implements Serializable {
      * @return
      */
     public String getServiceKey() {
+        if (serviceKey != null) {
+            return serviceKey;
+        }
         String inf = getServiceInterface();
         if (inf == null) {
             return null;
         }
-        return buildKey(inf, getParameter(GROUP_KEY), getParameter(VERSION_KEY));
+        return serviceKey = buildKey(inf, getParameter(GROUP_KEY), getParameter(VERSION_KEY));
     }
 
     /**
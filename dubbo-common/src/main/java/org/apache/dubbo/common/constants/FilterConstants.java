@@ -20,5 +20,7 @@ package org.apache.dubbo.common.constants;
 public interface FilterConstants {
     String CACHE_KEY = "cache";
 
+    String CACHE_KEY_GENERATOR_KEY = "cache.keygenerator";
+
     String VALIDATION_KEY = "validation";
 }
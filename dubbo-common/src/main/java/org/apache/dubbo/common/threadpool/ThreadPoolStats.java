@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * The state of a thread pool, reported when it rejects a task and read by the status checker and the metrics.
+ * Implemented by the executors which are not a {@link ThreadPoolExecutor}, {@link #of(Executor)} adapts the others.
+ */
+public interface ThreadPoolStats {
+
+    int getPoolSize();
+
+    int getActiveCount();
+
+    int getCorePoolSize();
+
+    int getMaximumPoolSize();
+
+    int getLargestPoolSize();
+
+    /**
+     * @return the tasks waiting for a thread
+     */
+    int getQueueSize();
+
+    long getTaskCount();
+
+    long getCompletedTaskCount();
+
+    boolean isShutdown();
+
+    boolean isTerminated();
+
+    boolean isTerminating();
+
+    /**
+     * @return the state of the executor, or null if it is neither a {@link ThreadPoolExecutor} nor a ThreadPoolStats
+     */
+    static ThreadPoolStats of(Executor executor) {
+        if (executor instanceof ThreadPoolStats) {
+            return (ThreadPoolStats) executor;
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return new ThreadPoolExecutorStats((ThreadPoolExecutor) executor);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool;
+
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor without any thread of its own, used by a synchronous call: the calling thread parks in
+ * {@link #waitAndDrain()} and runs the tasks (response decoding, future completion, callbacks) submitted for that call
+ * by itself, instead of handing them over to another thread pool.
+ * <p>
+ * Tasks submitted after the caller stopped waiting are delegated to the shared executor, or run directly by the
+ * submitting thread if there is none.
+ */
+public class ThreadlessExecutor extends AbstractExecutorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadlessExecutor.class);
+
+    private static final Runnable WAKE_UP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+
+    private final ExecutorService sharedExecutor;
+
+    private final Object lock = new Object();
+
+    private CompletableFuture<?> waitingFuture;
+
+    private volatile boolean waiting = true;
+
+    private boolean finished;
+
+    public ThreadlessExecutor(ExecutorService sharedExecutor) {
+        this.sharedExecutor = sharedExecutor;
+    }
+
+    /**
+     * The future the caller waits for. Once it is completed, no matter by which thread, {@link #waitAndDrain()}
+     * returns.
+     */
+    public void setWaitingFuture(CompletableFuture<?> waitingFuture) {
+        this.waitingFuture = waitingFuture;
+        waitingFuture.whenComplete((v, t) -> wakeUp());
+    }
+
+    public CompletableFuture<?> getWaitingFuture() {
+        return waitingFuture;
+    }
+
+    public boolean isWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Blocks the calling thread and runs the queued tasks until the waiting future is done. Should be called by the
+     * thread that issued the call, and only once.
+     */
+    public void waitAndDrain() throws InterruptedException {
+        if (finished) {
+            return;
+        }
+        try {
+            while (waitingFuture == null || !waitingFuture.isDone()) {
+                runSafely(queue.take());
+            }
+        } finally {
+            synchronized (lock) {
+                waiting = false;
+            }
+            Runnable runnable;
+            while ((runnable = queue.poll()) != null) {
+                runSafely(runnable);
+            }
+            finished = true;
+        }
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+        synchronized (lock) {
+            if (waiting) {
+                queue.add(runnable);
+                return;
+            }
+        }
+        if (sharedExecutor != null && !sharedExecutor.isShutdown()) {
+            sharedExecutor.execute(runnable);
+        } else {
+            runnable.run();
+        }
+    }
+
+    private void wakeUp() {
+        synchronized (lock) {
+            if (waiting) {
+                queue.add(WAKE_UP);
+            }
+        }
+    }
+
+    private void runSafely(Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (Throwable t) {
+            logger.warn("Failed to run task in threadless executor: " + t.getMessage(), t);
+        }
+    }
+
+    /**
+     * The executor lives as long as the call it serves, so there is nothing to shut down.
+     */
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return false;
+    }
+}
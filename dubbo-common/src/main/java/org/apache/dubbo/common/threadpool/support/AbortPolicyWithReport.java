@@ -29,6 +29,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.threadpool.ThreadPoolStats;
 import org.apache.dubbo.common.utils.JVMUtil;
 
 import static org.apache.dubbo.common.constants.CommonConstants.DUMP_DIRECTORY;
@@ -66,13 +67,20 @@ public class AbortPolicyWithReport extends ThreadPoolExecutor.AbortPolicy {
 
     @Override
     public void rejectedExecution(Runnable r, ThreadPoolExecutor e) {
+        rejectedExecution(r, ThreadPoolStats.of(e));
+    }
+
+    /**
+     * Rejects a task of an executor which is not a {@link ThreadPoolExecutor}
+     */
+    public void rejectedExecution(Runnable r, ThreadPoolStats e) {
         String msg = String.format("Thread pool is EXHAUSTED!" +
                 " Thread Name: %s, Pool Size: %d (active: %d, core: %d, max: %d, largest: %d), Task: %d (completed: "
                 + "%d)," +
                 " Executor status:(isShutdown:%s, isTerminated:%s, isTerminating:%s), in %s://%s:%d!",
             threadName, e.getPoolSize(), e.getActiveCount(), e.getCorePoolSize(), e.getMaximumPoolSize(),
-            e.getLargestPoolSize(),
-            e.getTaskCount(), e.getCompletedTaskCount(), e.isShutdown(), e.isTerminated(), e.isTerminating(),
+            e.getLargestPoolSize(), e.getTaskCount(), e.getCompletedTaskCount(), e.isShutdown(), e.isTerminated(),
+            e.isTerminating(),
             url.getProtocol(), url.getIp(), url.getPort());
         logger.warn(msg);
         dumpJStack();
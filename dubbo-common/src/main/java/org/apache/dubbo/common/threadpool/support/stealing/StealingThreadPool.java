@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.stealing;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.threadlocal.NamedInternalThreadFactory;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.dubbo.common.constants.CommonConstants.ALIVE_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.CORE_THREADS_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_ALIVE;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_CORE_THREADS;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_QUEUES;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_THREAD_NAME;
+import static org.apache.dubbo.common.constants.CommonConstants.QUEUES_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.THREADS_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.THREAD_NAME_KEY;
+
+/**
+ * StealingThreadPool
+ * Eager like {@link org.apache.dubbo.common.threadpool.support.eager.EagerThreadPool}, without a lock or a single
+ * shared queue: every thread has its own queue and steals from the others when it runs out of tasks.
+ */
+public class StealingThreadPool implements ThreadPool {
+
+    @Override
+    public Executor getExecutor(URL url) {
+        String name = url.getParameter(THREAD_NAME_KEY, DEFAULT_THREAD_NAME);
+        int cores = url.getParameter(CORE_THREADS_KEY, DEFAULT_CORE_THREADS);
+        int threads = url.getParameter(THREADS_KEY, Integer.MAX_VALUE);
+        int queues = url.getParameter(QUEUES_KEY, DEFAULT_QUEUES);
+        int alive = url.getParameter(ALIVE_KEY, DEFAULT_ALIVE);
+        return new StealingThreadPoolExecutor(cores,
+                threads,
+                alive,
+                TimeUnit.MILLISECONDS,
+                queues <= 0 ? 1 : queues,
+                new NamedInternalThreadFactory(name, true),
+                new AbortPolicyWithReport(name, url));
+    }
+}
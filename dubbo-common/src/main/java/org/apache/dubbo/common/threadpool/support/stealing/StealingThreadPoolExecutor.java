@@ -0,0 +1,543 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.stealing;
+
+import org.apache.dubbo.common.threadpool.ThreadPoolStats;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An eager executor without any lock on the submitting path.
+ * <p>
+ * As long as no worker is idle, a task starts a new thread, up to the maximum pool size. Otherwise it is put into
+ * the queue of one worker, an idle one if any, which is woken up. Every worker takes from its own queue first and
+ * steals from the others' when it is empty, so a long task only delays the tasks behind it until another worker
+ * gets free. The queued tasks of all workers are bounded together, a task over the capacity is rejected right away
+ * through {@link AbortPolicyWithReport}.
+ * <p>
+ * The counters replace the main lock of {@link java.util.concurrent.ThreadPoolExecutor}: worker, idle and queued
+ * task counts are atomics, the worker list is copied on write, which only happens when a thread starts or exits.
+ */
+public class StealingThreadPoolExecutor extends AbstractExecutorService implements ThreadPoolStats {
+
+    private static final int RUNNING = 0;
+
+    private static final int SHUTDOWN = 1;
+
+    private static final int STOP = 2;
+
+    private static final Worker[] NO_WORKERS = new Worker[0];
+
+    /**
+     * Times in a row an idle worker looks at the queues again, while a task is counted as queued but not in a queue yet
+     */
+    private static final int MAX_IDLE_SPINS = 64;
+
+    /**
+     * How long an idle worker parks once it looked in vain for a task counted as queued, the submitter wakes it up
+     */
+    private static final long QUEUED_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int corePoolSize;
+
+    private final int maximumPoolSize;
+
+    private final long keepAliveNanos;
+
+    private final int queueCapacity;
+
+    private final ThreadFactory threadFactory;
+
+    private final AbortPolicyWithReport handler;
+
+    private final AtomicInteger runState = new AtomicInteger(RUNNING);
+
+    private final AtomicInteger workerCount = new AtomicInteger();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final AtomicInteger queuedCount = new AtomicInteger();
+
+    private final AtomicInteger largestPoolSize = new AtomicInteger();
+
+    private final LongAdder taskCount = new LongAdder();
+
+    private final LongAdder completedTaskCount = new LongAdder();
+
+    private final AtomicReference<Worker[]> workers = new AtomicReference<Worker[]>(NO_WORKERS);
+
+    private final ConcurrentLinkedQueue<Worker> idleWorkers = new ConcurrentLinkedQueue<Worker>();
+
+    private final CountDownLatch termination = new CountDownLatch(1);
+
+    public StealingThreadPoolExecutor(int corePoolSize,
+                                      int maximumPoolSize,
+                                      long keepAliveTime,
+                                      TimeUnit unit,
+                                      int queueCapacity,
+                                      ThreadFactory threadFactory,
+                                      AbortPolicyWithReport handler) {
+        if (corePoolSize < 0 || maximumPoolSize <= 0 || maximumPoolSize < corePoolSize || keepAliveTime <= 0
+                || queueCapacity <= 0) {
+            throw new IllegalArgumentException("core: " + corePoolSize + ", max: " + maximumPoolSize
+                    + ", keepAlive: " + keepAliveTime + ", queues: " + queueCapacity);
+        }
+        if (threadFactory == null || handler == null) {
+            throw new NullPointerException();
+        }
+        this.corePoolSize = corePoolSize;
+        this.maximumPoolSize = maximumPoolSize;
+        this.keepAliveNanos = unit.toNanos(keepAliveTime);
+        this.queueCapacity = queueCapacity;
+        this.threadFactory = threadFactory;
+        this.handler = handler;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        if (runState.get() != RUNNING) {
+            handler.rejectedExecution(command, this);
+            return;
+        }
+        taskCount.increment();
+        // eager: rather a new thread than a task waiting in a queue
+        if ((workerCount.get() < corePoolSize || idleCount.get() == 0) && addWorker(command)) {
+            return;
+        }
+        if (queuedCount.incrementAndGet() > queueCapacity) {
+            queuedCount.decrementAndGet();
+            taskCount.decrement();
+            handler.rejectedExecution(command, this);
+            return;
+        }
+        enqueue(command);
+    }
+
+    private boolean addWorker(Runnable firstTask) {
+        int count;
+        do {
+            count = workerCount.get();
+            if (count >= maximumPoolSize) {
+                return false;
+            }
+        } while (!workerCount.compareAndSet(count, count + 1));
+        largestPoolSize.accumulateAndGet(count + 1, Math::max);
+
+        Worker worker = new Worker(firstTask);
+        Thread thread = threadFactory.newThread(worker);
+        if (thread != null) {
+            worker.thread = thread;
+            addToWorkers(worker);
+            try {
+                thread.start();
+                return true;
+            } catch (Throwable t) {
+                removeFromWorkers(worker);
+            }
+        }
+        workerCount.decrementAndGet();
+        tryTerminate();
+        return false;
+    }
+
+    /**
+     * Hands a task already counted as queued to a worker.
+     */
+    private void enqueue(Runnable task) {
+        while (true) {
+            Worker target = pollIdleWorker();
+            boolean wakeUp = target != null;
+            if (target == null) {
+                Worker[] current = workers.get();
+                if (current.length == 0) {
+                    // every worker exited meanwhile
+                    if (addWorker(task)) {
+                        queuedCount.decrementAndGet();
+                        return;
+                    }
+                    Thread.yield();
+                    continue;
+                }
+                target = current[ThreadLocalRandom.current().nextInt(current.length)];
+            }
+            target.queue.offer(task);
+            // the worker is exiting and might have drained its queue already
+            if (target.dead && target.queue.remove(task)) {
+                continue;
+            }
+            if (wakeUp) {
+                LockSupport.unpark(target.thread);
+            } else {
+                // a worker may have gone idle since it last looked at the queues
+                Worker idle = pollIdleWorker();
+                if (idle != null) {
+                    LockSupport.unpark(idle.thread);
+                }
+            }
+            return;
+        }
+    }
+
+    private Worker pollIdleWorker() {
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            if (worker.idle.compareAndSet(true, false)) {
+                idleCount.decrementAndGet();
+                return worker;
+            }
+        }
+        return null;
+    }
+
+    private void runWorker(Worker worker) {
+        Runnable task = worker.firstTask;
+        worker.firstTask = null;
+        boolean counted = true;
+        try {
+            boolean timedOut = false;
+            while (true) {
+                if (task != null || (task = takeQueued(worker)) != null) {
+                    worker.idleSpins = 0;
+                    runTask(task);
+                    task = null;
+                    timedOut = false;
+                    continue;
+                }
+                if (runState.get() != RUNNING) {
+                    workerCount.decrementAndGet();
+                    counted = false;
+                    return;
+                }
+                if (timedOut && tryReduceWorkers()) {
+                    counted = false;
+                    return;
+                }
+                timedOut = parkIdle(worker);
+            }
+        } finally {
+            if (counted) {
+                workerCount.decrementAndGet();
+            }
+            exit(worker);
+        }
+    }
+
+    /**
+     * @return true if the keep alive time went by without this worker being woken up for a task
+     */
+    private boolean parkIdle(Worker worker) {
+        worker.idle.set(true);
+        idleCount.incrementAndGet();
+        idleWorkers.offer(worker);
+        if (runState.get() != RUNNING) {
+            cancelIdle(worker);
+            return false;
+        }
+        // a task may have been queued before this worker could be seen idle
+        boolean queued = queuedCount.get() > 0;
+        if (queued && worker.idleSpins++ < MAX_IDLE_SPINS) {
+            cancelIdle(worker);
+            return false;
+        }
+        if (!queued) {
+            worker.idleSpins = 0;
+        }
+        // an interrupt left by the last task would make the park return at once
+        Thread.interrupted();
+        long start = System.nanoTime();
+        LockSupport.parkNanos(this, queued ? Math.min(QUEUED_PARK_NANOS, keepAliveNanos) : keepAliveNanos);
+        // not woken up by a submitter: a timeout, a shutdown or a spurious wake up
+        return cancelIdle(worker) && System.nanoTime() - start >= keepAliveNanos;
+    }
+
+    private boolean cancelIdle(Worker worker) {
+        if (worker.idle.compareAndSet(true, false)) {
+            idleCount.decrementAndGet();
+            idleWorkers.remove(worker);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean tryReduceWorkers() {
+        int count;
+        do {
+            count = workerCount.get();
+            if (count <= corePoolSize) {
+                return false;
+            }
+        } while (!workerCount.compareAndSet(count, count - 1));
+        return true;
+    }
+
+    private Runnable takeQueued(Worker worker) {
+        Runnable task = worker.queue.poll();
+        if (task == null) {
+            task = steal(worker);
+        }
+        if (task != null) {
+            queuedCount.decrementAndGet();
+        }
+        return task;
+    }
+
+    private Runnable steal(Worker thief) {
+        Worker[] current = workers.get();
+        int length = current.length;
+        if (length == 0) {
+            return null;
+        }
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            Worker victim = current[(start + i) % length];
+            if (victim != thief) {
+                Runnable task = victim.queue.poll();
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void runTask(Runnable task) {
+        Thread thread = Thread.currentThread();
+        if (runState.get() == STOP) {
+            thread.interrupt();
+        } else {
+            // do not let the interrupt of the previous task leak into this one
+            Thread.interrupted();
+        }
+        try {
+            task.run();
+        } catch (Throwable t) {
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+        } finally {
+            completedTaskCount.increment();
+        }
+    }
+
+    private void exit(Worker worker) {
+        removeFromWorkers(worker);
+        worker.dead = true;
+        // tasks offered before the submitters could see this worker dead
+        Runnable task;
+        while ((task = worker.queue.poll()) != null) {
+            queuedCount.decrementAndGet();
+            runTask(task);
+        }
+        tryTerminate();
+    }
+
+    private void tryTerminate() {
+        if (runState.get() != RUNNING && workerCount.get() == 0) {
+            termination.countDown();
+        }
+    }
+
+    private void addToWorkers(Worker worker) {
+        Worker[] current;
+        Worker[] updated;
+        do {
+            current = workers.get();
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = worker;
+        } while (!workers.compareAndSet(current, updated));
+    }
+
+    private void removeFromWorkers(Worker worker) {
+        Worker[] current;
+        Worker[] updated;
+        do {
+            current = workers.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == worker) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            updated = new Worker[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+        } while (!workers.compareAndSet(current, updated));
+    }
+
+    private boolean advanceRunState(int target) {
+        int state;
+        do {
+            state = runState.get();
+            if (state >= target) {
+                return false;
+            }
+        } while (!runState.compareAndSet(state, target));
+        return true;
+    }
+
+    private void wakeUpWorkers(boolean interrupt) {
+        for (Worker worker : workers.get()) {
+            if (interrupt) {
+                worker.thread.interrupt();
+            }
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        advanceRunState(SHUTDOWN);
+        wakeUpWorkers(false);
+        tryTerminate();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        advanceRunState(STOP);
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        for (Worker worker : workers.get()) {
+            Runnable task;
+            while ((task = worker.queue.poll()) != null) {
+                queuedCount.decrementAndGet();
+                tasks.add(task);
+            }
+        }
+        wakeUpWorkers(true);
+        tryTerminate();
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return runState.get() != RUNNING;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return termination.getCount() == 0;
+    }
+
+    @Override
+    public boolean isTerminating() {
+        return isShutdown() && !isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public long getKeepAliveTime(TimeUnit unit) {
+        return unit.convert(keepAliveNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return workerCount.get();
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return largestPoolSize.get();
+    }
+
+    /**
+     * @return approximate number of threads running a task
+     */
+    @Override
+    public int getActiveCount() {
+        return Math.max(0, workerCount.get() - idleCount.get());
+    }
+
+    /**
+     * @return number of tasks waiting in the worker queues
+     */
+    @Override
+    public int getQueueSize() {
+        return queuedCount.get();
+    }
+
+    @Override
+    public long getTaskCount() {
+        return taskCount.sum();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return completedTaskCount.sum();
+    }
+
+    private final class Worker implements Runnable {
+
+        private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+
+        private final AtomicBoolean idle = new AtomicBoolean();
+
+        private volatile boolean dead;
+
+        private Runnable firstTask;
+
+        private Thread thread;
+
+        /**
+         * Looks at the queues since the last task, only used by the thread of the worker
+         */
+        private int idleSpins;
+
+        Worker(Runnable firstTask) {
+            this.firstTask = firstTask;
+        }
+
+        @Override
+        public void run() {
+            runWorker(this);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+import org.apache.dubbo.common.threadpool.support.fixed.FixedThreadPool;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_QUEUES;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_THREADS;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_THREAD_NAME;
+import static org.apache.dubbo.common.constants.CommonConstants.QUEUES_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.THREADS_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.THREAD_NAME_KEY;
+
+/**
+ * VirtualThreadPool
+ * Runs every request on a virtual thread of its own, at most <code>threads</code> at the same time and
+ * <code>queues</code> more waiting. Blocking calls in the services then park the virtual thread instead of holding a
+ * platform thread.
+ * <p>
+ * Virtual threads are looked up by reflection, on a runtime without them this falls back to
+ * {@link FixedThreadPool} with the same parameters.
+ */
+public class VirtualThreadPool implements ThreadPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPool.class);
+
+    private static volatile boolean fallbackLogged;
+
+    @Override
+    public Executor getExecutor(URL url) {
+        String name = url.getParameter(THREAD_NAME_KEY, DEFAULT_THREAD_NAME);
+        ThreadFactory threadFactory = newVirtualThreadFactory(name + "-virtual-");
+        if (threadFactory == null) {
+            if (!fallbackLogged) {
+                fallbackLogged = true;
+                logger.warn("Virtual threads are not supported by java " + System.getProperty("java.version")
+                        + ", threadpool=virtual falls back to fixed.");
+            }
+            return new FixedThreadPool().getExecutor(url);
+        }
+        int threads = url.getParameter(THREADS_KEY, DEFAULT_THREADS);
+        int queues = url.getParameter(QUEUES_KEY, DEFAULT_QUEUES);
+        return new VirtualThreadPoolExecutor(threads, queues, threadFactory, new AbortPolicyWithReport(name, url));
+    }
+
+    /**
+     * @return a factory of virtual threads named with the prefix and a counter, null if the runtime has none
+     */
+    static ThreadFactory newVirtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            Method factory = builderClass.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (Throwable t) {
+            // no such method before java 19, unsupported operation on 19 and 20 without --enable-preview
+            return null;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.threadpool.ThreadPoolStats;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs every task on a thread of its own, meant for virtual threads which are cheap enough to be created per
+ * request. Nothing is pooled, the concurrency is bounded by a semaphore instead: at most <code>threads</code> tasks
+ * run at the same time, at most <code>queues</code> more wait for a permit, parked on their own thread. A task over
+ * both is rejected through {@link AbortPolicyWithReport}.
+ */
+public class VirtualThreadPoolExecutor extends AbstractExecutorService implements ThreadPoolStats {
+
+    private final int threads;
+
+    private final int queues;
+
+    private final ThreadFactory threadFactory;
+
+    private final AbortPolicyWithReport handler;
+
+    /**
+     * running and waiting tasks, null if the waiting tasks are unbounded
+     */
+    private final Semaphore admission;
+
+    private final Semaphore running;
+
+    private final AtomicInteger liveCount = new AtomicInteger();
+
+    private final AtomicInteger largestActiveCount = new AtomicInteger();
+
+    private final LongAdder taskCount = new LongAdder();
+
+    private final LongAdder completedTaskCount = new LongAdder();
+
+    private final Set<Thread> liveThreads = ConcurrentHashMap.newKeySet();
+
+    private final CountDownLatch termination = new CountDownLatch(1);
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param threads tasks running at the same time
+     * @param queues  tasks waiting for a running permit, 0 for none, negative for unbounded
+     */
+    public VirtualThreadPoolExecutor(int threads, int queues, ThreadFactory threadFactory, AbortPolicyWithReport handler) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        if (threadFactory == null || handler == null) {
+            throw new NullPointerException();
+        }
+        this.threads = threads;
+        this.queues = queues;
+        this.threadFactory = threadFactory;
+        this.handler = handler;
+        this.admission = queues < 0 ? null : new Semaphore((int) Math.min(Integer.MAX_VALUE, (long) threads + queues));
+        this.running = new Semaphore(threads);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        liveCount.incrementAndGet();
+        if (shutdown || (admission != null && !admission.tryAcquire())) {
+            taskDone(false);
+            handler.rejectedExecution(command, this);
+            return;
+        }
+        Thread thread = null;
+        try {
+            thread = threadFactory.newThread(() -> runTask(command));
+            if (thread == null) {
+                throw new IllegalStateException("No thread created by " + threadFactory);
+            }
+            liveThreads.add(thread);
+            taskCount.increment();
+            thread.start();
+        } catch (Throwable t) {
+            if (thread != null) {
+                liveThreads.remove(thread);
+                taskCount.decrement();
+            }
+            taskDone(true);
+            throw t;
+        }
+    }
+
+    private void runTask(Runnable command) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            // shut down now while waiting, the task is dropped
+            liveThreads.remove(Thread.currentThread());
+            taskDone(true);
+            return;
+        }
+        try {
+            largestActiveCount.accumulateAndGet(getActiveCount(), Math::max);
+            command.run();
+        } finally {
+            running.release();
+            completedTaskCount.increment();
+            liveThreads.remove(Thread.currentThread());
+            taskDone(true);
+        }
+    }
+
+    private void taskDone(boolean admitted) {
+        if (admitted && admission != null) {
+            admission.release();
+        }
+        if (liveCount.decrementAndGet() == 0 && shutdown) {
+            termination.countDown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (liveCount.get() == 0) {
+            termination.countDown();
+        }
+    }
+
+    /**
+     * Interrupts the running tasks, the waiting ones are dropped. Their threads are already started, so no task is
+     * returned.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        for (Thread thread : liveThreads) {
+            thread.interrupt();
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return termination.getCount() == 0;
+    }
+
+    @Override
+    public boolean isTerminating() {
+        return shutdown && !isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+
+    /**
+     * @return the concurrency bound, the same as {@link #getMaximumPoolSize()} since nothing is pooled
+     */
+    @Override
+    public int getCorePoolSize() {
+        return threads;
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return threads;
+    }
+
+    /**
+     * @return the tasks waiting for a running permit at most, negative if unbounded
+     */
+    public int getQueues() {
+        return queues;
+    }
+
+    /**
+     * @return the threads alive, running or waiting
+     */
+    @Override
+    public int getPoolSize() {
+        return liveThreads.size();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return threads - running.availablePermits();
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return largestActiveCount.get();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return Math.max(0, liveCount.get() - getActiveCount());
+    }
+
+    @Override
+    public long getTaskCount() {
+        return taskCount.sum();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return completedTaskCount.sum();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ThreadlessExecutorTest {
+
+    @Test
+    public void testTasksRunOnWaitingThread() throws Exception {
+        ThreadlessExecutor executor = new ThreadlessExecutor(null);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        executor.setWaitingFuture(future);
+
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        Thread producer = new Thread(() -> executor.execute(() -> {
+            runner.set(Thread.currentThread());
+            future.complete("done");
+        }));
+        producer.start();
+
+        executor.waitAndDrain();
+        assertThat(future.get(), is("done"));
+        assertThat(runner.get(), sameInstance(Thread.currentThread()));
+        assertThat(executor.isWaiting(), is(false));
+    }
+
+    @Test
+    public void testWakeUpWhenCompletedElsewhere() throws Exception {
+        ThreadlessExecutor executor = new ThreadlessExecutor(null);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        executor.setWaitingFuture(future);
+
+        new Thread(() -> future.complete("timeout")).start();
+        executor.waitAndDrain();
+        assertThat(future.get(), is("timeout"));
+    }
+
+    @Test
+    public void testTaskAfterWaitingRunsElsewhere() throws Exception {
+        ThreadlessExecutor executor = new ThreadlessExecutor(null);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        executor.setWaitingFuture(future);
+        future.complete("done");
+        executor.waitAndDrain();
+
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        Thread late = new Thread(() -> executor.execute(() -> runner.set(Thread.currentThread())));
+        late.start();
+        late.join();
+        assertThat(runner.get(), sameInstance(late));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.stealing;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.threadlocal.NamedInternalThreadFactory;
+import org.apache.dubbo.common.threadpool.ThreadPoolStats;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StealingThreadPoolExecutorTest {
+
+    private static final URL URL = new URL("dubbo", "localhost", 8080);
+
+    private StealingThreadPoolExecutor executor;
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private StealingThreadPoolExecutor newExecutor(int cores, int threads, long aliveMillis, int queues) {
+        executor = new StealingThreadPoolExecutor(cores, threads, aliveMillis, TimeUnit.MILLISECONDS, queues,
+                new NamedInternalThreadFactory("stealing-test", true), new AbortPolicyWithReport("stealing-test", URL));
+        return executor;
+    }
+
+    @Test
+    public void testEagerGrowthAndRejection() throws Exception {
+        newExecutor(1, 4, 60000, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(4);
+        AtomicInteger done = new AtomicInteger();
+        for (int i = 0; i < 6; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.incrementAndGet();
+            });
+        }
+        // one thread per task up to the max, the rest is queued
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(4, executor.getPoolSize());
+        Assertions.assertEquals(2, executor.getQueueSize());
+        RejectedExecutionException rejected = Assertions.assertThrows(RejectedExecutionException.class,
+                () -> executor.execute(done::incrementAndGet));
+        // reported through the stats of the pool
+        Assertions.assertTrue(rejected.getMessage().contains("Pool Size: 4 (active: 4, core: 1, max: 4, largest: 4)"));
+        Assertions.assertSame(executor, ThreadPoolStats.of(executor));
+
+        release.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(6, done.get());
+        Assertions.assertEquals(6, executor.getCompletedTaskCount());
+        Assertions.assertEquals(4, executor.getLargestPoolSize());
+        Assertions.assertEquals(0, executor.getPoolSize());
+    }
+
+    @Test
+    public void testIdleThreadIsReused() throws Exception {
+        newExecutor(0, 8, 60000, 1);
+        for (int i = 0; i < 100; i++) {
+            CountDownLatch latch = new CountDownLatch(1);
+            executor.execute(latch::countDown);
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            waitFor(() -> executor.getActiveCount() == 0);
+        }
+        Assertions.assertEquals(1, executor.getLargestPoolSize());
+    }
+
+    @Test
+    public void testQueuedTasksAreStolen() throws Exception {
+        newExecutor(0, 2, 60000, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        CountDownLatch latch = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            executor.execute(latch::countDown);
+        }
+        // the queue of the blocked thread is drained by the other one
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void testKeepAlive() throws Exception {
+        newExecutor(1, 4, 50, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        waitFor(() -> executor.getPoolSize() == 1);
+        Assertions.assertEquals(1, executor.getPoolSize());
+    }
+
+    @Test
+    public void testShutdownNow() throws Exception {
+        newExecutor(0, 1, 60000, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+            }
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+        List<Runnable> pending = executor.shutdownNow();
+        Assertions.assertEquals(1, pending.size());
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, interrupted.get());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.test() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Condition {
+        boolean test();
+    }
+}
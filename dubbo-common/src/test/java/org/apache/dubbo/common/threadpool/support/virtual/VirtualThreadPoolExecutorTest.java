@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.threadlocal.NamedInternalThreadFactory;
+import org.apache.dubbo.common.threadpool.ThreadPoolStats;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+import org.apache.dubbo.common.utils.ExecutorUtil;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VirtualThreadPoolExecutorTest {
+
+    private static final URL URL = new URL("dubbo", "localhost", 8080);
+
+    private VirtualThreadPoolExecutor executor;
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private VirtualThreadPoolExecutor newExecutor(int threads, int queues) {
+        // platform threads stand in for virtual ones, the bounds do not depend on the kind of thread
+        executor = new VirtualThreadPoolExecutor(threads, queues, new NamedInternalThreadFactory("virtual-test", true),
+                new AbortPolicyWithReport("virtual-test", URL));
+        return executor;
+    }
+
+    @Test
+    public void testConcurrencyBound() throws Exception {
+        newExecutor(2, 3);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                concurrent.decrementAndGet();
+                done.incrementAndGet();
+            });
+        }
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, executor.getActiveCount());
+        Assertions.assertEquals(3, executor.getQueueSize());
+        // two running and three waiting, the next one is over the bound
+        RejectedExecutionException rejected = Assertions.assertThrows(RejectedExecutionException.class,
+                () -> executor.execute(done::incrementAndGet));
+        // reported through the stats of the pool
+        Assertions.assertTrue(rejected.getMessage().contains("(active: 2, core: 2, max: 2, largest: 2)"));
+        Assertions.assertSame(executor, ThreadPoolStats.of(executor));
+
+        release.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(5, done.get());
+        Assertions.assertEquals(2, maxConcurrent.get());
+        Assertions.assertEquals(5, executor.getCompletedTaskCount());
+        Assertions.assertEquals(2, executor.getLargestPoolSize());
+    }
+
+    @Test
+    public void testGracefulShutdown() throws Exception {
+        newExecutor(4, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger done = new AtomicInteger();
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.incrementAndGet();
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        ExecutorUtil.gracefulShutdown(executor, 5000);
+        Assertions.assertTrue(executor.isTerminated());
+        Assertions.assertEquals(1, done.get());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(done::incrementAndGet));
+    }
+
+    @Test
+    public void testShutdownNow() throws Exception {
+        newExecutor(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+            }
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(ran::incrementAndGet);
+        executor.shutdownNow();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, interrupted.get());
+        Assertions.assertEquals(0, ran.get());
+    }
+}
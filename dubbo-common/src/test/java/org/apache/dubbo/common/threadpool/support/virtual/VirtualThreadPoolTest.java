@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apache.dubbo.common.constants.CommonConstants.QUEUES_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.THREADS_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.THREAD_NAME_KEY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+public class VirtualThreadPoolTest {
+    @Test
+    public void getExecutor() throws Exception {
+        URL url = URL.valueOf("dubbo://10.20.130.230:20880/context/path?" +
+                THREAD_NAME_KEY + "=demo&" +
+                THREADS_KEY + "=10&" +
+                QUEUES_KEY + "=5");
+        ThreadPool threadPool = ExtensionLoader.getExtensionLoader(ThreadPool.class).getExtension("virtual");
+        assertThat(threadPool, instanceOf(VirtualThreadPool.class));
+        ExecutorService executor = (ExecutorService) threadPool.getExecutor(url);
+        if (VirtualThreadPool.newVirtualThreadFactory("test") != null) {
+            VirtualThreadPoolExecutor virtualExecutor = (VirtualThreadPoolExecutor) executor;
+            assertThat(virtualExecutor.getMaximumPoolSize(), is(10));
+            assertThat(virtualExecutor.getQueues(), is(5));
+        } else {
+            // falls back to fixed
+            ThreadPoolExecutor fixedExecutor = (ThreadPoolExecutor) executor;
+            assertThat(fixedExecutor.getMaximumPoolSize(), is(10));
+            assertThat(fixedExecutor.getQueue().remainingCapacity(), is(5));
+        }
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<String> threadName = new AtomicReference<>();
+        executor.execute(() -> {
+            threadName.set(Thread.currentThread().getName());
+            latch.countDown();
+        });
+        latch.await();
+        assertThat(threadName.get(), startsWith("demo"));
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        assertTrue(map.isEmpty());
+        assertThat(map.put(1L, "one"), nullValue());
+        assertThat(map.put(-2L, "minus two"), nullValue());
+        assertThat(map.put(1L, "uno"), equalTo("one"));
+        assertThat(map.size(), equalTo(2));
+        assertThat(map.get(1L), equalTo("uno"));
+        assertTrue(map.containsKey(-2L));
+        assertThat(map.get(3L), nullValue());
+        assertThat(map.values(), containsInAnyOrder("uno", "minus two"));
+
+        assertThat(map.remove(1L), equalTo("uno"));
+        assertThat(map.remove(1L), nullValue());
+        assertFalse(map.containsKey(1L));
+        assertThat(map.size(), equalTo(1));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertThat(map.get(-2L), nullValue());
+    }
+
+    @Test
+    public void testNullValue() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<Long>(2);
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(1000);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertThat(map.put(key, key * 31), equalTo(expected.put(key, key * 31)));
+                    break;
+                case 1:
+                    assertThat(map.remove(key), equalTo(expected.remove(key)));
+                    break;
+                default:
+                    assertThat(map.get(key), equalTo(expected.get(key)));
+            }
+            assertThat(map.size(), equalTo(expected.size()));
+        }
+    }
+}
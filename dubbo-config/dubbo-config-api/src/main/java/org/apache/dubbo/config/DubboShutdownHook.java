@@ -16,6 +16,7 @@
  */
 package org.apache.dubbo.config;
 
+import org.apache.dubbo.cache.CacheFactory;
 import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
@@ -89,6 +90,25 @@ public class DubboShutdownHook extends Thread {
         AbstractRegistryFactory.destroyAll();
         // destroy all the protocols
         destroyProtocols();
+        // release the caches, the off-heap ones hold direct memory
+        destroyCacheFactories();
+    }
+
+    /**
+     * Destroy all the cache factories.
+     */
+    private void destroyCacheFactories() {
+        ExtensionLoader<CacheFactory> loader = ExtensionLoader.getExtensionLoader(CacheFactory.class);
+        for (String name : loader.getLoadedExtensions()) {
+            try {
+                CacheFactory cacheFactory = loader.getLoadedExtension(name);
+                if (cacheFactory != null) {
+                    cacheFactory.destroy();
+                }
+            } catch (Throwable t) {
+                logger.warn(t.getMessage(), t);
+            }
+        }
     }
 
     /**
@@ -24,6 +24,8 @@ package org.apache.dubbo.cache;
  * @see org.apache.dubbo.cache.support.jcache.JCache
  * @see org.apache.dubbo.cache.support.expiring.ExpiringCache
  * @see org.apache.dubbo.cache.support.threadlocal.ThreadLocalCache
+ * @see org.apache.dubbo.cache.support.tinylfu.TinyLfuCache
+ * @see org.apache.dubbo.cache.support.offheap.OffHeapCache
  */
 public interface Cache {
     /**
@@ -40,4 +40,10 @@ public interface CacheFactory {
     @Adaptive("cache")
     Cache getCache(URL url, Invocation invocation);
 
+    /**
+     * Releases the caches created by this factory, called when dubbo shuts down.
+     */
+    default void destroy() {
+    }
+
 }
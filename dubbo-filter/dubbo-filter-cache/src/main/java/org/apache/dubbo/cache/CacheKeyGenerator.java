@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache;
+
+import org.apache.dubbo.common.extension.SPI;
+import org.apache.dubbo.rpc.Invocation;
+
+/**
+ * Builds the key a method's return value is cached against from the invocation arguments. The implementation is
+ * chosen by the <b>cache.keygenerator</b> parameter of the method or service, and the entry needs to be added in
+ * org.apache.dubbo.cache.CacheKeyGenerator file in a classpath META-INF sub directories.
+ * <pre>
+ *     e.g. &lt;dubbo:method name="sayHello" cache="lru"&gt;
+ *              &lt;dubbo:parameter key="cache.keygenerator" value="myKeyGenerator"/&gt;
+ *          &lt;/dubbo:method&gt;
+ * </pre>
+ *
+ * @see org.apache.dubbo.cache.support.DefaultCacheKeyGenerator
+ * @see org.apache.dubbo.cache.filter.CacheFilter
+ */
+@SPI("default")
+public interface CacheKeyGenerator {
+
+    /**
+     * @param invocation invocation of the cached method
+     * @return the key, which must implement equals and hashCode by value, and be serializable if the cache store
+     * requires so, e.g. jcache. Invocations with equal keys share the same cached value.
+     */
+    Object generateKey(Invocation invocation);
+
+}
@@ -18,9 +18,12 @@ package org.apache.dubbo.cache.filter;
 
 import org.apache.dubbo.cache.Cache;
 import org.apache.dubbo.cache.CacheFactory;
+import org.apache.dubbo.cache.CacheKeyGenerator;
+import org.apache.dubbo.cache.support.DefaultCacheKeyGenerator;
+import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.utils.ConfigUtils;
-import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.rpc.AsyncRpcResult;
 import org.apache.dubbo.rpc.Filter;
 import org.apache.dubbo.rpc.Invocation;
@@ -33,6 +36,7 @@ import java.io.Serializable;
 import static org.apache.dubbo.common.constants.CommonConstants.CONSUMER;
 import static org.apache.dubbo.common.constants.CommonConstants.PROVIDER;
 import static org.apache.dubbo.common.constants.FilterConstants.CACHE_KEY;
+import static org.apache.dubbo.common.constants.FilterConstants.CACHE_KEY_GENERATOR_KEY;
 
 /**
  * CacheFilter is a core component of dubbo.Enabling <b>cache</b> key of service,method,consumer or provider dubbo will cache method return value.
@@ -62,6 +66,7 @@ import static org.apache.dubbo.common.constants.FilterConstants.CACHE_KEY;
  * @see org.apache.dubbo.cache.support.threadlocal.ThreadLocalCache
  * @see org.apache.dubbo.cache.support.expiring.ExpiringCacheFactory
  * @see org.apache.dubbo.cache.support.expiring.ExpiringCache
+ * @see org.apache.dubbo.cache.CacheKeyGenerator
  *
  */
 @Activate(group = {CONSUMER, PROVIDER}, value = CACHE_KEY)
@@ -91,10 +96,11 @@ public class CacheFilter implements Filter {
      */
     @Override
     public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
-        if (cacheFactory != null && ConfigUtils.isNotEmpty(invoker.getUrl().getMethodParameter(invocation.getMethodName(), CACHE_KEY))) {
-            Cache cache = cacheFactory.getCache(invoker.getUrl(), invocation);
+        URL url = invoker.getUrl();
+        if (cacheFactory != null && ConfigUtils.isNotEmpty(url.getMethodParameter(invocation.getMethodName(), CACHE_KEY))) {
+            Cache cache = cacheFactory.getCache(url, invocation);
             if (cache != null) {
-                String key = StringUtils.toArgumentString(invocation.getArguments());
+                Object key = getCacheKeyGenerator(url, invocation).generateKey(invocation);
                 Object value = cache.get(key);
                 if (value != null) {
                     if (value instanceof ValueWrapper) {
@@ -113,6 +119,11 @@ public class CacheFilter implements Filter {
         return invoker.invoke(invocation);
     }
 
+    private CacheKeyGenerator getCacheKeyGenerator(URL url, Invocation invocation) {
+        String name = url.getMethodParameter(invocation.getMethodName(), CACHE_KEY_GENERATOR_KEY, DefaultCacheKeyGenerator.NAME);
+        return ExtensionLoader.getExtensionLoader(CacheKeyGenerator.class).getExtension(name);
+    }
+
     /**
      * Cache value wrapper.
      */
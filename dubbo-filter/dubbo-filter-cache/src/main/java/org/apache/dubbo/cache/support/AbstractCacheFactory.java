@@ -19,8 +19,12 @@ package org.apache.dubbo.cache.support;
 import org.apache.dubbo.cache.Cache;
 import org.apache.dubbo.cache.CacheFactory;
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.rpc.Invocation;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -36,9 +40,13 @@ import static org.apache.dubbo.common.constants.CommonConstants.METHOD_KEY;
  * @see org.apache.dubbo.cache.support.lru.LruCacheFactory
  * @see org.apache.dubbo.cache.support.threadlocal.ThreadLocalCacheFactory
  * @see org.apache.dubbo.cache.support.expiring.ExpiringCacheFactory
+ * @see org.apache.dubbo.cache.support.tinylfu.TinyLfuCacheFactory
+ * @see org.apache.dubbo.cache.support.offheap.OffHeapCacheFactory
  */
 public abstract class AbstractCacheFactory implements CacheFactory {
 
+    private static final Logger logger = LoggerFactory.getLogger(AbstractCacheFactory.class);
+
     /**
      * This is used to store factory level-1 cached data.
      */
@@ -56,12 +64,40 @@ public abstract class AbstractCacheFactory implements CacheFactory {
         String key = url.toFullString();
         Cache cache = caches.get(key);
         if (cache == null) {
-            caches.put(key, createCache(url));
-            cache = caches.get(key);
+            Cache created = createCache(url);
+            cache = caches.putIfAbsent(key, created);
+            if (cache == null) {
+                cache = created;
+            } else {
+                close(created);
+            }
         }
         return cache;
     }
 
+    /**
+     * Closes the caches holding resources, such as the off-heap ones, and forgets all the caches.
+     */
+    @Override
+    public void destroy() {
+        for (String key : caches.keySet()) {
+            Cache cache = caches.remove(key);
+            if (cache != null) {
+                close(cache);
+            }
+        }
+    }
+
+    private static void close(Cache cache) {
+        if (cache instanceof Closeable) {
+            try {
+                ((Closeable) cache).close();
+            } catch (IOException e) {
+                logger.warn("Failed to close cache " + cache + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
     /**
      * Takes url as an method argument and return new instance of cache store implemented by AbstractCacheFactory subclass.
      * @param url url of the method
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support;
+
+import org.apache.dubbo.cache.CacheKeyGenerator;
+import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.rpc.Invocation;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Default {@link CacheKeyGenerator}. A single immutable argument, like a string, a boxed primitive or an enum, is the
+ * key itself. Otherwise the arguments are gathered in a {@link CacheKey} with a precomputed hash: arrays are copied and
+ * compared by content, and only the other objects, whose equality is unknown, are serialized to json as
+ * {@link StringUtils#toArgumentString(Object[])} does.
+ */
+public class DefaultCacheKeyGenerator implements CacheKeyGenerator {
+
+    public static final String NAME = "default";
+
+    @Override
+    public Object generateKey(Invocation invocation) {
+        Object[] args = invocation.getArguments();
+        if (args == null || args.length == 0) {
+            return CacheKey.EMPTY;
+        }
+        if (args.length == 1 && args[0] != null && isImmutable(args[0].getClass())) {
+            return args[0];
+        }
+        Object[] elements = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            elements[i] = toKeyElement(args[i]);
+        }
+        return new CacheKey(elements);
+    }
+
+    private static Object toKeyElement(Object arg) {
+        if (arg == null) {
+            return null;
+        }
+        Class<?> type = arg.getClass();
+        if (isImmutable(type)) {
+            return arg;
+        }
+        if (type.isArray()) {
+            // copied so that the caller changing the array afterwards does not corrupt the key
+            if (arg instanceof Object[]) {
+                Object[] array = (Object[]) arg;
+                Object[] elements = new Object[array.length];
+                for (int i = 0; i < array.length; i++) {
+                    elements[i] = toKeyElement(array[i]);
+                }
+                return elements;
+            } else if (arg instanceof int[]) {
+                return ((int[]) arg).clone();
+            } else if (arg instanceof long[]) {
+                return ((long[]) arg).clone();
+            } else if (arg instanceof byte[]) {
+                return ((byte[]) arg).clone();
+            } else if (arg instanceof char[]) {
+                return ((char[]) arg).clone();
+            } else if (arg instanceof boolean[]) {
+                return ((boolean[]) arg).clone();
+            } else if (arg instanceof short[]) {
+                return ((short[]) arg).clone();
+            } else if (arg instanceof float[]) {
+                return ((float[]) arg).clone();
+            } else if (arg instanceof double[]) {
+                return ((double[]) arg).clone();
+            }
+        }
+        return StringUtils.toArgumentString(new Object[]{arg});
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        return type == String.class || type == Integer.class || type == Long.class || type == Boolean.class
+                || type == Character.class || type == Byte.class || type == Short.class || type == Double.class
+                || type == Float.class || type == BigInteger.class || type == BigDecimal.class || type.isEnum();
+    }
+
+    /**
+     * A composite key of the invocation arguments, compared by content.
+     */
+    static final class CacheKey implements Serializable {
+
+        private static final long serialVersionUID = 6137563227397431393L;
+
+        static final CacheKey EMPTY = new CacheKey(new Object[0]);
+
+        private final Object[] elements;
+
+        private final int hash;
+
+        CacheKey(Object[] elements) {
+            this.elements = elements;
+            this.hash = Arrays.deepHashCode(elements);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return hash == that.hash && Arrays.deepEquals(elements, that.elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.deepToString(elements);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The direct memory budget shared by the {@link OffHeapCache}s of one {@link OffHeapCacheFactory}. A cache takes its
+ * segments from here as it fills up, and gives them back when it is closed.
+ * <p>
+ * The memory of a given back buffer is freed when the buffer is garbage collected, the arena only stops counting it.
+ */
+final class OffHeapArena {
+
+    private final long capacity;
+
+    private final AtomicLong allocated = new AtomicLong();
+
+    OffHeapArena(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return a new direct buffer, or null if it would exceed the capacity of the arena
+     */
+    ByteBuffer allocate(int size) {
+        long current;
+        do {
+            current = allocated.get();
+            if (current + size > capacity) {
+                return null;
+            }
+        } while (!allocated.compareAndSet(current, current + size));
+        return ByteBuffer.allocateDirect(size);
+    }
+
+    void release(ByteBuffer buffer) {
+        allocated.addAndGet(-buffer.capacity());
+    }
+
+    long getAllocated() {
+        return allocated.get();
+    }
+
+    long getCapacity() {
+        return capacity;
+    }
+}
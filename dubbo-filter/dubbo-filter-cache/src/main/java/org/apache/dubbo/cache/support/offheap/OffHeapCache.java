@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.offheap;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.io.UnsafeByteArrayInputStream;
+import org.apache.dubbo.common.io.UnsafeByteArrayOutputStream;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.serialize.Cleanable;
+import org.apache.dubbo.common.serialize.ObjectInput;
+import org.apache.dubbo.common.serialize.ObjectOutput;
+import org.apache.dubbo.common.serialize.Serialization;
+import org.apache.dubbo.remoting.transport.CodecSupport;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * This class store the serialized cache value outside of the java heap. If a service,method,consumer or provided is
+ * configured with key <b>cache</b> with value <b>offheap</b>, dubbo initialize the instance of this class using
+ * {@link OffHeapCacheFactory} to store method's returns value to server from store without making method call.
+ * <pre>
+ *     e.g. 1) &lt;dubbo:reference cache="offheap" cache.capacity="268435456" cache.seconds="600"/&gt;
+ *          2) &lt;dubbo:consumer cache="offheap" /&gt;
+ * </pre>
+ * <li>It used constructor argument url instance <b>cache.capacity</b> value for the bytes of direct memory it takes at
+ * most, default value is 4MB.</li>
+ * <li>It used constructor argument url instance <b>cache.seconds</b> value to decide time to live of cached object,
+ * by default the entries do not expire.</li>
+ * <li>The values are written with the <b>serialization</b> of the url, hessian2 by default.</li>
+ * <p>
+ * The memory is split into 16 segments written one after another like a log, only an index of the keys stays on the
+ * heap. When the segment being written is full, the oldest one is cleared and reused, dropping its entries. A value is
+ * only deserialized when it is read, and each read returns a new copy of it. Values larger than a segment are not
+ * cached.
+ * <p>
+ * The segments are allocated as the cache fills up, from the {@link OffHeapArena} shared by the caches of the factory.
+ * Once the arena is used up, a cache reuses its oldest segment instead of taking a new one. {@link #close()} gives the
+ * segments back to the arena.
+ *
+ * @see Cache
+ * @see OffHeapCacheFactory
+ * @see org.apache.dubbo.cache.support.AbstractCacheFactory
+ * @see org.apache.dubbo.cache.filter.CacheFilter
+ */
+public class OffHeapCache implements Cache, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapCache.class);
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private static final long DEFAULT_CAPACITY = 4L * 1024 * 1024;
+
+    private final URL url;
+
+    private final OffHeapArena arena;
+
+    private final Serialization serialization;
+
+    private final ConcurrentHashMap<Object, Entry> index = new ConcurrentHashMap<>();
+
+    private final Segment[] segments;
+
+    private final int segmentSize;
+
+    private final long ttlNanos;
+
+    // guards the segments: written under the write lock, read optimistically
+    private final StampedLock lock = new StampedLock();
+
+    private int current;
+
+    private boolean closed;
+
+    public OffHeapCache(URL url) {
+        this(url, new OffHeapArena(Long.MAX_VALUE));
+    }
+
+    OffHeapCache(URL url, OffHeapArena arena) {
+        this(url, url.getParameter("cache.capacity", DEFAULT_CAPACITY), url.getParameter("cache.seconds", 0L),
+                TimeUnit.SECONDS, arena);
+    }
+
+    /**
+     * @param url the url whose serialization the values are written with
+     * @param capacity the bytes of direct memory taken by the cache at most
+     * @param timeToLive how long an entry is kept after it is put, 0 means forever
+     */
+    public OffHeapCache(URL url, long capacity, long timeToLive, TimeUnit unit) {
+        this(url, capacity, timeToLive, unit, new OffHeapArena(Long.MAX_VALUE));
+    }
+
+    OffHeapCache(URL url, long capacity, long timeToLive, TimeUnit unit, OffHeapArena arena) {
+        if (capacity < SEGMENT_COUNT || capacity / SEGMENT_COUNT > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Illegal cache capacity: " + capacity);
+        }
+        this.url = url;
+        this.arena = arena;
+        this.serialization = CodecSupport.getSerialization(url);
+        this.segmentSize = (int) (capacity / SEGMENT_COUNT);
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+        this.ttlNanos = timeToLive > 0 ? unit.toNanos(timeToLive) : 0;
+    }
+
+    /**
+     * API to store value against a key, the value is serialized right away.
+     * @param key  Unique identifier for the object being store.
+     * @param value Value getting store
+     */
+    @Override
+    public void put(Object key, Object value) {
+        if (key == null) {
+            return;
+        }
+        UnsafeByteArrayOutputStream bytes = new UnsafeByteArrayOutputStream(256);
+        try {
+            ObjectOutput output = serialization.serialize(url, bytes);
+            output.writeObject(value);
+            output.flushBuffer();
+            if (output instanceof Cleanable) {
+                ((Cleanable) output).cleanup();
+            }
+        } catch (Throwable t) {
+            logger.warn("Failed to serialize the value of cache key " + key + ", it will not be cached: " + t.getMessage(), t);
+            return;
+        }
+        int length = bytes.size();
+        if (length > segmentSize) {
+            return;
+        }
+        long expireAt = ttlNanos == 0 ? 0 : (System.nanoTime() + ttlNanos) | 1;
+
+        long stamp = lock.writeLock();
+        try {
+            if (closed) {
+                return;
+            }
+            Segment segment = segments[current];
+            if (segment.buffer == null) {
+                // the first put, or the arena had nothing left so far
+                segment.buffer = arena.allocate(segmentSize);
+                if (segment.buffer == null) {
+                    return;
+                }
+            }
+            if (segment.position + length > segmentSize) {
+                segment = nextSegment();
+            }
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(segment.position);
+            buffer.put(bytes.toByteBuffer());
+            Entry entry = new Entry(segment, segment.generation, segment.position, length, expireAt);
+            segment.position += length;
+            segment.keys.add(key);
+            index.put(key, entry);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * API to return stored value using a key, deserialized from the off-heap copy.
+     * @param key Unique identifier for cache lookup
+     * @return Return stored object against key
+     */
+    @Override
+    public Object get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt != 0 && System.nanoTime() - entry.expireAt >= 0) {
+            index.remove(key, entry);
+            return null;
+        }
+        byte[] bytes = read(entry);
+        if (bytes == null) {
+            index.remove(key, entry);
+            return null;
+        }
+        try {
+            ObjectInput input = serialization.deserialize(url, new UnsafeByteArrayInputStream(bytes));
+            Object value = input.readObject();
+            if (input instanceof Cleanable) {
+                ((Cleanable) input).cleanup();
+            }
+            return value;
+        } catch (Throwable t) {
+            logger.warn("Failed to deserialize the value of cache key " + key + ": " + t.getMessage(), t);
+            index.remove(key, entry);
+            return null;
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Drops all the entries and gives the direct memory back to the arena, the cache stays empty afterwards.
+     */
+    @Override
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            closed = true;
+            index.clear();
+            for (Segment segment : segments) {
+                if (segment.buffer != null) {
+                    arena.release(segment.buffer);
+                    segment.buffer = null;
+                }
+                segment.keys.clear();
+                segment.generation++;
+                segment.position = 0;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the copied bytes, or null if the segment of the entry was reused in the meantime
+     */
+    private byte[] read(Entry entry) {
+        byte[] bytes = new byte[entry.length];
+        long stamp = lock.tryOptimisticRead();
+        if (copy(entry, bytes) && lock.validate(stamp)) {
+            return bytes;
+        }
+        stamp = lock.readLock();
+        try {
+            return copy(entry, bytes) ? bytes : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static boolean copy(Entry entry, byte[] bytes) {
+        Segment segment = entry.segment;
+        ByteBuffer buffer = segment.buffer;
+        if (segment.generation != entry.generation || buffer == null) {
+            return false;
+        }
+        buffer = buffer.duplicate();
+        buffer.position(entry.offset);
+        buffer.get(bytes, 0, entry.length);
+        return true;
+    }
+
+    /**
+     * Moves to the next segment, dropping the entries it holds from the index. Called under the write lock.
+     */
+    private Segment nextSegment() {
+        int next = (current + 1) % SEGMENT_COUNT;
+        if (segments[next].buffer == null) {
+            // allocated on first use, so that a small cache does not reserve the whole capacity
+            segments[next].buffer = arena.allocate(segmentSize);
+            if (segments[next].buffer == null) {
+                // the arena is used up, the segments are filled in order so the first one is the oldest
+                next = 0;
+            }
+        }
+        current = next;
+        Segment segment = segments[current];
+        for (Object key : segment.keys) {
+            Entry entry = index.get(key);
+            if (entry != null && entry.segment == segment) {
+                index.remove(key, entry);
+            }
+        }
+        segment.keys.clear();
+        segment.generation++;
+        segment.position = 0;
+        return segment;
+    }
+
+    private static final class Segment {
+
+        ByteBuffer buffer;
+
+        long generation;
+
+        int position;
+
+        final List<Object> keys = new ArrayList<>();
+    }
+
+    private static final class Entry {
+
+        final Segment segment;
+
+        final long generation;
+
+        final int offset;
+
+        final int length;
+
+        final long expireAt;
+
+        Entry(Segment segment, long generation, int offset, int length, long expireAt) {
+            this.segment = segment;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+/**
+ * A count-min sketch with four 4-bit counters per key, estimating how often a key was accessed recently. All counters
+ * are halved once the number of recorded accesses reaches ten times the table size, so that the estimation follows
+ * the changes of the access pattern.
+ * <p>
+ * Not thread safe: a segment of {@link TinyLfuCache} only uses it under its lock, reads reach it through a
+ * {@link ReadBuffer}.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0x97CB3127L, 0xAB86D2DFL, 0xC3A5C85CL, 0x9E3779B9L
+    };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+
+    private final int mask;
+
+    private final int sampleSize;
+
+    private int size;
+
+    FrequencySketch(int maximumSize) {
+        int length = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    /**
+     * @return the estimated number of accesses of the key, at most 15
+     */
+    int frequency(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int h = rehash(hash, i);
+            int count = (int) ((table[h & mask] >>> ((h >>> 28) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int h = rehash(hash, i);
+            int index = h & mask;
+            int offset = (h >>> 28) << 2;
+            long value = table[index];
+            if (((value >>> offset) & 0xfL) != 0xfL) {
+                table[index] = value + (1L << offset);
+                added = true;
+            }
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = size >>> 1;
+    }
+
+    private static int rehash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        // the 4 upper bits select one of the 16 counters of a slot, the lower bits the slot
+        return (int) h;
+    }
+}
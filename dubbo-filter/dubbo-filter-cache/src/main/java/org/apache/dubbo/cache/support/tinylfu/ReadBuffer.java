@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded buffer of the key hashes of recent reads, so that reads do not update the {@link FrequencySketch}
+ * themselves: they only append here, lock-free, and the buffer is drained into the sketch by whoever holds the lock of
+ * the segment. A read is dropped when the buffer is full, which only makes the frequencies a little less accurate.
+ */
+final class ReadBuffer {
+
+    private static final int SIZE = 64;
+
+    private static final int MASK = SIZE - 1;
+
+    /**
+     * Number of buffered reads from which a reader tries to drain the buffer.
+     */
+    static final int DRAIN_THRESHOLD = SIZE / 2;
+
+    /**
+     * A published hash is tagged so that it can not be mistaken for an empty slot.
+     */
+    private static final long PUBLISHED = 1L << 32;
+
+    private final AtomicLongArray slots = new AtomicLongArray(SIZE);
+
+    private final AtomicLong writes = new AtomicLong();
+
+    // written under the segment lock only
+    private volatile long reads;
+
+    /**
+     * @return true if the buffer should be drained
+     */
+    boolean record(int hash) {
+        long w = writes.get();
+        long pending = w - reads;
+        if (pending >= SIZE) {
+            return true;
+        }
+        if (writes.compareAndSet(w, w + 1)) {
+            slots.lazySet((int) (w & MASK), PUBLISHED | (hash & 0xFFFFFFFFL));
+        }
+        return pending + 1 >= DRAIN_THRESHOLD;
+    }
+
+    /**
+     * Applies the buffered reads to the sketch, must be called under the segment lock.
+     */
+    void drainTo(FrequencySketch sketch) {
+        long r = reads;
+        long w = writes.get();
+        for (; r < w; r++) {
+            int index = (int) (r & MASK);
+            long value = slots.get(index);
+            if (value == 0) {
+                // claimed but not published yet, taken on the next drain
+                break;
+            }
+            slots.lazySet(index, 0);
+            sketch.increment((int) value);
+        }
+        reads = r;
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.common.URL;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class store the cache value in a bounded cache shared by all threads. If a service,method,consumer or provided is
+ * configured with key <b>cache</b> with value <b>tinylfu</b>, dubbo initialize the instance of this class using
+ * {@link TinyLfuCacheFactory} to store method's returns value to server from store without making method call.
+ * <pre>
+ *     e.g. 1) &lt;dubbo:service cache="tinylfu" cache.size="5000" cache.seconds="60"/&gt;
+ *          2) &lt;dubbo:consumer cache="tinylfu" /&gt;
+ * </pre>
+ * <li>It used constructor argument url instance <b>cache.size</b> value for its max store size, default value is 1000.</li>
+ * <li>It used constructor argument url instance <b>cache.seconds</b> value to decide time to live of cached object,
+ * by default the entries do not expire.</li>
+ * <p>
+ * Unlike {@link org.apache.dubbo.cache.support.lru.LruCache}, reads take no lock: the entries are split into segments
+ * by key hash, each one a {@link ConcurrentHashMap} plus a CLOCK ring, and only writes lock their segment. When a
+ * segment is full, the CLOCK hand picks an entry that was not read since its last pass, and the new entry only replaces
+ * it if it was accessed at least as often recently, according to a TinyLFU frequency sketch. This keeps the frequently
+ * used results in the cache when a burst of one-off calls goes through. Reads are recorded in a buffer of their segment
+ * and applied to the sketch under the segment lock, by a writer or by a reader that finds the buffer half full.
+ *
+ * @see Cache
+ * @see TinyLfuCacheFactory
+ * @see org.apache.dubbo.cache.support.AbstractCacheFactory
+ * @see org.apache.dubbo.cache.filter.CacheFilter
+ */
+public class TinyLfuCache implements Cache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment[] segments;
+
+    private final int segmentMask;
+
+    private final Weigher weigher;
+
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Initialize TinyLfuCache, it uses constructor argument <b>cache.size</b> value as its storage max size and
+     * <b>cache.seconds</b> as the time to live of the entries.
+     * @param url A valid URL instance
+     */
+    public TinyLfuCache(URL url) {
+        this(url.getParameter("cache.size", 1000), Long.MAX_VALUE, null,
+                url.getParameter("cache.seconds", 0L), TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param maximumSize the maximum number of entries
+     * @param maximumWeight the maximum total weight of the entries, as computed by the weigher
+     * @param weigher computes the weight of an entry, each entry weighs 1 if null
+     * @param timeToLive how long an entry is kept after it is put, 0 means forever
+     */
+    public TinyLfuCache(int maximumSize, long maximumWeight, Weigher weigher, long timeToLive, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive: " + maximumWeight);
+        }
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && maximumSize / (segmentCount << 1) >= MIN_SEGMENT_SIZE) {
+            segmentCount <<= 1;
+        }
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // spread the remainder so that the segments add up to the maximum exactly
+            int size = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            long weight = maximumWeight == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, maximumWeight / segmentCount);
+            segments[i] = new Segment(size, weight);
+        }
+        this.segmentMask = segmentCount - 1;
+        this.weigher = weigher;
+        this.ttlNanos = timeToLive > 0 ? unit.toNanos(timeToLive) : 0;
+    }
+
+    /**
+     * API to store value against a key, shared by all threads.
+     * @param key  Unique identifier for the object being store.
+     * @param value Value getting store
+     */
+    @Override
+    public void put(Object key, Object value) {
+        if (key == null || value == null) {
+            return;
+        }
+        int hash = spread(key.hashCode());
+        int weight = weigher == null ? 1 : weigher.weigh(key, value);
+        segmentFor(hash).put(key, value, hash, weight);
+    }
+
+    /**
+     * API to return stored value using a key.
+     * @param key Unique identifier for cache lookup
+     * @return Return stored object against key
+     */
+    @Override
+    public Object get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = spread(key.hashCode());
+        Object value = segmentFor(hash).get(key, hash);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.map.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return how many entries were removed to make room for others or because they expired
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return how many puts were not admitted because the entry they would replace was used more often
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    private Segment segmentFor(int hash) {
+        // the sketch and the map use the lower bits
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Computes the weight of an entry, e.g. the size of a serialized result.
+     */
+    public interface Weigher {
+
+        int weigh(Object key, Object value);
+    }
+
+    private static final class Node {
+
+        final Object key;
+
+        final int hash;
+
+        volatile Object value;
+
+        volatile long expireAt;
+
+        volatile boolean referenced;
+
+        // guarded by the segment lock
+        int weight;
+
+        int slot;
+
+        Node(Object key, int hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        boolean isExpired(long now) {
+            long expireAt = this.expireAt;
+            return expireAt != 0 && now - expireAt >= 0;
+        }
+    }
+
+    private final class Segment {
+
+        final ConcurrentHashMap<Object, Node> map;
+
+        final ReentrantLock lock = new ReentrantLock();
+
+        final ReadBuffer reads = new ReadBuffer();
+
+        // guarded by the lock
+        final FrequencySketch sketch;
+
+        final Node[] ring;
+
+        final long maximumWeight;
+
+        int count;
+
+        long weight;
+
+        int hand;
+
+        int fill;
+
+        Segment(int maximumSize, long maximumWeight) {
+            this.map = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+            this.sketch = new FrequencySketch(maximumSize);
+            this.ring = new Node[maximumSize];
+            this.maximumWeight = maximumWeight;
+        }
+
+        Object get(Object key, int hash) {
+            if (reads.record(hash) && lock.tryLock()) {
+                try {
+                    reads.drainTo(sketch);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            Node node = map.get(key);
+            if (node == null) {
+                return null;
+            }
+            if (ttlNanos != 0 && node.isExpired(System.nanoTime())) {
+                lock.lock();
+                try {
+                    if (ring[node.slot] == node) {
+                        remove(node);
+                        evictions.increment();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                return null;
+            }
+            if (!node.referenced) {
+                node.referenced = true;
+            }
+            return node.value;
+        }
+
+        void put(Object key, Object value, int hash, int entryWeight) {
+            if (entryWeight < 0 || entryWeight > maximumWeight) {
+                return;
+            }
+            long now = ttlNanos == 0 ? 0 : System.nanoTime();
+            long expireAt = ttlNanos == 0 ? 0 : (now + ttlNanos) | 1;
+            lock.lock();
+            try {
+                reads.drainTo(sketch);
+                Node node = map.get(key);
+                if (node != null) {
+                    weight += entryWeight - node.weight;
+                    node.weight = entryWeight;
+                    node.value = value;
+                    node.expireAt = expireAt;
+                    node.referenced = true;
+                    evictOverweight(node, now);
+                    return;
+                }
+                int slot = claimSlot(hash, entryWeight, now);
+                if (slot < 0) {
+                    rejections.increment();
+                    return;
+                }
+                node = new Node(key, hash);
+                node.value = value;
+                node.expireAt = expireAt;
+                node.weight = entryWeight;
+                node.slot = slot;
+                ring[slot] = node;
+                count++;
+                weight += entryWeight;
+                map.put(key, node);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return an empty slot for the new entry, or -1 if the entry is not admitted
+         */
+        private int claimSlot(int hash, int entryWeight, long now) {
+            while (true) {
+                if (count < ring.length && weight + entryWeight <= maximumWeight) {
+                    return emptySlot();
+                }
+                Node victim = ring[sweep(now)];
+                if (victim == null) {
+                    continue;
+                }
+                if (!victim.isExpired(now) && sketch.frequency(hash) < sketch.frequency(victim.hash)) {
+                    return -1;
+                }
+                remove(victim);
+                evictions.increment();
+            }
+        }
+
+        private void evictOverweight(Node updated, long now) {
+            while (weight > maximumWeight) {
+                Node victim = ring[sweep(now)];
+                if (victim != null && victim != updated) {
+                    remove(victim);
+                    evictions.increment();
+                }
+            }
+        }
+
+        /**
+         * Moves the CLOCK hand to the next entry not referenced since the last pass, or expired, clearing the
+         * reference bit of the entries it passes.
+         */
+        private int sweep(long now) {
+            while (true) {
+                int slot = hand;
+                hand = slot + 1 == ring.length ? 0 : slot + 1;
+                Node node = ring[slot];
+                if (node == null || !node.referenced || node.isExpired(now)) {
+                    return slot;
+                }
+                node.referenced = false;
+            }
+        }
+
+        private int emptySlot() {
+            while (ring[fill] != null) {
+                fill = fill + 1 == ring.length ? 0 : fill + 1;
+            }
+            return fill;
+        }
+
+        private void remove(Node node) {
+            ring[node.slot] = null;
+            count--;
+            weight -= node.weight;
+            map.remove(node.key, node);
+        }
+    }
+}
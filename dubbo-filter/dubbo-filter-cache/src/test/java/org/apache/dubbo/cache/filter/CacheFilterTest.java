@@ -20,7 +20,9 @@ import org.apache.dubbo.cache.CacheFactory;
 import org.apache.dubbo.cache.support.expiring.ExpiringCacheFactory;
 import org.apache.dubbo.cache.support.jcache.JCacheFactory;
 import org.apache.dubbo.cache.support.lru.LruCacheFactory;
+import org.apache.dubbo.cache.support.offheap.OffHeapCacheFactory;
 import org.apache.dubbo.cache.support.threadlocal.ThreadLocalCacheFactory;
+import org.apache.dubbo.cache.support.tinylfu.TinyLfuCacheFactory;
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.rpc.AsyncRpcResult;
 import org.apache.dubbo.rpc.Invoker;
@@ -51,7 +53,9 @@ public class CacheFilterTest {
                 Arguments.of("lru", new LruCacheFactory()),
                 Arguments.of("jcache", new JCacheFactory()),
                 Arguments.of("threadlocal", new ThreadLocalCacheFactory()),
-                Arguments.of("expiring", new ExpiringCacheFactory())
+                Arguments.of("expiring", new ExpiringCacheFactory()),
+                Arguments.of("tinylfu", new TinyLfuCacheFactory()),
+                Arguments.of("offheap", new OffHeapCacheFactory())
         );
     }
 
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support;
+
+import org.apache.dubbo.rpc.RpcInvocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+public class DefaultCacheKeyGeneratorTest {
+
+    private final DefaultCacheKeyGenerator generator = new DefaultCacheKeyGenerator();
+
+    @Test
+    public void testSingleImmutableArgument() {
+        Assertions.assertEquals("arg", generator.generateKey(invocation("arg")));
+        Assertions.assertEquals(1L, generator.generateKey(invocation(1L)));
+        Assertions.assertEquals(TimeUnit.SECONDS, generator.generateKey(invocation(TimeUnit.SECONDS)));
+        Assertions.assertNotEquals(generator.generateKey(invocation(1)), generator.generateKey(invocation("1")));
+    }
+
+    @Test
+    public void testNoArgument() {
+        Assertions.assertEquals(generator.generateKey(invocation()), generator.generateKey(new RpcInvocation()));
+    }
+
+    @Test
+    public void testCompositeKey() {
+        Object key = generator.generateKey(invocation("arg", 1, null));
+        Assertions.assertEquals(key, generator.generateKey(invocation("arg", 1, null)));
+        Assertions.assertEquals(key.hashCode(), generator.generateKey(invocation("arg", 1, null)).hashCode());
+        Assertions.assertNotEquals(key, generator.generateKey(invocation("arg", 2, null)));
+        Assertions.assertNotEquals(key, generator.generateKey(invocation("arg", 1)));
+    }
+
+    @Test
+    public void testArrayArguments() {
+        int[] numbers = {1, 2, 3};
+        Object key = generator.generateKey(invocation((Object) numbers));
+        Assertions.assertEquals(key, generator.generateKey(invocation((Object) new int[]{1, 2, 3})));
+
+        numbers[0] = 4;
+        Assertions.assertNotEquals(key, generator.generateKey(invocation((Object) numbers)));
+
+        Object[] nested = {"a", new String[]{"b", "c"}};
+        Assertions.assertEquals(generator.generateKey(invocation((Object) nested)),
+                generator.generateKey(invocation((Object) new Object[]{"a", new String[]{"b", "c"}})));
+    }
+
+    @Test
+    public void testPojoArgument() throws Exception {
+        Object key = generator.generateKey(invocation(new Pojo("dubbo"), 1));
+        Assertions.assertEquals(key, generator.generateKey(invocation(new Pojo("dubbo"), 1)));
+        Assertions.assertNotEquals(key, generator.generateKey(invocation(new Pojo("apache"), 1)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(key);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Assertions.assertEquals(key, in.readObject());
+        }
+    }
+
+    private static RpcInvocation invocation(Object... args) {
+        RpcInvocation invocation = new RpcInvocation();
+        invocation.setMethodName("echo");
+        invocation.setArguments(args);
+        return invocation;
+    }
+
+    public static class Pojo implements Serializable {
+
+        private String name;
+
+        public Pojo(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.offheap;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.cache.support.AbstractCacheFactory;
+import org.apache.dubbo.cache.support.AbstractCacheFactoryTest;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.RpcInvocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapCacheFactoryTest extends AbstractCacheFactoryTest {
+
+    private static final URL CACHE_URL = URL.valueOf("test://test:11/test?cache=offheap&serialization=hessian2");
+
+    @Test
+    public void testOffHeapCacheFactory() throws Exception {
+        Cache cache = super.constructCache();
+        assertThat(cache instanceof OffHeapCache, is(true));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        OffHeapCache cache = new OffHeapCache(CACHE_URL, 1024 * 1024, 0, TimeUnit.SECONDS);
+        List<String> value = new ArrayList<>();
+        value.add("dubbo");
+        cache.put("key", value);
+        Object cached = cache.get("key");
+        assertEquals(value, cached);
+        // every hit is deserialized again
+        assertNotSame(cached, cache.get("key"));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    public void testCapacity() {
+        // 16 segments of 1024 bytes
+        OffHeapCache cache = new OffHeapCache(CACHE_URL, 16 * 1024, 0, TimeUnit.SECONDS);
+        cache.put("large", new byte[2048]);
+        assertNull(cache.get("large"));
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key" + i, new byte[100]);
+        }
+        assertTrue(cache.size() < 1000);
+        assertEquals(100, ((byte[]) cache.get("key999")).length);
+        assertNull(cache.get("key0"));
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        OffHeapCache cache = new OffHeapCache(CACHE_URL, 1024 * 1024, 50, TimeUnit.MILLISECONDS);
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+        Thread.sleep(100);
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSharedArena() {
+        // room for 4 segments of 1024 bytes, shared by both caches
+        OffHeapArena arena = new OffHeapArena(4 * 1024);
+        OffHeapCache first = new OffHeapCache(CACHE_URL, 16 * 1024, 0, TimeUnit.SECONDS, arena);
+        OffHeapCache second = new OffHeapCache(CACHE_URL, 16 * 1024, 0, TimeUnit.SECONDS, arena);
+        for (int i = 0; i < 1000; i++) {
+            first.put("key" + i, new byte[100]);
+        }
+        assertEquals(4 * 1024, arena.getAllocated());
+        // the first cache keeps working within its segments
+        assertEquals(100, ((byte[]) first.get("key999")).length);
+
+        second.put("key", "value");
+        assertNull(second.get("key"));
+
+        first.close();
+        assertEquals(0, arena.getAllocated());
+        assertNull(first.get("key999"));
+        first.put("key", "value");
+        assertNull(first.get("key"));
+
+        second.put("key", "value");
+        assertEquals("value", second.get("key"));
+        assertEquals(1024, arena.getAllocated());
+    }
+
+    @Test
+    public void testDestroyReleasesArena() {
+        OffHeapCacheFactory factory = new OffHeapCacheFactory(1024 * 1024);
+        Cache cache = factory.getCache(CACHE_URL, new RpcInvocation("sayHello", new Class[0], new Object[0]));
+        cache.put("key", "value");
+        // one segment of the default 4MB capacity
+        assertEquals(4 * 1024 * 1024 / 16, factory.getArena().getAllocated());
+        factory.destroy();
+        assertEquals(0, factory.getArena().getAllocated());
+        assertNull(cache.get("key"));
+    }
+
+    @Override
+    protected AbstractCacheFactory getCacheFactory() {
+        return new OffHeapCacheFactory();
+    }
+}
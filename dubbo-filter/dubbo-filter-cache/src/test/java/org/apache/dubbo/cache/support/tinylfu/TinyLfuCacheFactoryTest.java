@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.cache.support.AbstractCacheFactory;
+import org.apache.dubbo.cache.support.AbstractCacheFactoryTest;
+import org.apache.dubbo.common.URL;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TinyLfuCacheFactoryTest extends AbstractCacheFactoryTest {
+    @Test
+    public void testTinyLfuCacheFactory() throws Exception {
+        Cache cache = super.constructCache();
+        assertThat(cache instanceof TinyLfuCache, is(true));
+    }
+
+    @Test
+    public void testSizeBound() {
+        TinyLfuCache cache = new TinyLfuCache(URL.valueOf("test://test:11/test?cache=tinylfu&cache.size=100"));
+        for (int i = 0; i < 1000; i++) {
+            cache.get("key" + i);
+            cache.put("key" + i, "value" + i);
+        }
+        assertTrue(cache.size() <= 100);
+        assertEquals(1000, cache.getMissCount());
+        assertEquals(1000, cache.size() + cache.getEvictionCount() + cache.getRejectionCount());
+    }
+
+    @Test
+    public void testFrequentKeysAreKept() {
+        TinyLfuCache cache = new TinyLfuCache(10, Long.MAX_VALUE, null, 0, TimeUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            cache.put("hot" + i, "value" + i);
+            for (int j = 0; j < 5; j++) {
+                assertEquals("value" + i, cache.get("hot" + i));
+            }
+        }
+        // a scan of keys read only once
+        for (int i = 0; i < 100; i++) {
+            cache.get("cold" + i);
+            cache.put("cold" + i, "value" + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals("value" + i, cache.get("hot" + i));
+        }
+        assertEquals(50 + 10, cache.getHitCount());
+    }
+
+    @Test
+    public void testWeight() {
+        TinyLfuCache cache = new TinyLfuCache(100, 10, (key, value) -> ((String) value).length(), 0, TimeUnit.SECONDS);
+        cache.put("a", "12345");
+        cache.put("b", "12345");
+        cache.put("c", "12345678901");
+        assertNull(cache.get("c"));
+        cache.put("c", "1");
+        assertTrue(cache.size() <= 2);
+        assertEquals("1", cache.get("c"));
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        TinyLfuCache cache = new TinyLfuCache(100, Long.MAX_VALUE, null, 50, TimeUnit.MILLISECONDS);
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+        Thread.sleep(100);
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        TinyLfuCache cache = new TinyLfuCache(100, Long.MAX_VALUE, null, 0, TimeUnit.SECONDS);
+        int threads = 8;
+        int runs = 20000;
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger wrong = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            new Thread(() -> {
+                try {
+                    for (int i = 0; i < runs; i++) {
+                        // skewed keys, a few hot ones and a long tail
+                        String key = "key" + ((i * 31 + seed) % (i % 4 == 0 ? 1000 : 20));
+                        Object value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key);
+                        } else if (!key.equals(value)) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+        assertEquals(0, wrong.get());
+        assertTrue(cache.size() <= 100);
+        assertEquals((long) threads * runs, cache.getHitCount() + cache.getMissCount());
+        // the hot keys are read far more often than the tail and mostly stay in the cache, a hot key may still take
+        // the place of another one
+        int kept = 0;
+        for (int i = 0; i < 20; i++) {
+            if (cache.get("key" + i) != null) {
+                kept++;
+            }
+        }
+        assertTrue(kept >= 15, "hot keys kept: " + kept);
+    }
+
+    @Override
+    protected AbstractCacheFactory getCacheFactory() {
+        return new TinyLfuCacheFactory();
+    }
+}
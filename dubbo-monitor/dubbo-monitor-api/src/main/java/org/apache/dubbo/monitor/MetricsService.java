@@ -19,4 +19,12 @@ package org.apache.dubbo.monitor;
 
 public interface MetricsService {
     String getMetricsByGroup(String group);
+
+    /**
+     * The latency percentiles of every provider and consumer side method in the last monitor interval, in
+     * microseconds, as a json array
+     */
+    default String getLatencyMetrics() {
+        return "[]";
+    }
 }
@@ -17,6 +17,7 @@
 package org.apache.dubbo.monitor;
 
 import org.apache.dubbo.common.Node;
+import org.apache.dubbo.common.URL;
 
 /**
  * Monitor. (SPI, Prototype, ThreadSafe)
@@ -25,4 +26,23 @@ import org.apache.dubbo.common.Node;
  */
 public interface Monitor extends Node, MonitorService {
 
+    /**
+     * Get a collector for the invocations described by the statistics url, which carries the application, interface,
+     * method, group, version and remote side but no counts. Callers are expected to keep the collector and reuse it
+     * for every invocation instead of building a statistics url each time.
+     * <p>
+     * The default collector builds the statistics url of every invocation and hands it to {@link #collect(URL)}.
+     *
+     * @param statisticsUrl the statistics url without counts
+     * @return the collector
+     */
+    default StatisticsCollector getCollector(URL statisticsUrl) {
+        return (error, elapsed, input, output, concurrent) -> collect(statisticsUrl.addParameters(
+                error ? FAILURE : SUCCESS, "1",
+                ELAPSED, String.valueOf(elapsed),
+                CONCURRENT, String.valueOf(concurrent),
+                INPUT, String.valueOf(input),
+                OUTPUT, String.valueOf(output)));
+    }
+
 }
\ No newline at end of file
@@ -64,12 +64,21 @@ public interface MonitorService {
 
     String MAX_CONCURRENT = "max.concurrent";
 
+    String P50_ELAPSED = "p50.elapsed";
+
+    String P90_ELAPSED = "p90.elapsed";
+
+    String P99_ELAPSED = "p99.elapsed";
+
+    String P999_ELAPSED = "p999.elapsed";
+
     /**
      * Collect monitor data
      * 1. support invocation count: count://host/interface?application=foo&method=foo&provider=10.20.153.11:20880&success=12&failure=2&elapsed=135423423
      * 1.1 host,application,interface,group,version,method: record source host/application/interface/method
      * 1.2 add provider address parameter if it's data sent from consumer, otherwise, add source consumer's address in parameters
      * 1.3 success,failure,elapsed: record success count, failure count, and total cost for success invocations, average cost (total cost/success calls)
+     * 1.4 p50.elapsed,p90.elapsed,p99.elapsed,p999.elapsed: the cost percentiles of the method within the interval, in milliseconds with microsecond precision
      *
      * @param statistics
      */
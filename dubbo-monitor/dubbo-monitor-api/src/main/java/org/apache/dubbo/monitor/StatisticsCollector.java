@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor;
+
+/**
+ * Collects the invocations of one service method against one remote side. (SPI, Prototype, ThreadSafe)
+ *
+ * @see org.apache.dubbo.monitor.Monitor#getCollector(org.apache.dubbo.common.URL)
+ */
+public interface StatisticsCollector {
+
+    /**
+     * Collect one invocation
+     *
+     * @param error      if the invocation failed
+     * @param elapsed    the invocation cost in milliseconds
+     * @param input      the request size in bytes, 0 if unknown
+     * @param output     the response size in bytes, 0 if unknown
+     * @param concurrent the concurrent invocations of the method
+     */
+    void collect(boolean error, long elapsed, long input, long output, int concurrent);
+
+}
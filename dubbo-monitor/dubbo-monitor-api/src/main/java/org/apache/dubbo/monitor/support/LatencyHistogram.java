@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram of one service method, in microseconds, with the log-linear buckets of an HDR histogram: every
+ * power of two range is split into {@value #SUB_BUCKET_HALF_COUNT} buckets, so a value is reported within about 3%
+ * up to {@link #MAX_VALUE}, with a fixed footprint and no allocation when recording. (ThreadSafe)
+ * <p>
+ * The counts belong to the current interval until {@link #rotate()} takes them into the snapshot of the last
+ * interval. The cumulative count, sum and failures are never reset, for pull based collectors computing rates.
+ */
+public class LatencyHistogram {
+
+    /**
+     * about an hour, larger values are counted as this
+     */
+    public static final long MAX_VALUE = (1L << 32) - 1;
+
+    private static final int SUB_BUCKET_HALF_COUNT_MAGNITUDE = 5;
+
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_COUNT_MAGNITUDE;
+
+    private static final long SUB_BUCKET_MASK = (SUB_BUCKET_HALF_COUNT << 1) - 1;
+
+    private static final int LENGTH = countsIndex(MAX_VALUE) + 1;
+
+    private final String side;
+
+    private final String service;
+
+    private final String method;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LENGTH);
+
+    private final LongAdder total = new LongAdder();
+
+    private final LongAdder cumulativeCount = new LongAdder();
+
+    private final LongAdder cumulativeSum = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private volatile Snapshot lastInterval;
+
+    public LatencyHistogram(String side, String service, String method) {
+        this.side = side;
+        this.service = service;
+        this.method = method;
+    }
+
+    public String getSide() {
+        return side;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void record(long elapsed, TimeUnit unit) {
+        record(elapsed, unit, false);
+    }
+
+    public void record(long elapsed, TimeUnit unit, boolean failed) {
+        long micros = Math.min(Math.max(unit.toMicros(elapsed), 0), MAX_VALUE);
+        counts.incrementAndGet(countsIndex(micros));
+        total.add(micros);
+        cumulativeCount.increment();
+        cumulativeSum.add(micros);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * @return the number of values recorded since creation
+     */
+    public long getCumulativeCount() {
+        return cumulativeCount.sum();
+    }
+
+    /**
+     * @return the sum of the values recorded since creation, in microseconds
+     */
+    public long getCumulativeSum() {
+        return cumulativeSum.sum();
+    }
+
+    /**
+     * @return the number of failed invocations recorded since creation
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Ends the current interval, its counts are taken off exactly and become the last interval.
+     *
+     * @return the snapshot of the interval just ended
+     */
+    public Snapshot rotate() {
+        long[] taken = new long[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            if (counts.get(i) != 0) {
+                taken[i] = counts.getAndSet(i, 0);
+            }
+        }
+        long sum = total.sum();
+        total.add(-sum);
+        Snapshot snapshot = new Snapshot(taken, sum);
+        lastInterval = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * @return the last interval, or null if it never rotated
+     */
+    public Snapshot getLastInterval() {
+        return lastInterval;
+    }
+
+    /**
+     * @return the counts of the current interval so far, leaving them in place
+     */
+    public Snapshot getCurrentInterval() {
+        long[] copy = new long[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, total.sum());
+    }
+
+    static int countsIndex(long value) {
+        int bucketIndex = 63 - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK) - SUB_BUCKET_HALF_COUNT_MAGNITUDE;
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return (bucketIndex << SUB_BUCKET_HALF_COUNT_MAGNITUDE) + subBucketIndex;
+    }
+
+    /**
+     * @return the highest value counted in the same bucket as the given index
+     */
+    static long highestEquivalentValue(int index) {
+        int bucketIndex = (index >> SUB_BUCKET_HALF_COUNT_MAGNITUDE) - 1;
+        int subBucketIndex = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+        if (bucketIndex < 0) {
+            subBucketIndex -= SUB_BUCKET_HALF_COUNT;
+            bucketIndex = 0;
+        }
+        return ((long) subBucketIndex << bucketIndex) + (1L << bucketIndex) - 1;
+    }
+
+    /**
+     * The counts of an interval, values in microseconds
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long sum;
+
+        Snapshot(long[] counts, long sum) {
+            this.counts = counts;
+            this.sum = sum;
+            long count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+            this.count = count;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @param percentile between 0 and 100, e.g. 99.9
+         * @return the value which the given percentage of the values are equal to or below, 0 if empty
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long countAtPercentile = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= countAtPercentile) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return getMax();
+        }
+    }
+}
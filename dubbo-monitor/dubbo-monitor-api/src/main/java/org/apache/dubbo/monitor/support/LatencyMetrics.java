@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.support;
+
+import org.apache.dubbo.common.utils.ConfigUtils;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The latency histograms of the service methods, per provider and consumer side, recorded by {@link MonitorFilter}.
+ * <p>
+ * They are all rotated on one schedule, every <b>dubbo.monitor.latency.interval</b> milliseconds, default value is
+ * 60000 like the send interval of the monitor. The monitors, the metrics service and the qos commands all read the
+ * last interval, so none of them cuts the interval of another short.
+ */
+public class LatencyMetrics {
+
+    public static final String INTERVAL_KEY = "dubbo.monitor.latency.interval";
+
+    private static final long DEFAULT_INTERVAL = 60000;
+
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    private static final AtomicBoolean SCHEDULED = new AtomicBoolean();
+
+    private static volatile long lastRotation;
+
+    private LatencyMetrics() {
+    }
+
+    /**
+     * @param side    provider or consumer
+     * @param service the interface name
+     * @param method  the method name
+     * @return the histogram, created on first use
+     */
+    public static LatencyHistogram getHistogram(String side, String service, String method) {
+        String key = getKey(side, service, method);
+        LatencyHistogram histogram = HISTOGRAMS.get(key);
+        if (histogram == null) {
+            HISTOGRAMS.putIfAbsent(key, new LatencyHistogram(side, service, method));
+            histogram = HISTOGRAMS.get(key);
+            scheduleRotation();
+        }
+        return histogram;
+    }
+
+    /**
+     * @return the histogram, or null if the method was never recorded
+     */
+    public static LatencyHistogram findHistogram(String side, String service, String method) {
+        return HISTOGRAMS.get(getKey(side, service, method));
+    }
+
+    public static Collection<LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableCollection(HISTOGRAMS.values());
+    }
+
+    /**
+     * @return the milliseconds between two rotations
+     */
+    public static long getInterval() {
+        try {
+            long interval = Long.parseLong(ConfigUtils.getProperty(INTERVAL_KEY, String.valueOf(DEFAULT_INTERVAL)));
+            return interval > 0 ? interval : DEFAULT_INTERVAL;
+        } catch (NumberFormatException e) {
+            return DEFAULT_INTERVAL;
+        }
+    }
+
+    private static void scheduleRotation() {
+        if (SCHEDULED.compareAndSet(false, true)) {
+            long interval = getInterval();
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                    new NamedThreadFactory("DubboLatencyRotateTimer", true));
+            scheduler.scheduleWithFixedDelay(LatencyMetrics::rotate, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Ends the current interval of every histogram
+     */
+    static synchronized void rotate() {
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            histogram.rotate();
+        }
+        lastRotation = System.currentTimeMillis();
+    }
+
+    /**
+     * @return when the histograms were last rotated, 0 if never
+     */
+    public static long getLastRotation() {
+        return lastRotation;
+    }
+
+    /**
+     * The last interval of the histogram, or the current one if it was never rotated, i.e. no monitor sends
+     */
+    public static LatencyHistogram.Snapshot getSnapshot(LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.getLastInterval();
+        return snapshot != null ? snapshot : histogram.getCurrentInterval();
+    }
+
+    public static void clear() {
+        HISTOGRAMS.clear();
+        lastRotation = 0;
+    }
+
+    private static String getKey(String side, String service, String method) {
+        return side + ":" + service + "#" + method;
+    }
+}
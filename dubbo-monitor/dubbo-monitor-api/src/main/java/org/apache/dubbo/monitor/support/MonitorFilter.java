@@ -21,19 +21,23 @@ import org.apache.dubbo.common.extension.Activate;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.monitor.Monitor;
 import org.apache.dubbo.monitor.MonitorFactory;
 import org.apache.dubbo.monitor.MonitorService;
+import org.apache.dubbo.monitor.StatisticsCollector;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.ListenableFilter;
 import org.apache.dubbo.rpc.Result;
 import org.apache.dubbo.rpc.RpcContext;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
 import org.apache.dubbo.rpc.support.RpcUtils;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.dubbo.common.constants.CommonConstants.APPLICATION_KEY;
@@ -50,6 +54,14 @@ import static org.apache.dubbo.rpc.Constants.INPUT_KEY;
 import static org.apache.dubbo.rpc.Constants.OUTPUT_KEY;
 /**
  * MonitorFilter. (SPI, Singleton, ThreadSafe)
+ * <p>
+ * The statistics of a method are kept per side, address and service key, as the invokers passed to the filter and its
+ * listener are not always the same instances. The address and the service key are cached by the invoker url, so the
+ * lookup of an invocation builds no strings. The statistics url of a service method and remote side is built once, the
+ * monitor hands back a
+ * {@link StatisticsCollector} for it which then takes the counts of every invocation, see
+ * {@link Monitor#getCollector(URL)}. The elapsed times also go to the {@link LatencyHistogram} of the method, see
+ * {@link LatencyMetrics}.
  */
 @Activate(group = {PROVIDER, CONSUMER})
 public class MonitorFilter extends ListenableFilter {
@@ -65,6 +77,16 @@ public class MonitorFilter extends ListenableFilter {
      */
     private final ConcurrentMap<String, AtomicInteger> concurrents = new ConcurrentHashMap<String, AtomicInteger>();
 
+    /**
+     * The statistics handles of the provider side per local address and service key
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, ServiceStatistics>> providerStatistics = new ConcurrentHashMap<String, ConcurrentMap<String, ServiceStatistics>>();
+
+    /**
+     * The statistics handles of the consumer side per provider address and service key
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, ServiceStatistics>> consumerStatistics = new ConcurrentHashMap<String, ConcurrentMap<String, ServiceStatistics>>();
+
     /**
      * The MonitorFactory
      */
@@ -86,8 +108,12 @@ public class MonitorFilter extends ListenableFilter {
     @Override
     public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
         if (invoker.getUrl().hasParameter(MONITOR_KEY)) {
-            invocation.setAttachment(MONITOR_FILTER_START_TIME, String.valueOf(System.currentTimeMillis()));
-            getConcurrent(invoker, invocation).incrementAndGet(); // count up
+            if (invocation instanceof RpcInvocation) {
+                ((RpcInvocation) invocation).setStartTime(System.nanoTime());
+            } else {
+                invocation.setAttachment(MONITOR_FILTER_START_TIME, String.valueOf(System.nanoTime()));
+            }
+            getMethodStatistics(invoker, invocation).concurrent.incrementAndGet(); // count up
         }
         return invoker.invoke(invocation); // proceed invocation chain
     }
@@ -103,21 +129,110 @@ public class MonitorFilter extends ListenableFilter {
         return concurrent;
     }
 
+    private ServiceStatistics getServiceStatistics(Invoker<?> invoker) {
+        URL url = invoker.getUrl();
+        boolean consumer = CONSUMER_SIDE.equals(url.getParameter(SIDE_KEY));
+        ConcurrentMap<String, ConcurrentMap<String, ServiceStatistics>> sideStatistics = consumer ? consumerStatistics : providerStatistics;
+        ConcurrentMap<String, ServiceStatistics> statistics = sideStatistics.get(url.getAddress());
+        if (statistics == null) {
+            sideStatistics.putIfAbsent(url.getAddress(), new ConcurrentHashMap<String, ServiceStatistics>());
+            statistics = sideStatistics.get(url.getAddress());
+        }
+        String serviceKey = url.getServiceKey();
+        if (serviceKey == null) {
+            serviceKey = invoker.getInterface().getName();
+        }
+        ServiceStatistics serviceStatistics = statistics.get(serviceKey);
+        if (serviceStatistics == null) {
+            statistics.putIfAbsent(serviceKey, new ServiceStatistics(url, consumer));
+            serviceStatistics = statistics.get(serviceKey);
+        }
+        return serviceStatistics;
+    }
+
+    private MethodStatistics getMethodStatistics(Invoker<?> invoker, Invocation invocation) {
+        ServiceStatistics serviceStatistics = getServiceStatistics(invoker);
+        String method = RpcUtils.getMethodName(invocation);
+        MethodStatistics methodStatistics = serviceStatistics.methods.get(method);
+        if (methodStatistics == null) {
+            String side = serviceStatistics.consumer ? CONSUMER : PROVIDER;
+            LatencyHistogram histogram = LatencyMetrics.getHistogram(side, invoker.getInterface().getName(), method);
+            serviceStatistics.methods.putIfAbsent(method, new MethodStatistics(serviceStatistics, method, getConcurrent(invoker, invocation), histogram));
+            methodStatistics = serviceStatistics.methods.get(method);
+        }
+        return methodStatistics;
+    }
+
+    private static long getStart(Invocation invocation) {
+        if (invocation instanceof RpcInvocation) {
+            return ((RpcInvocation) invocation).getStartTime();
+        }
+        return Long.parseLong(invocation.getAttachment(MONITOR_FILTER_START_TIME));
+    }
+
+    private static long getSize(String size) {
+        return StringUtils.isEmpty(size) ? 0 : Long.parseLong(size);
+    }
+
+    /**
+     * The monitor and the methods of a service
+     */
+    private static class ServiceStatistics {
+
+        private final URL monitorUrl;
+
+        private final boolean consumer;
+
+        private final ConcurrentMap<String, MethodStatistics> methods = new ConcurrentHashMap<String, MethodStatistics>();
+
+        private volatile Monitor monitor;
+
+        ServiceStatistics(URL url, boolean consumer) {
+            this.monitorUrl = url.getUrlParameter(MONITOR_KEY);
+            this.consumer = consumer;
+        }
+    }
+
+    /**
+     * The concurrent counter and the collectors per remote side of a method
+     */
+    private static class MethodStatistics {
+
+        private final ServiceStatistics service;
+
+        private final String method;
+
+        private final AtomicInteger concurrent;
+
+        private final LatencyHistogram histogram;
+
+        private final ConcurrentMap<String, StatisticsCollector> collectors = new ConcurrentHashMap<String, StatisticsCollector>();
+
+        MethodStatistics(ServiceStatistics service, String method, AtomicInteger concurrent, LatencyHistogram histogram) {
+            this.service = service;
+            this.method = method;
+            this.concurrent = concurrent;
+            this.histogram = histogram;
+        }
+    }
+
     class MonitorListener implements Listener {
 
         @Override
         public void onResponse(Result result, Invoker<?> invoker, Invocation invocation) {
             if (invoker.getUrl().hasParameter(MONITOR_KEY)) {
-                collect(invoker, invocation, result, RpcContext.getContext().getRemoteHost(), Long.valueOf(invocation.getAttachment(MONITOR_FILTER_START_TIME)), false);
-                getConcurrent(invoker, invocation).decrementAndGet(); // count down
+                MethodStatistics methodStatistics = getMethodStatistics(invoker, invocation);
+                collect(invoker, invocation, methodStatistics, result, RpcContext.getContext().getRemoteHost(), getStart(invocation), false);
+                methodStatistics.concurrent.decrementAndGet(); // count down
             }
         }
 
         @Override
         public void onError(Throwable t, Invoker<?> invoker, Invocation invocation) {
             if (invoker.getUrl().hasParameter(MONITOR_KEY)) {
-                collect(invoker, invocation, null, RpcContext.getContext().getRemoteHost(), Long.valueOf(invocation.getAttachment(MONITOR_FILTER_START_TIME)), true);
-                getConcurrent(invoker, invocation).decrementAndGet(); // count down
+                MethodStatistics methodStatistics = getMethodStatistics(invoker, invocation);
+                collect(invoker, invocation, methodStatistics, null, RpcContext.getContext().getRemoteHost(), getStart(invocation), true);
+                methodStatistics.concurrent.decrementAndGet(); // count down
             }
         }
 
@@ -126,43 +241,68 @@ public class MonitorFilter extends ListenableFilter {
          *
          * @param invoker
          * @param invocation
-         * @param result     the invoke result
-         * @param remoteHost the remote host address
-         * @param start      the timestamp the invoke begin
-         * @param error      if there is an error on the invoke
+         * @param methodStatistics the statistics handle of the method
+         * @param result           the invoke result
+         * @param remoteHost       the remote host address
+         * @param start            the {@link System#nanoTime()} the invoke begin
+         * @param error            if there is an error on the invoke
          */
-        private void collect(Invoker<?> invoker, Invocation invocation, Result result, String remoteHost, long start, boolean error) {
+        private void collect(Invoker<?> invoker, Invocation invocation, MethodStatistics methodStatistics, Result result, String remoteHost, long start, boolean error) {
             try {
-                URL monitorUrl = invoker.getUrl().getUrlParameter(MONITOR_KEY);
-                Monitor monitor = monitorFactory.getMonitor(monitorUrl);
-                if (monitor == null) {
+                long elapsed = System.nanoTime() - start; // invocation cost
+                methodStatistics.histogram.record(elapsed, TimeUnit.NANOSECONDS, error);
+                StatisticsCollector collector = getCollector(invoker, methodStatistics, remoteHost);
+                if (collector == null) {
                     return;
                 }
-                URL statisticsURL = createStatisticsUrl(invoker, invocation, result, remoteHost, start, error);
-                monitor.collect(statisticsURL);
+                long input = getSize(invocation.getAttachment(INPUT_KEY));
+                long output = result != null ? getSize(result.getAttachment(OUTPUT_KEY)) : 0;
+                collector.collect(error, TimeUnit.NANOSECONDS.toMillis(elapsed), input, output, methodStatistics.concurrent.get());
             } catch (Throwable t) {
                 logger.warn("Failed to monitor count service " + invoker.getUrl() + ", cause: " + t.getMessage(), t);
             }
         }
 
+        private StatisticsCollector getCollector(Invoker<?> invoker, MethodStatistics methodStatistics, String remoteHost) {
+            ServiceStatistics serviceStatistics = methodStatistics.service;
+            Monitor monitor = serviceStatistics.monitor;
+            if (monitor == null) {
+                // the monitor is created asynchronously, look again until it is there
+                monitor = monitorFactory.getMonitor(serviceStatistics.monitorUrl);
+                if (monitor == null) {
+                    return null;
+                }
+                serviceStatistics.monitor = monitor;
+            }
+            // the statistics are kept per provider address on the consumer side and per local address on the provider
+            // side already, so only the consumer host of the provider side is left to tell the remote sides apart
+            String remote = serviceStatistics.consumer ? invoker.getUrl().getAddress() : String.valueOf(remoteHost);
+            StatisticsCollector collector = methodStatistics.collectors.get(remote);
+            if (collector == null) {
+                collector = monitor.getCollector(createStatisticsUrl(invoker, methodStatistics.method, remoteHost));
+                if (collector == null) {
+                    return null;
+                }
+                StatisticsCollector old = methodStatistics.collectors.putIfAbsent(remote, collector);
+                if (old != null) {
+                    collector = old;
+                }
+            }
+            return collector;
+        }
+
         /**
-         * Create statistics url
+         * Create statistics url, without the counts of an invocation
          *
          * @param invoker
-         * @param invocation
-         * @param result
+         * @param method
          * @param remoteHost
-         * @param start
-         * @param error
          * @return
          */
-        private URL createStatisticsUrl(Invoker<?> invoker, Invocation invocation, Result result, String remoteHost, long start, boolean error) {
+        private URL createStatisticsUrl(Invoker<?> invoker, String method, String remoteHost) {
             // ---- service statistics ----
-            long elapsed = System.currentTimeMillis() - start; // invocation cost
-            int concurrent = getConcurrent(invoker, invocation).get(); // current concurrent count
             String application = invoker.getUrl().getParameter(APPLICATION_KEY);
             String service = invoker.getInterface().getName(); // service name
-            String method = RpcUtils.getMethodName(invocation); // method name
             String group = invoker.getUrl().getParameter(GROUP_KEY);
             String version = invoker.getUrl().getParameter(VERSION_KEY);
 
@@ -179,15 +319,8 @@ public class MonitorFilter extends ListenableFilter {
                 remoteKey = MonitorService.CONSUMER;
                 remoteValue = remoteHost;
             }
-            String input = "", output = "";
-            if (invocation.getAttachment(INPUT_KEY) != null) {
-                input = invocation.getAttachment(INPUT_KEY);
-            }
-            if (result != null && result.getAttachment(OUTPUT_KEY) != null) {
-                output = result.getAttachment(OUTPUT_KEY);
-            }
 
-            return new URL(COUNT_PROTOCOL, NetUtils.getLocalHost(), localPort, service + PATH_SEPARATOR + method, MonitorService.APPLICATION, application, MonitorService.INTERFACE, service, MonitorService.METHOD, method, remoteKey, remoteValue, error ? MonitorService.FAILURE : MonitorService.SUCCESS, "1", MonitorService.ELAPSED, String.valueOf(elapsed), MonitorService.CONCURRENT, String.valueOf(concurrent), INPUT_KEY, input, OUTPUT_KEY, output, GROUP_KEY, group, VERSION_KEY, version);
+            return new URL(COUNT_PROTOCOL, NetUtils.getLocalHost(), localPort, service + PATH_SEPARATOR + method, MonitorService.APPLICATION, application, MonitorService.INTERFACE, service, MonitorService.METHOD, method, remoteKey, remoteValue, GROUP_KEY, group, VERSION_KEY, version);
         }
 
     }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.support;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testCountsIndex() {
+        for (long value = 0; value < 64; value++) {
+            Assertions.assertEquals(value, LatencyHistogram.countsIndex(value));
+            Assertions.assertEquals(value, LatencyHistogram.highestEquivalentValue((int) value));
+        }
+        long last = -1;
+        for (long value = 64; value < 1_000_000; value += 7) {
+            int index = LatencyHistogram.countsIndex(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            Assertions.assertTrue(highest >= value);
+            Assertions.assertTrue(highest - value <= value / 32, value + " -> " + highest);
+            Assertions.assertTrue(index >= last);
+            last = index;
+        }
+        Assertions.assertTrue(LatencyHistogram.countsIndex(LatencyHistogram.MAX_VALUE) > last);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram("provider", "DemoService", "sayHello");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, TimeUnit.MILLISECONDS);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.getCurrentInterval();
+        Assertions.assertEquals(1000, snapshot.getCount());
+        assertNear(500_000, snapshot.getValueAtPercentile(50));
+        assertNear(990_000, snapshot.getValueAtPercentile(99));
+        assertNear(999_000, snapshot.getValueAtPercentile(99.9));
+        assertNear(1_000_000, snapshot.getMax());
+        assertNear(500_500, (long) snapshot.getMean());
+    }
+
+    @Test
+    public void testRotate() {
+        LatencyHistogram histogram = new LatencyHistogram("consumer", "DemoService", "sayHello");
+        Assertions.assertNull(histogram.getLastInterval());
+        histogram.record(10, TimeUnit.MICROSECONDS);
+        histogram.record(20, TimeUnit.MICROSECONDS);
+
+        LatencyHistogram.Snapshot snapshot = histogram.rotate();
+        Assertions.assertSame(snapshot, histogram.getLastInterval());
+        Assertions.assertEquals(2, snapshot.getCount());
+        Assertions.assertEquals(20, snapshot.getMax());
+        Assertions.assertEquals(0, histogram.getCurrentInterval().getCount());
+
+        histogram.record(2, TimeUnit.HOURS);
+        Assertions.assertEquals(LatencyHistogram.MAX_VALUE, histogram.rotate().getMax());
+        Assertions.assertEquals(0, histogram.rotate().getValueAtPercentile(99));
+    }
+
+    private static void assertNear(long expected, long actual) {
+        Assertions.assertTrue(Math.abs(expected - actual) <= expected / 32, expected + " ~ " + actual);
+    }
+}
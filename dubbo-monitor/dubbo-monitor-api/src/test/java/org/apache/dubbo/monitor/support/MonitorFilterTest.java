@@ -21,6 +21,7 @@ import org.apache.dubbo.common.utils.NetUtils;
 import org.apache.dubbo.monitor.Monitor;
 import org.apache.dubbo.monitor.MonitorFactory;
 import org.apache.dubbo.monitor.MonitorService;
+import org.apache.dubbo.monitor.StatisticsCollector;
 import org.apache.dubbo.rpc.AsyncRpcResult;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
@@ -37,6 +38,8 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.dubbo.common.constants.CommonConstants.APPLICATION_KEY;
 import static org.apache.dubbo.common.constants.CommonConstants.CONSUMER_SIDE;
@@ -46,6 +49,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -193,4 +197,86 @@ public class MonitorFilterTest {
 
         monitorFilter.invoke(serviceInvoker, invocation);
     }
+
+    @Test
+    public void testCollectorReused() throws Exception {
+        MonitorFilter monitorFilter = new MonitorFilter();
+        MonitorFactory mockMonitorFactory = mock(MonitorFactory.class);
+        Monitor mockMonitor = mock(Monitor.class);
+        AtomicInteger collected = new AtomicInteger();
+        StatisticsCollector collector = (error, elapsed, input, output, concurrent) -> collected.incrementAndGet();
+        given(mockMonitor.getCollector(any(URL.class))).willReturn(collector);
+        given(mockMonitorFactory.getMonitor(any(URL.class))).willReturn(mockMonitor);
+        monitorFilter.setMonitorFactory(mockMonitorFactory);
+
+        for (int i = 0; i < 3; i++) {
+            Invocation invocation = new RpcInvocation("aaa", new Class<?>[0], new Object[0]);
+            Result result = monitorFilter.invoke(serviceInvoker, invocation);
+            monitorFilter.listener().onResponse(result, serviceInvoker, invocation);
+        }
+
+        Assertions.assertEquals(3, collected.get());
+        verify(mockMonitorFactory, times(1)).getMonitor(any(URL.class));
+        verify(mockMonitor, times(1)).getCollector(any(URL.class));
+        verify(mockMonitor, never()).collect(any(URL.class));
+    }
+
+    @Test
+    public void testStatisticsSharedByInvokersOfTheSameService() throws Exception {
+        MonitorFilter monitorFilter = new MonitorFilter();
+        MonitorFactory mockMonitorFactory = mock(MonitorFactory.class);
+        Monitor mockMonitor = mock(Monitor.class);
+        AtomicInteger concurrent = new AtomicInteger(-1);
+        StatisticsCollector collector = (error, elapsed, input, output, c) -> concurrent.set(c);
+        given(mockMonitor.getCollector(any(URL.class))).willReturn(collector);
+        given(mockMonitorFactory.getMonitor(any(URL.class))).willReturn(mockMonitor);
+        monitorFilter.setMonitorFactory(mockMonitorFactory);
+
+        // the listener may be handed another wrapper of the invoker, which is not available
+        Invoker<MonitorService> wrapper = mock(Invoker.class);
+        given(wrapper.getInterface()).willReturn(MonitorService.class);
+        given(wrapper.getUrl()).willReturn(serviceInvoker.getUrl());
+        given(wrapper.isAvailable()).willReturn(false);
+
+        Invocation first = new RpcInvocation("aaa", new Class<?>[0], new Object[0]);
+        Invocation second = new RpcInvocation("aaa", new Class<?>[0], new Object[0]);
+        monitorFilter.invoke(serviceInvoker, first);
+        monitorFilter.invoke(serviceInvoker, second);
+        monitorFilter.listener().onResponse(AsyncRpcResult.newDefaultAsyncResult(first), wrapper, first);
+        Assertions.assertEquals(2, concurrent.get());
+        monitorFilter.listener().onResponse(AsyncRpcResult.newDefaultAsyncResult(second), serviceInvoker, second);
+        Assertions.assertEquals(1, concurrent.get());
+
+        verify(mockMonitor, times(1)).getCollector(any(URL.class));
+    }
+
+    @Test
+    public void testStatisticsKeptPerProviderAddress() throws Exception {
+        MonitorFilter monitorFilter = new MonitorFilter();
+        MonitorFactory mockMonitorFactory = mock(MonitorFactory.class);
+        Monitor mockMonitor = mock(Monitor.class);
+        List<URL> statistics = new CopyOnWriteArrayList<URL>();
+        given(mockMonitor.getCollector(any(URL.class))).willAnswer(invocation -> {
+            statistics.add(invocation.getArgument(0));
+            return (StatisticsCollector) (error, elapsed, input, output, c) -> {
+            };
+        });
+        given(mockMonitorFactory.getMonitor(any(URL.class))).willReturn(mockMonitor);
+        monitorFilter.setMonitorFactory(mockMonitorFactory);
+
+        Invoker<MonitorService> other = mock(Invoker.class);
+        given(other.getInterface()).willReturn(MonitorService.class);
+        given(other.getUrl()).willReturn(serviceInvoker.getUrl().setPort(20881));
+        given(other.invoke(any(Invocation.class))).willReturn(AsyncRpcResult.newDefaultAsyncResult(null));
+
+        for (Invoker<MonitorService> invoker : Arrays.asList(serviceInvoker, other, serviceInvoker)) {
+            Invocation invocation = new RpcInvocation("aaa", new Class<?>[0], new Object[0]);
+            monitorFilter.invoke(invoker, invocation);
+            monitorFilter.listener().onResponse(AsyncRpcResult.newDefaultAsyncResult(invocation), invoker, invocation);
+        }
+
+        Assertions.assertEquals(2, statistics.size());
+        Assertions.assertEquals(NetUtils.getLocalHost() + ":20880", statistics.get(0).getParameter(MonitorService.PROVIDER));
+        Assertions.assertEquals(NetUtils.getLocalHost() + ":20881", statistics.get(1).getParameter(MonitorService.PROVIDER));
+    }
 }
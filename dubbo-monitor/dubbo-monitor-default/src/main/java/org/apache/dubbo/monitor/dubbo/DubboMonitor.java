@@ -23,19 +23,22 @@ import org.apache.dubbo.common.utils.ExecutorUtil;
 import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.monitor.Monitor;
 import org.apache.dubbo.monitor.MonitorService;
+import org.apache.dubbo.monitor.StatisticsCollector;
+import org.apache.dubbo.monitor.support.LatencyHistogram;
+import org.apache.dubbo.monitor.support.LatencyMetrics;
 import org.apache.dubbo.rpc.Invoker;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 
+import static org.apache.dubbo.common.constants.CommonConstants.CONSUMER;
 import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_PROTOCOL;
+import static org.apache.dubbo.common.constants.CommonConstants.PROVIDER;
 
 /**
  * DubboMonitor
@@ -44,11 +47,6 @@ public class DubboMonitor implements Monitor {
 
     private static final Logger logger = LoggerFactory.getLogger(DubboMonitor.class);
 
-    /**
-     * The length of the array which is a container of the statistics
-     */
-    private static final int LENGTH = 10;
-
     /**
      * The timer for sending statistics
      */
@@ -68,7 +66,7 @@ public class DubboMonitor implements Monitor {
      */
     private final long monitorInterval;
 
-    private final ConcurrentMap<Statistics, AtomicReference<long[]>> statisticsMap = new ConcurrentHashMap<Statistics, AtomicReference<long[]>>();
+    private final ConcurrentMap<Statistics, StatisticsCounter> statisticsMap = new ConcurrentHashMap<Statistics, StatisticsCounter>();
 
     public DubboMonitor(Invoker<MonitorService> monitorInvoker, MonitorService monitorService) {
         this.monitorInvoker = monitorInvoker;
@@ -88,11 +86,10 @@ public class DubboMonitor implements Monitor {
     public void send() {
         logger.debug("Send statistics to monitor " + getUrl());
         String timestamp = String.valueOf(System.currentTimeMillis());
-        for (Map.Entry<Statistics, AtomicReference<long[]>> entry : statisticsMap.entrySet()) {
-            // get statistics data
-            Statistics statistics = entry.getKey();
-            AtomicReference<long[]> reference = entry.getValue();
-            long[] numbers = reference.get();
+        String protocol = getUrl().getParameter(DEFAULT_PROTOCOL);
+        for (StatisticsCounter counter : statisticsMap.values()) {
+            // get statistics data and reset
+            long[] numbers = counter.snapshot();
             long success = numbers[0];
             long failure = numbers[1];
             long input = numbers[2];
@@ -103,10 +100,9 @@ public class DubboMonitor implements Monitor {
             long maxOutput = numbers[7];
             long maxElapsed = numbers[8];
             long maxConcurrent = numbers[9];
-            String protocol = getUrl().getParameter(DEFAULT_PROTOCOL);
 
             // send statistics data
-            URL url = statistics.getUrl()
+            URL url = counter.getStatistics().getUrl()
                     .addParameters(MonitorService.TIMESTAMP, timestamp,
                             MonitorService.SUCCESS, String.valueOf(success),
                             MonitorService.FAILURE, String.valueOf(failure),
@@ -120,32 +116,33 @@ public class DubboMonitor implements Monitor {
                             MonitorService.MAX_CONCURRENT, String.valueOf(maxConcurrent),
                             DEFAULT_PROTOCOL, protocol
                     );
-            monitorService.collect(url);
-
-            // reset
-            long[] current;
-            long[] update = new long[LENGTH];
-            do {
-                current = reference.get();
-                if (current == null) {
-                    update[0] = 0;
-                    update[1] = 0;
-                    update[2] = 0;
-                    update[3] = 0;
-                    update[4] = 0;
-                    update[5] = 0;
-                } else {
-                    update[0] = current[0] - success;
-                    update[1] = current[1] - failure;
-                    update[2] = current[2] - input;
-                    update[3] = current[3] - output;
-                    update[4] = current[4] - elapsed;
-                    update[5] = current[5] - concurrent;
-                }
-            } while (!reference.compareAndSet(current, update));
+            monitorService.collect(addPercentiles(url, counter.getStatistics()));
         }
     }
 
+    private URL addPercentiles(URL url, Statistics statistics) {
+        // statistics sent by a provider name the consumer and the other way around
+        String side = url.hasParameter(MonitorService.CONSUMER) ? PROVIDER : CONSUMER;
+        LatencyHistogram histogram = LatencyMetrics.findHistogram(side, statistics.getService(), statistics.getMethod());
+        LatencyHistogram.Snapshot snapshot = histogram != null ? histogram.getLastInterval() : null;
+        if (snapshot == null || snapshot.getCount() == 0) {
+            return url;
+        }
+        return url.addParameters(MonitorService.P50_ELAPSED, toMillis(snapshot.getValueAtPercentile(50)),
+                MonitorService.P90_ELAPSED, toMillis(snapshot.getValueAtPercentile(90)),
+                MonitorService.P99_ELAPSED, toMillis(snapshot.getValueAtPercentile(99)),
+                MonitorService.P999_ELAPSED, toMillis(snapshot.getValueAtPercentile(99.9)));
+    }
+
+    private static String toMillis(long micros) {
+        return String.valueOf(micros / 1000.0);
+    }
+
+    @Override
+    public StatisticsCollector getCollector(URL statisticsUrl) {
+        return getCounter(statisticsUrl);
+    }
+
     @Override
     public void collect(URL url) {
         // data to collect from url
@@ -155,42 +152,17 @@ public class DubboMonitor implements Monitor {
         int output = url.getParameter(MonitorService.OUTPUT, 0);
         int elapsed = url.getParameter(MonitorService.ELAPSED, 0);
         int concurrent = url.getParameter(MonitorService.CONCURRENT, 0);
-        // init atomic reference
+        getCounter(url).add(success, failure, input, output, elapsed, concurrent);
+    }
+
+    private StatisticsCounter getCounter(URL url) {
         Statistics statistics = new Statistics(url);
-        AtomicReference<long[]> reference = statisticsMap.get(statistics);
-        if (reference == null) {
-            statisticsMap.putIfAbsent(statistics, new AtomicReference<long[]>());
-            reference = statisticsMap.get(statistics);
+        StatisticsCounter counter = statisticsMap.get(statistics);
+        if (counter == null) {
+            statisticsMap.putIfAbsent(statistics, new StatisticsCounter(statistics));
+            counter = statisticsMap.get(statistics);
         }
-        // use CompareAndSet to sum
-        long[] current;
-        long[] update = new long[LENGTH];
-        do {
-            current = reference.get();
-            if (current == null) {
-                update[0] = success;
-                update[1] = failure;
-                update[2] = input;
-                update[3] = output;
-                update[4] = elapsed;
-                update[5] = concurrent;
-                update[6] = input;
-                update[7] = output;
-                update[8] = elapsed;
-                update[9] = concurrent;
-            } else {
-                update[0] = current[0] + success;
-                update[1] = current[1] + failure;
-                update[2] = current[2] + input;
-                update[3] = current[3] + output;
-                update[4] = current[4] + elapsed;
-                update[5] = (current[5] + concurrent) / 2;
-                update[6] = current[6] > input ? current[6] : input;
-                update[7] = current[7] > output ? current[7] : output;
-                update[8] = current[8] > elapsed ? current[8] : elapsed;
-                update[9] = current[9] > concurrent ? current[9] : concurrent;
-            }
-        } while (!reference.compareAndSet(current, update));
+        return counter;
     }
 
     @Override
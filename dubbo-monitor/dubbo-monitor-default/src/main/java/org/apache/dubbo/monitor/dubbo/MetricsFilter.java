@@ -23,6 +23,8 @@ import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.common.store.DataStore;
 import org.apache.dubbo.common.utils.NetUtils;
 import org.apache.dubbo.monitor.MetricsService;
+import org.apache.dubbo.monitor.support.LatencyHistogram;
+import org.apache.dubbo.monitor.support.LatencyMetrics;
 import org.apache.dubbo.rpc.AsyncRpcResult;
 import org.apache.dubbo.rpc.Filter;
 import org.apache.dubbo.rpc.Invocation;
@@ -47,6 +49,7 @@ import com.alibaba.metrics.common.MetricsCollectorFactory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -209,6 +212,26 @@ public class MetricsFilter implements Filter {
                 .build();
     }
 
+    private List<Map<String, Object>> getLatencyMetrics() {
+        List<Map<String, Object>> latencyMetrics = new ArrayList<>();
+        for (LatencyHistogram histogram : LatencyMetrics.getHistograms()) {
+            LatencyHistogram.Snapshot snapshot = LatencyMetrics.getSnapshot(histogram);
+            Map<String, Object> metric = new LinkedHashMap<>();
+            metric.put("side", histogram.getSide());
+            metric.put(SERVICE, histogram.getService());
+            metric.put(METHOD, histogram.getMethod());
+            metric.put("count", snapshot.getCount());
+            metric.put("mean", snapshot.getMean());
+            metric.put("p50", snapshot.getValueAtPercentile(50));
+            metric.put("p90", snapshot.getValueAtPercentile(90));
+            metric.put("p99", snapshot.getValueAtPercentile(99));
+            metric.put("p999", snapshot.getValueAtPercentile(99.9));
+            metric.put("max", snapshot.getMax());
+            latencyMetrics.add(metric);
+        }
+        return latencyMetrics;
+    }
+
     private Invoker<MetricsService> initMetricsInvoker() {
         Invoker<MetricsService> metricsInvoker = new Invoker<MetricsService>() {
             @Override
@@ -218,6 +241,9 @@ public class MetricsFilter implements Filter {
 
             @Override
             public Result invoke(Invocation invocation) throws RpcException {
+                if ("getLatencyMetrics".equals(invocation.getMethodName())) {
+                    return AsyncRpcResult.newDefaultAsyncResult(JSON.toJSONString(getLatencyMetrics()), invocation);
+                }
                 String group = invocation.getArguments()[0].toString();
                 MetricRegistry registry = MetricManager.getIMetricManager().getMetricRegistryByGroup(group);
 
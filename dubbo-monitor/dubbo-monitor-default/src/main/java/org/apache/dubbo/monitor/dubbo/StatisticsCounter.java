@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.dubbo;
+
+import org.apache.dubbo.monitor.StatisticsCollector;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counts of one {@link Statistics} within a monitor interval. The sums are striped adders and the maximums
+ * lock-free accumulators, so concurrent invocations never contend on a single value or retry a copy.
+ * (SPI, Prototype, ThreadSafe)
+ */
+public class StatisticsCounter implements StatisticsCollector {
+
+    private final Statistics statistics;
+
+    private final LongAdder success = new LongAdder();
+
+    private final LongAdder failure = new LongAdder();
+
+    private final LongAdder input = new LongAdder();
+
+    private final LongAdder output = new LongAdder();
+
+    private final LongAdder elapsed = new LongAdder();
+
+    private final LongAdder concurrent = new LongAdder();
+
+    private final LongAdder samples = new LongAdder();
+
+    private final LongAccumulator maxInput = new LongAccumulator(Math::max, 0);
+
+    private final LongAccumulator maxOutput = new LongAccumulator(Math::max, 0);
+
+    private final LongAccumulator maxElapsed = new LongAccumulator(Math::max, 0);
+
+    private final LongAccumulator maxConcurrent = new LongAccumulator(Math::max, 0);
+
+    public StatisticsCounter(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void collect(boolean error, long elapsed, long input, long output, int concurrent) {
+        add(error ? 0 : 1, error ? 1 : 0, input, output, elapsed, concurrent);
+    }
+
+    /**
+     * Adds a sample which may stand for several invocations, as reported by a statistics url
+     */
+    public void add(long success, long failure, long input, long output, long elapsed, long concurrent) {
+        if (success != 0) {
+            this.success.add(success);
+        }
+        if (failure != 0) {
+            this.failure.add(failure);
+        }
+        if (input != 0) {
+            this.input.add(input);
+            maxInput.accumulate(input);
+        }
+        if (output != 0) {
+            this.output.add(output);
+            maxOutput.accumulate(output);
+        }
+        this.elapsed.add(elapsed);
+        maxElapsed.accumulate(elapsed);
+        this.concurrent.add(concurrent);
+        maxConcurrent.accumulate(concurrent);
+        samples.increment();
+    }
+
+    /**
+     * Takes the counts collected since the last snapshot: success, failure, input, output, elapsed, the average
+     * concurrent, then the maximum input, output, elapsed and concurrent. The sums are taken off exactly, the samples
+     * added meanwhile are kept for the next one, only a maximum may be lost when it is reset concurrently.
+     */
+    public long[] snapshot() {
+        long samples = take(this.samples);
+        long concurrent = take(this.concurrent);
+        return new long[]{
+                take(success),
+                take(failure),
+                take(input),
+                take(output),
+                take(elapsed),
+                samples == 0 ? 0 : concurrent / samples,
+                maxInput.getThenReset(),
+                maxOutput.getThenReset(),
+                maxElapsed.getThenReset(),
+                maxConcurrent.getThenReset()
+        };
+    }
+
+    private static long take(LongAdder adder) {
+        long sum = adder.sum();
+        adder.add(-sum);
+        return sum;
+    }
+}
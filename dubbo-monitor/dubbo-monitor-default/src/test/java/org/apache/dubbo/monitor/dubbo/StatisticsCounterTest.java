@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.dubbo;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.monitor.MonitorService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StatisticsCounterTest {
+
+    @Test
+    public void testSnapshot() {
+        URL url = URL.valueOf("dubbo://10.20.153.10:0?application=morgan&interface=MemberService&method=findPerson");
+        StatisticsCounter counter = new StatisticsCounter(new Statistics(url));
+        counter.collect(false, 3, 10, 20, 1);
+        counter.collect(false, 5, 30, 40, 3);
+        counter.collect(true, 1, 0, 0, 2);
+
+        long[] numbers = counter.snapshot();
+        Assertions.assertEquals(2, numbers[0]);
+        Assertions.assertEquals(1, numbers[1]);
+        Assertions.assertEquals(40, numbers[2]);
+        Assertions.assertEquals(60, numbers[3]);
+        Assertions.assertEquals(9, numbers[4]);
+        Assertions.assertEquals(2, numbers[5]);
+        Assertions.assertEquals(30, numbers[6]);
+        Assertions.assertEquals(40, numbers[7]);
+        Assertions.assertEquals(5, numbers[8]);
+        Assertions.assertEquals(3, numbers[9]);
+
+        Assertions.assertArrayEquals(new long[10], counter.snapshot());
+        Assertions.assertEquals(url, counter.getStatistics().getUrl());
+    }
+
+    @Test
+    public void testConcurrentCollect() throws Exception {
+        URL url = URL.valueOf("dubbo://10.20.153.10:0?" + MonitorService.METHOD + "=findPerson");
+        StatisticsCounter counter = new StatisticsCounter(new Statistics(url));
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    counter.collect(j % 10 == 0, 1, 0, 0, 1);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long[] numbers = counter.snapshot();
+        Assertions.assertEquals(36000, numbers[0]);
+        Assertions.assertEquals(4000, numbers[1]);
+        Assertions.assertEquals(40000, numbers[4]);
+    }
+}
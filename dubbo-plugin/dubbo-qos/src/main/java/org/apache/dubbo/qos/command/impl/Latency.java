@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.command.impl;
+
+import org.apache.dubbo.common.utils.ArrayUtils;
+import org.apache.dubbo.monitor.support.LatencyHistogram;
+import org.apache.dubbo.monitor.support.LatencyMetrics;
+import org.apache.dubbo.qos.command.BaseCommand;
+import org.apache.dubbo.qos.command.CommandContext;
+import org.apache.dubbo.qos.command.annotation.Cmd;
+import org.apache.dubbo.qos.textui.TTable;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+@Cmd(name = "latency", summary = "latency percentiles of service methods in microseconds", example = {
+        "latency",
+        "latency xx.xx.xxx.service"
+})
+public class Latency implements BaseCommand {
+    @Override
+    public String execute(CommandContext commandContext, String[] args) {
+        Pattern servicePattern = null;
+        if (ArrayUtils.isNotEmpty(args)) {
+            try {
+                servicePattern = Pattern.compile(args[0]);
+            } catch (PatternSyntaxException e) {
+                return "illegal service pattern: " + args[0] + ", usage: latency [servicePattern], e.g. latency xx.xx.xxx.service";
+            }
+        }
+
+        TTable tTable = new TTable(new TTable.ColumnDefine[]{
+                new TTable.ColumnDefine(TTable.Align.LEFT),
+                new TTable.ColumnDefine(TTable.Align.LEFT),
+                new TTable.ColumnDefine(TTable.Align.LEFT),
+                new TTable.ColumnDefine(TTable.Align.RIGHT),
+                new TTable.ColumnDefine(TTable.Align.RIGHT),
+                new TTable.ColumnDefine(TTable.Align.RIGHT),
+                new TTable.ColumnDefine(TTable.Align.RIGHT),
+                new TTable.ColumnDefine(TTable.Align.RIGHT),
+                new TTable.ColumnDefine(TTable.Align.RIGHT),
+                new TTable.ColumnDefine(TTable.Align.RIGHT)
+        });
+
+        //Header
+        tTable.addRow("SIDE", "SERVICE", "METHOD", "COUNT", "MEAN", "P50", "P90", "P99", "P999", "MAX");
+
+        //Content
+        for (LatencyHistogram histogram : LatencyMetrics.getHistograms()) {
+            if (servicePattern != null && !servicePattern.matcher(histogram.getService()).matches()) {
+                continue;
+            }
+            LatencyHistogram.Snapshot snapshot = LatencyMetrics.getSnapshot(histogram);
+            tTable.addRow(histogram.getSide(), histogram.getService(), histogram.getMethod(),
+                    snapshot.getCount(), Math.round(snapshot.getMean()),
+                    snapshot.getValueAtPercentile(50), snapshot.getValueAtPercentile(90),
+                    snapshot.getValueAtPercentile(99), snapshot.getValueAtPercentile(99.9), snapshot.getMax());
+        }
+
+        long lastRotation = LatencyMetrics.getLastRotation();
+        return (lastRotation == 0 ? "Since start:" : "Last interval, ended " + (System.currentTimeMillis() - lastRotation)
+                + "ms ago:") + System.lineSeparator() + tTable.rendering();
+    }
+}
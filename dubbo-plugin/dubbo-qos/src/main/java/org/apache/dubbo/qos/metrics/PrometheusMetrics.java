@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.metrics;
+
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.store.DataStore;
+import org.apache.dubbo.common.threadpool.ThreadPoolStats;
+import org.apache.dubbo.monitor.support.LatencyHistogram;
+import org.apache.dubbo.monitor.support.LatencyMetrics;
+import org.apache.dubbo.registry.Registry;
+import org.apache.dubbo.registry.support.AbstractRegistry;
+import org.apache.dubbo.registry.support.AbstractRegistryFactory;
+import org.apache.dubbo.remoting.Client;
+import org.apache.dubbo.remoting.Constants;
+import org.apache.dubbo.remoting.Server;
+import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects the metrics of this process for a Prometheus scrape: rpc latencies and failures recorded by the monitor
+ * filter, thread pool saturation, pending requests, connections and registry notification time. Everything is read
+ * at scrape time from the live objects, nothing is kept here.
+ */
+public class PrometheusMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+
+    private static final double MICROS_PER_SECOND = 1000000d;
+
+    private static final double NANOS_PER_SECOND = 1000000000d;
+
+    private static final PoolGauge[] POOL_GAUGES = {
+            new PoolGauge("dubbo_thread_pool_active_threads", PrometheusWriter.GAUGE, "Threads running a task.",
+                    ThreadPoolStats::getActiveCount),
+            new PoolGauge("dubbo_thread_pool_max_threads", PrometheusWriter.GAUGE, "Maximum pool size.",
+                    ThreadPoolStats::getMaximumPoolSize),
+            new PoolGauge("dubbo_thread_pool_threads", PrometheusWriter.GAUGE, "Current pool size.",
+                    ThreadPoolStats::getPoolSize),
+            new PoolGauge("dubbo_thread_pool_queue_size", PrometheusWriter.GAUGE, "Tasks waiting for a thread.",
+                    ThreadPoolStats::getQueueSize),
+            new PoolGauge("dubbo_thread_pool_completed_tasks_total", PrometheusWriter.COUNTER, "Tasks completed.",
+                    ThreadPoolStats::getCompletedTaskCount)
+    };
+
+    private PrometheusMetrics() {
+    }
+
+    public static void write(PrometheusWriter writer) {
+        writeLatencies(writer);
+        writeThreadPools(writer);
+        writePendingRequests(writer);
+        writeConnections(writer);
+        writeRegistries(writer);
+    }
+
+    static void writeLatencies(PrometheusWriter writer) {
+        writer.family("dubbo_rpc_latency_seconds", PrometheusWriter.SUMMARY,
+                "Invocation latency, quantiles over the last monitor interval.");
+        for (LatencyHistogram histogram : LatencyMetrics.getHistograms()) {
+            LatencyHistogram.Snapshot snapshot = LatencyMetrics.getSnapshot(histogram);
+            for (int i = 0; i < QUANTILES.length; i++) {
+                writer.sample("dubbo_rpc_latency_seconds",
+                        snapshot.getValueAtPercentile(QUANTILES[i] * 100) / MICROS_PER_SECOND,
+                        "side", histogram.getSide(), "service", histogram.getService(),
+                        "method", histogram.getMethod(), "quantile", QUANTILE_LABELS[i]);
+            }
+            writer.sample("dubbo_rpc_latency_seconds_count", histogram.getCumulativeCount(),
+                    "side", histogram.getSide(), "service", histogram.getService(), "method", histogram.getMethod());
+            writer.sample("dubbo_rpc_latency_seconds_sum", histogram.getCumulativeSum() / MICROS_PER_SECOND,
+                    "side", histogram.getSide(), "service", histogram.getService(), "method", histogram.getMethod());
+        }
+        writer.family("dubbo_rpc_failures_total", PrometheusWriter.COUNTER, "Failed invocations.");
+        for (LatencyHistogram histogram : LatencyMetrics.getHistograms()) {
+            writer.sample("dubbo_rpc_failures_total", histogram.getFailures(),
+                    "side", histogram.getSide(), "service", histogram.getService(), "method", histogram.getMethod());
+        }
+    }
+
+    /**
+     * Exports every pool which has {@link ThreadPoolStats}. The samples of a family must be contiguous, so the pools
+     * are gathered first and every gauge is written for all of them in turn.
+     */
+    static void writeThreadPools(PrometheusWriter writer) {
+        List<String> ports = new ArrayList<>();
+        List<ThreadPoolStats> pools = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : getDataStore().get(Constants.EXECUTOR_SERVICE_COMPONENT_KEY).entrySet()) {
+            ThreadPoolStats stats = entry.getValue() instanceof Executor ? ThreadPoolStats.of((Executor) entry.getValue()) : null;
+            if (stats != null) {
+                ports.add(entry.getKey());
+                pools.add(stats);
+            }
+        }
+        for (PoolGauge gauge : POOL_GAUGES) {
+            writer.family(gauge.name, gauge.type, gauge.help);
+            for (int i = 0; i < pools.size(); i++) {
+                writer.sample(gauge.name, gauge.value.applyAsLong(pools.get(i)), "port", ports.get(i));
+            }
+        }
+    }
+
+    static void writePendingRequests(PrometheusWriter writer) {
+        writer.family("dubbo_pending_requests", PrometheusWriter.GAUGE, "Requests sent and waiting for their response.");
+        writer.sample("dubbo_pending_requests", DefaultFuture.getPendingCount());
+    }
+
+    static void writeConnections(PrometheusWriter writer) {
+        DataStore dataStore = getDataStore();
+        writer.family("dubbo_server_connections", PrometheusWriter.GAUGE, "Channels accepted by the server.");
+        for (Map.Entry<String, Object> entry : dataStore.get(Constants.SERVER_COMPONENT_KEY).entrySet()) {
+            if (entry.getValue() instanceof Server) {
+                writer.sample("dubbo_server_connections", ((Server) entry.getValue()).getChannels().size(), "port", entry.getKey());
+            }
+        }
+        int connected = 0;
+        for (Object client : dataStore.get(Constants.CLIENT_COMPONENT_KEY).values()) {
+            if (client instanceof Client && ((Client) client).isConnected()) {
+                connected++;
+            }
+        }
+        writer.family("dubbo_client_connections", PrometheusWriter.GAUGE, "Connected clients.");
+        writer.sample("dubbo_client_connections", connected);
+    }
+
+    static void writeRegistries(PrometheusWriter writer) {
+        writer.family("dubbo_registry_notify_seconds", PrometheusWriter.SUMMARY,
+                "Time the listeners took to apply the notified address changes.");
+        for (Registry registry : AbstractRegistryFactory.getRegistries()) {
+            if (registry instanceof AbstractRegistry) {
+                AbstractRegistry abstractRegistry = (AbstractRegistry) registry;
+                String address = registry.getUrl().getAddress();
+                writer.sample("dubbo_registry_notify_seconds_count", abstractRegistry.getNotifyCount(), "registry", address);
+                writer.sample("dubbo_registry_notify_seconds_sum", abstractRegistry.getNotifyTimeTotal() / NANOS_PER_SECOND,
+                        "registry", address);
+            }
+        }
+        writer.family("dubbo_registry_notify_max_seconds", PrometheusWriter.GAUGE,
+                "Longest time a notification took to be applied.");
+        for (Registry registry : AbstractRegistryFactory.getRegistries()) {
+            if (registry instanceof AbstractRegistry) {
+                writer.sample("dubbo_registry_notify_max_seconds",
+                        ((AbstractRegistry) registry).getNotifyTimeMax() / NANOS_PER_SECOND, "registry", registry.getUrl().getAddress());
+            }
+        }
+    }
+
+    private static DataStore getDataStore() {
+        return ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
+    }
+
+    /**
+     * A metric family read from every thread pool
+     */
+    private static final class PoolGauge {
+
+        private final String name;
+
+        private final String type;
+
+        private final String help;
+
+        private final ToLongFunction<ThreadPoolStats> value;
+
+        PoolGauge(String name, String type, String help, ToLongFunction<ThreadPoolStats> value) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+            this.value = value;
+        }
+    }
+}
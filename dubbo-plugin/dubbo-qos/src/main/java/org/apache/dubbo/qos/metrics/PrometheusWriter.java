@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.metrics;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Renders metrics in the Prometheus text exposition format straight into {@link ByteBuf}s. Every time the pending
+ * bytes reach the chunk size the buffer is handed over to the sink, so the whole page is never held in memory.
+ * <p>
+ * Not thread safe, one writer renders one response.
+ */
+public class PrometheusWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    public static final String COUNTER = "counter";
+
+    public static final String GAUGE = "gauge";
+
+    public static final String SUMMARY = "summary";
+
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final ByteBufAllocator allocator;
+
+    private final Consumer<ByteBuf> sink;
+
+    private final int chunkSize;
+
+    private ByteBuf buffer;
+
+    public PrometheusWriter(ByteBufAllocator allocator, Consumer<ByteBuf> sink) {
+        this(allocator, sink, DEFAULT_CHUNK_SIZE);
+    }
+
+    public PrometheusWriter(ByteBufAllocator allocator, Consumer<ByteBuf> sink, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.allocator = allocator;
+        this.sink = sink;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts a metric family, must come before its samples
+     */
+    public void family(String name, String type, String help) {
+        ByteBuf buf = buffer();
+        write(buf, "# HELP ");
+        write(buf, name);
+        buf.writeByte(' ');
+        write(buf, help);
+        write(buf, "\n# TYPE ");
+        write(buf, name);
+        buf.writeByte(' ');
+        write(buf, type);
+        buf.writeByte('\n');
+    }
+
+    /**
+     * @param labels label names and values, alternately
+     */
+    public void sample(String name, long value, String... labels) {
+        ByteBuf buf = beginSample(name, labels);
+        write(buf, Long.toString(value));
+        endSample(buf);
+    }
+
+    /**
+     * @param labels label names and values, alternately
+     */
+    public void sample(String name, double value, String... labels) {
+        ByteBuf buf = beginSample(name, labels);
+        write(buf, format(value));
+        endSample(buf);
+    }
+
+    /**
+     * Hands over what is left to the sink
+     */
+    public void close() {
+        if (buffer != null) {
+            ByteBuf buf = buffer;
+            buffer = null;
+            if (buf.isReadable()) {
+                sink.accept(buf);
+            } else {
+                buf.release();
+            }
+        }
+    }
+
+    /**
+     * Drops what is not handed over yet, after a failure
+     */
+    public void discard() {
+        if (buffer != null) {
+            buffer.release();
+            buffer = null;
+        }
+    }
+
+    private ByteBuf beginSample(String name, String[] labels) {
+        if ((labels.length & 1) != 0) {
+            throw new IllegalArgumentException("labels must be name and value pairs, got " + labels.length + " strings");
+        }
+        ByteBuf buf = buffer();
+        write(buf, name);
+        if (labels.length > 0) {
+            buf.writeByte('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    buf.writeByte(',');
+                }
+                write(buf, labels[i]);
+                write(buf, "=\"");
+                writeEscaped(buf, labels[i + 1]);
+                buf.writeByte('"');
+            }
+            buf.writeByte('}');
+        }
+        buf.writeByte(' ');
+        return buf;
+    }
+
+    private void endSample(ByteBuf buf) {
+        buf.writeByte('\n');
+        if (buf.readableBytes() >= chunkSize) {
+            buffer = null;
+            sink.accept(buf);
+        }
+    }
+
+    private ByteBuf buffer() {
+        if (buffer == null) {
+            buffer = allocator.buffer(chunkSize + (chunkSize >> 2));
+        }
+        return buffer;
+    }
+
+    private static void write(ByteBuf buf, CharSequence value) {
+        buf.writeCharSequence(value, StandardCharsets.UTF_8);
+    }
+
+    private static void writeEscaped(ByteBuf buf, String value) {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"' || c == '\n') {
+                write(buf, value.subSequence(start, i));
+                buf.writeByte('\\');
+                buf.writeByte(c == '\n' ? 'n' : c);
+                start = i + 1;
+            }
+        }
+        write(buf, start == 0 ? value : value.subSequence(start, value.length()));
+    }
+
+    static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+}
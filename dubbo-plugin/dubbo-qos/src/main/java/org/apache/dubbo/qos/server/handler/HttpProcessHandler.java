@@ -23,17 +23,25 @@ import org.apache.dubbo.qos.command.CommandExecutor;
 import org.apache.dubbo.qos.command.DefaultCommandExecutor;
 import org.apache.dubbo.qos.command.NoSuchCommandException;
 import org.apache.dubbo.qos.command.decoder.HttpCommandDecoder;
+import org.apache.dubbo.qos.metrics.PrometheusMetrics;
+import org.apache.dubbo.qos.metrics.PrometheusWriter;
 
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.QueryStringDecoder;
 
 /**
  * Parse HttpRequest for uri and parameters
@@ -44,6 +52,8 @@ import io.netty.handler.codec.http.HttpVersion;
  * <li>if succeed, return 200</li>
  * </ul>
  * <p>
+ * <code>GET /metrics</code> is answered with the Prometheus text format, streamed in chunks
+ * <p>
  * will disconnect after execution finishes
  */
 public class HttpProcessHandler extends SimpleChannelInboundHandler<HttpRequest> {
@@ -51,9 +61,14 @@ public class HttpProcessHandler extends SimpleChannelInboundHandler<HttpRequest>
     private static final Logger log = LoggerFactory.getLogger(HttpProcessHandler.class);
     private static CommandExecutor commandExecutor = new DefaultCommandExecutor();
 
+    static final String METRICS_PATH = "/metrics";
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, HttpRequest msg) throws Exception {
+        if (isMetricsRequest(msg)) {
+            writeMetrics(ctx);
+            return;
+        }
         CommandContext commandContext = HttpCommandDecoder.decode(msg);
         // return 404 when fail to construct command context
         if (commandContext == null) {
@@ -78,6 +93,28 @@ public class HttpProcessHandler extends SimpleChannelInboundHandler<HttpRequest>
         }
     }
 
+    private static boolean isMetricsRequest(HttpRequest msg) {
+        return msg.getMethod() == HttpMethod.GET && msg.getUri() != null
+                && METRICS_PATH.equals(new QueryStringDecoder(msg.getUri()).path());
+    }
+
+    private static void writeMetrics(ChannelHandlerContext ctx) {
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        response.headers().set(HttpHeaders.Names.CONTENT_TYPE, PrometheusWriter.CONTENT_TYPE);
+        HttpHeaders.setTransferEncodingChunked(response);
+        ctx.write(response);
+        PrometheusWriter writer = new PrometheusWriter(ctx.alloc(), chunk -> ctx.writeAndFlush(new DefaultHttpContent(chunk)));
+        try {
+            PrometheusMetrics.write(writer);
+            writer.close();
+        } catch (Exception e) {
+            // the status is already sent, end the body so that the scraper sees a truncated page rather than a hang
+            log.error("failed to write metrics", e);
+            writer.discard();
+        }
+        ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ChannelFutureListener.CLOSE);
+    }
+
     private static final FullHttpResponse http200(String result) {
         FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
                 Unpooled.wrappedBuffer(result.getBytes()));
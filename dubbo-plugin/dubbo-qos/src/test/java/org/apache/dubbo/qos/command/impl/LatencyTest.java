@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.command.impl;
+
+import org.apache.dubbo.monitor.support.LatencyMetrics;
+import org.apache.dubbo.qos.command.CommandContext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+
+public class LatencyTest {
+    @Test
+    public void testExecute() throws Exception {
+        LatencyMetrics.clear();
+        LatencyMetrics.getHistogram("provider", "org.apache.dubbo.BarService", "sayHello").record(100, TimeUnit.MICROSECONDS);
+        LatencyMetrics.getHistogram("consumer", "org.apache.dubbo.FooService", "sayHi").record(200, TimeUnit.MICROSECONDS);
+
+        Latency latency = new Latency();
+        String output = latency.execute(mock(CommandContext.class), null);
+        assertThat(output, containsString("Since start:"));
+        assertThat(output, containsString("org.apache.dubbo.BarService"));
+        assertThat(output, containsString("sayHello"));
+        assertThat(output, containsString("org.apache.dubbo.FooService"));
+
+        output = latency.execute(mock(CommandContext.class), new String[]{"org.apache.dubbo.Bar.*"});
+        assertThat(output, containsString("org.apache.dubbo.BarService"));
+        assertThat(output, not(containsString("org.apache.dubbo.FooService")));
+
+        output = latency.execute(mock(CommandContext.class), new String[]{"org.apache.dubbo.Bar(*"});
+        assertThat(output, containsString("usage: latency [servicePattern]"));
+        LatencyMetrics.clear();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.metrics;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.store.DataStore;
+import org.apache.dubbo.common.threadlocal.NamedInternalThreadFactory;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+import org.apache.dubbo.common.threadpool.support.stealing.StealingThreadPoolExecutor;
+import org.apache.dubbo.common.threadpool.support.virtual.VirtualThreadPoolExecutor;
+import org.apache.dubbo.remoting.Constants;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class PrometheusMetricsTest {
+
+    private final DataStore dataStore = ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
+
+    private final List<ExecutorService> executors = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        dataStore.remove(Constants.EXECUTOR_SERVICE_COMPONENT_KEY, "20880");
+        dataStore.remove(Constants.EXECUTOR_SERVICE_COMPONENT_KEY, "20881");
+        dataStore.remove(Constants.EXECUTOR_SERVICE_COMPONENT_KEY, "20882");
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+
+    @Test
+    public void testThreadPools() {
+        ExecutorService fixed = Executors.newFixedThreadPool(2);
+        ExecutorService stealing = new StealingThreadPoolExecutor(1, 4, 60, TimeUnit.SECONDS, 8,
+                new NamedInternalThreadFactory("metrics-test", true),
+                new AbortPolicyWithReport("metrics-test", new URL("dubbo", "localhost", 20881)));
+        ExecutorService virtual = new VirtualThreadPoolExecutor(3, 0, new NamedInternalThreadFactory("metrics-test", true),
+                new AbortPolicyWithReport("metrics-test", new URL("dubbo", "localhost", 20882)));
+        executors.add(fixed);
+        executors.add(stealing);
+        executors.add(virtual);
+        dataStore.put(Constants.EXECUTOR_SERVICE_COMPONENT_KEY, "20880", fixed);
+        dataStore.put(Constants.EXECUTOR_SERVICE_COMPONENT_KEY, "20881", stealing);
+        dataStore.put(Constants.EXECUTOR_SERVICE_COMPONENT_KEY, "20882", virtual);
+
+        List<ByteBuf> chunks = new ArrayList<>();
+        PrometheusWriter writer = new PrometheusWriter(UnpooledByteBufAllocator.DEFAULT, chunks::add);
+        PrometheusMetrics.writeThreadPools(writer);
+        writer.close();
+        StringBuilder content = new StringBuilder();
+        for (ByteBuf chunk : chunks) {
+            content.append(chunk.toString(StandardCharsets.UTF_8));
+            chunk.release();
+        }
+
+        String page = content.toString();
+        Assertions.assertTrue(page.contains("dubbo_thread_pool_max_threads{port=\"20880\"} 2\n"));
+        Assertions.assertTrue(page.contains("dubbo_thread_pool_max_threads{port=\"20881\"} 4\n"));
+        Assertions.assertTrue(page.contains("dubbo_thread_pool_max_threads{port=\"20882\"} 3\n"));
+        Assertions.assertTrue(page.contains("dubbo_thread_pool_queue_size{port=\"20881\"} 0\n"));
+        Assertions.assertTrue(page.contains("dubbo_thread_pool_completed_tasks_total{port=\"20880\"} 0\n"));
+        // the samples of a family follow its header
+        Assertions.assertTrue(page.indexOf("# TYPE dubbo_thread_pool_threads gauge") < page.indexOf("dubbo_thread_pool_threads{port=\"20880\"}"));
+        Assertions.assertTrue(page.indexOf("dubbo_thread_pool_threads{port=\"20881\"}") < page.indexOf("# TYPE dubbo_thread_pool_queue_size gauge"));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.metrics;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PrometheusWriterTest {
+
+    private final List<ByteBuf> chunks = new ArrayList<>();
+
+    @Test
+    public void testFormat() {
+        PrometheusWriter writer = new PrometheusWriter(UnpooledByteBufAllocator.DEFAULT, chunks::add);
+        writer.family("dubbo_test", PrometheusWriter.GAUGE, "A test.");
+        writer.sample("dubbo_test", 3);
+        writer.sample("dubbo_test", 0.5, "service", "a\\b\"c\nd", "method", "say");
+        writer.close();
+
+        Assertions.assertEquals(1, chunks.size());
+        Assertions.assertEquals("# HELP dubbo_test A test.\n"
+                + "# TYPE dubbo_test gauge\n"
+                + "dubbo_test 3\n"
+                + "dubbo_test{service=\"a\\\\b\\\"c\\nd\",method=\"say\"} 0.5\n", content());
+    }
+
+    @Test
+    public void testChunked() {
+        PrometheusWriter writer = new PrometheusWriter(UnpooledByteBufAllocator.DEFAULT, chunks::add, 64);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            writer.sample("dubbo_test", i, "index", String.valueOf(i));
+            expected.append("dubbo_test{index=\"").append(i).append("\"} ").append(i).append('\n');
+        }
+        writer.close();
+
+        Assertions.assertTrue(chunks.size() > 1);
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            Assertions.assertTrue(chunks.get(i).readableBytes() >= 64);
+        }
+        Assertions.assertEquals(expected.toString(), content());
+    }
+
+    @Test
+    public void testSpecialValues() {
+        Assertions.assertEquals("NaN", PrometheusWriter.format(Double.NaN));
+        Assertions.assertEquals("+Inf", PrometheusWriter.format(Double.POSITIVE_INFINITY));
+        Assertions.assertEquals("-Inf", PrometheusWriter.format(Double.NEGATIVE_INFINITY));
+        Assertions.assertEquals("1.5", PrometheusWriter.format(1.5));
+    }
+
+    @Test
+    public void testOddLabels() {
+        PrometheusWriter writer = new PrometheusWriter(UnpooledByteBufAllocator.DEFAULT, chunks::add);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> writer.sample("dubbo_test", 1, "service"));
+        writer.discard();
+    }
+
+    private String content() {
+        StringBuilder content = new StringBuilder();
+        for (ByteBuf chunk : chunks) {
+            content.append(chunk.toString(StandardCharsets.UTF_8));
+            chunk.release();
+        }
+        return content.toString();
+    }
+}
@@ -16,17 +16,27 @@
  */
 package org.apache.dubbo.qos.server.handler;
 
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -83,4 +93,34 @@ public class HttpProcessHandlerTest {
         FullHttpResponse response = captor.getValue();
         assertThat(response.getStatus().code(), equalTo(404));
     }
+
+    @Test
+    public void testMetrics() throws Exception {
+        ChannelHandlerContext context = mock(ChannelHandlerContext.class);
+        ChannelFuture future = mock(ChannelFuture.class);
+        when(context.alloc()).thenReturn(UnpooledByteBufAllocator.DEFAULT);
+        when(context.writeAndFlush(any())).thenReturn(future);
+        HttpRequest message = Mockito.mock(HttpRequest.class);
+        when(message.getUri()).thenReturn("/metrics");
+        when(message.getMethod()).thenReturn(HttpMethod.GET);
+        HttpProcessHandler handler = new HttpProcessHandler();
+        handler.channelRead0(context, message);
+
+        ArgumentCaptor<HttpResponse> responseCaptor = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(context).write(responseCaptor.capture());
+        HttpResponse response = responseCaptor.getValue();
+        assertThat(response.getStatus().code(), equalTo(200));
+        assertThat(HttpHeaders.isTransferEncodingChunked(response), equalTo(true));
+
+        ArgumentCaptor<Object> contentCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(context, Mockito.atLeastOnce()).writeAndFlush(contentCaptor.capture());
+        List<Object> contents = contentCaptor.getAllValues();
+        assertThat(contents.get(contents.size() - 1), instanceOf(LastHttpContent.class));
+        StringBuilder body = new StringBuilder();
+        for (Object content : contents) {
+            body.append(((HttpContent) content).content().toString(StandardCharsets.UTF_8));
+        }
+        assertThat(body.toString(), containsString("# TYPE dubbo_pending_requests gauge"));
+        verify(future).addListener(ChannelFutureListener.CLOSE);
+    }
 }
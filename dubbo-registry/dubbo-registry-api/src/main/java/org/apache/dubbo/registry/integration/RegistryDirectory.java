@@ -51,6 +51,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -126,6 +127,13 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
     // Set<invokerUrls> cache invokeUrls to invokers mapping.
     private volatile Set<URL> cachedInvokerUrls; // The initial value is null and the midway may be assigned to null, please use the local variable reference
 
+    /**
+     * The merged url of each provider url converted by the last refresh, by identity, built with {@link #mergedConfigurators}.
+     * Registries that keep the url instance of an unchanged provider, like zookeeper, then only merge the added ones.
+     */
+    private volatile Map<URL, URL> mergedUrls;
+    private volatile List<Configurator> mergedConfigurators;
+
     private static final ConsumerConfigurationListener CONSUMER_CONFIGURATION_LISTENER = new ConsumerConfigurationListener();
     private ReferenceConfigurationListener serviceConfigurationListener;
 
@@ -278,6 +286,8 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
         } else {//看这里
             this.forbidden = false; // Allow to access
             Map<String, Invoker<T>> oldUrlInvokerMap = this.urlInvokerMap; // local reference
+            // no provider url means the override rules changed, every provider url has to be merged again
+            boolean reuseMergedUrls = !invokerUrls.isEmpty();
             if (invokerUrls == Collections.<URL>emptyList()) {
                 invokerUrls = new ArrayList<>();
             }
@@ -294,7 +304,7 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
 
             //toInvokers ，把invokerUrls 转化为invoker->
             //建立连接和转换成invoker的关键逻辑
-            Map<String, Invoker<T>> newUrlInvokerMap = toInvokers(invokerUrls);// Translate url list to Invoker map
+            Map<String, Invoker<T>> newUrlInvokerMap = toInvokers(invokerUrls, reuseMergedUrls);// Translate url list to Invoker map
 
             /**
              * If the calculation is wrong, it is not processed.
@@ -385,13 +395,18 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
      * Turn urls into invokers, and if url has been refer, will not re-reference.
      *
      * @param urls
+     * @param reuseMergedUrls whether the urls merged by the previous call can be used again
      * @return invokers
      */
-    private Map<String, Invoker<T>> toInvokers(List<URL> urls) {
+    private Map<String, Invoker<T>> toInvokers(List<URL> urls, boolean reuseMergedUrls) {
         Map<String, Invoker<T>> newUrlInvokerMap = new HashMap<>();
         if (urls == null || urls.isEmpty()) {
             return newUrlInvokerMap;
         }
+        List<Configurator> localConfigurators = this.configurators; // local reference
+        Map<URL, URL> previousMergedUrls = reuseMergedUrls && mergedConfigurators == localConfigurators ? this.mergedUrls : null;
+        Map<URL, URL> newMergedUrls = new IdentityHashMap<>();
+        Map<String, String> providerParameters = new HashMap<>();
         Set<String> keys = new HashSet<>();
         String queryProtocols = this.queryMap.get(PROTOCOL_KEY);
         for (URL providerUrl : urls) {
@@ -420,7 +435,14 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
                 continue;
             }
             //这里将providerurl中的属性赋值给了overrideuri
-            URL url = mergeUrl(providerUrl);
+            URL url = previousMergedUrls == null ? null : previousMergedUrls.get(providerUrl);
+            if (url == null) {
+                url = mergeUrl(providerUrl);
+            }
+            newMergedUrls.put(providerUrl, url);
+            for (Map.Entry<String, String> entry : url.getParameters().entrySet()) {
+                providerParameters.putIfAbsent(entry.getKey(), entry.getValue());
+            }
 
             String key = url.toFullString(); // The parameter urls are sorted
             if (keys.contains(key)) { // Repeated url
@@ -457,6 +479,9 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
             }
         }
         keys.clear();
+        this.overrideDirectoryUrl = this.overrideDirectoryUrl.addParametersIfAbsent(providerParameters); // Merge the provider side parameters
+        this.mergedUrls = newMergedUrls;
+        this.mergedConfigurators = localConfigurators;
         return newUrlInvokerMap;
     }
 
@@ -474,8 +499,7 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
         providerUrl = providerUrl.addParameter(Constants.CHECK_KEY, String.valueOf(false)); // Do not check whether the connection is successful or not, always create Invoker!
 
         // The combination of directoryUrl and override is at the end of notify, which can't be handled here
-        //这里将providerurl中的属性赋值给了overrideuri
-        this.overrideDirectoryUrl = this.overrideDirectoryUrl.addParametersIfAbsent(providerUrl.getParameters()); // Merge the provider side parameters
+        // The provider side parameters are merged into overrideDirectoryUrl by toInvokers
 
         if ((providerUrl.getPath() == null || providerUrl.getPath()
                 .length() == 0) && DUBBO_PROTOCOL.equals(providerUrl.getProtocol())) { // Compatible version 1.0
@@ -536,6 +560,7 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
             localUrlInvokerMap.clear();
         }
         invokers = null;
+        mergedUrls = null;
     }
 
     /**
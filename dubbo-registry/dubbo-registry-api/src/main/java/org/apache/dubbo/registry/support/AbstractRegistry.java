@@ -84,6 +84,10 @@ public abstract class AbstractRegistry implements Registry {
     private final Set<URL> registered = new ConcurrentHashSet<>();
     private final ConcurrentMap<URL, Set<NotifyListener>> subscribed = new ConcurrentHashMap<>();
     private final ConcurrentMap<URL, Map<String, List<URL>>> notified = new ConcurrentHashMap<>();
+    // time spent delivering address changes to the listeners, in nanoseconds
+    private final AtomicLong notifyCount = new AtomicLong();
+    private final AtomicLong notifyTimeTotal = new AtomicLong();
+    private final AtomicLong notifyTimeMax = new AtomicLong();
     private URL registryUrl;
     // Local disk cache file
     private File file;
@@ -142,6 +146,24 @@ public abstract class AbstractRegistry implements Registry {
         return Collections.unmodifiableMap(notified);
     }
 
+    public long getNotifyCount() {
+        return notifyCount.get();
+    }
+
+    /**
+     * @return the total time the listeners took to apply the notified changes, in nanoseconds
+     */
+    public long getNotifyTimeTotal() {
+        return notifyTimeTotal.get();
+    }
+
+    /**
+     * @return the longest time a single notification took to be applied, in nanoseconds
+     */
+    public long getNotifyTimeMax() {
+        return notifyTimeMax.get();
+    }
+
     public File getCacheFile() {
         return file;
     }
@@ -423,6 +445,7 @@ public abstract class AbstractRegistry implements Registry {
             return;
         }
         //*****************************************************
+        long start = System.nanoTime();
         Map<String, List<URL>> categoryNotified = notified.computeIfAbsent(url, u -> new ConcurrentHashMap<>());
         //result就是providers、configurators、routers
         for (Map.Entry<String, List<URL>> entry : result.entrySet()) {
@@ -438,6 +461,10 @@ public abstract class AbstractRegistry implements Registry {
             //缓存,如果注册中心挂了，会缓存地址：把dubbo:// 保存到文件中
             saveProperties(url);
         }
+        long elapsed = System.nanoTime() - start;
+        notifyCount.incrementAndGet();
+        notifyTimeTotal.addAndGet(elapsed);
+        notifyTimeMax.accumulateAndGet(elapsed, Math::max);
     }
 
     private void saveProperties(URL url) {
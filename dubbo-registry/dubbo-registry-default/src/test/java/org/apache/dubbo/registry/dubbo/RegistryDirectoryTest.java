@@ -199,6 +199,49 @@ public class RegistryDirectoryTest {
         Assertions.assertEquals(1, invokers.size());
     }
 
+    @Test
+    public void testNotified_Incremental() {
+        RegistryDirectory<RegistryDirectoryTest> registryDirectory = getRegistryDirectory();
+        List<URL> serviceUrls = new ArrayList<URL>();
+        serviceUrls.add(SERVICEURL);
+        serviceUrls.add(SERVICEURL2);
+        registryDirectory.notify(serviceUrls);
+        Map<String, Invoker<RegistryDirectoryTest>> before = new HashMap<>(registryDirectory.getUrlInvokerMap());
+        Assertions.assertEquals(2, before.size());
+
+        serviceUrls = new ArrayList<URL>();
+        serviceUrls.add(SERVICEURL);
+        serviceUrls.add(SERVICEURL2);
+        serviceUrls.add(SERVICEURL3);
+        registryDirectory.notify(serviceUrls);
+        Map<String, Invoker<RegistryDirectoryTest>> after = registryDirectory.getUrlInvokerMap();
+        Assertions.assertEquals(3, after.size());
+        for (Map.Entry<String, Invoker<RegistryDirectoryTest>> entry : before.entrySet()) {
+            Assertions.assertSame(entry.getValue(), after.get(entry.getKey()));
+        }
+
+        // the override rules apply to the providers notified before them
+        List<URL> overrideUrls = new ArrayList<URL>();
+        overrideUrls.add(URL.valueOf("override://0.0.0.0?timeout=7"));
+        registryDirectory.notify(overrideUrls);
+        List<Invoker<RegistryDirectoryTest>> invokers = registryDirectory.list(invocation);
+        Assertions.assertEquals(3, invokers.size());
+        for (Invoker<RegistryDirectoryTest> invoker : invokers) {
+            Assertions.assertEquals("7", invoker.getUrl().getParameter("timeout"));
+        }
+
+        // and to the providers notified after them
+        serviceUrls = new ArrayList<URL>();
+        serviceUrls.add(SERVICEURL);
+        serviceUrls.add(SERVICEURL3);
+        registryDirectory.notify(serviceUrls);
+        invokers = registryDirectory.list(invocation);
+        Assertions.assertEquals(2, invokers.size());
+        for (Invoker<RegistryDirectoryTest> invoker : invokers) {
+            Assertions.assertEquals("7", invoker.getUrl().getParameter("timeout"));
+        }
+    }
+
     // forbid
     private void testforbid(RegistryDirectory registryDirectory) {
         invocation = new RpcInvocation();
@@ -33,7 +33,9 @@ import org.apache.dubbo.remoting.zookeeper.ZookeeperTransporter;
 import org.apache.dubbo.rpc.RpcException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -70,6 +72,12 @@ public class ZookeeperRegistry extends FailbackRegistry {
 
     private final ConcurrentMap<URL, ConcurrentMap<NotifyListener, ChildListener>> zkListeners = new ConcurrentHashMap<>();
 
+    /**
+     * The urls decoded from the children of a category path, by raw child name. A change of the children only decodes
+     * the added ones, and an unchanged provider keeps its url instance across notifications.
+     */
+    private final ConcurrentMap<String, Map<String, URL>> decodedUrls = new ConcurrentHashMap<>();
+
     private final ZookeeperClient zkClient;
 
     public ZookeeperRegistry(URL url, ZookeeperTransporter zookeeperTransporter) {
@@ -219,6 +227,7 @@ public class ZookeeperRegistry extends FailbackRegistry {
                 } else {
                     for (String path : toCategoriesPath(url)) {
                         zkClient.removeChildListener(path, zkListener);
+                        decodedUrls.remove(path);
                     }
                 }
             }
@@ -305,8 +314,33 @@ public class ZookeeperRegistry extends FailbackRegistry {
         return urls;
     }
 
+    private List<URL> toUrlsWithoutEmpty(URL consumer, String path, List<String> providers) {
+        Map<String, URL> previous = decodedUrls.get(path);
+        Map<String, URL> current = new HashMap<>();
+        List<URL> urls = new ArrayList<>();
+        if (CollectionUtils.isNotEmpty(providers)) {
+            for (String provider : providers) {
+                URL url = previous == null ? null : previous.get(provider);
+                if (url == null) {
+                    String decoded = URL.decode(provider);
+                    if (!decoded.contains(PROTOCOL_SEPARATOR)) {
+                        continue;
+                    }
+                    url = URL.valueOf(decoded);
+                }
+                current.put(provider, url);
+                if (UrlUtils.isMatch(consumer, url)) {
+                    urls.add(url);
+                }
+            }
+        }
+        // the children gone are dropped
+        decodedUrls.put(path, current);
+        return urls;
+    }
+
     private List<URL> toUrlsWithEmpty(URL consumer, String path, List<String> providers) {
-        List<URL> urls = toUrlsWithoutEmpty(consumer, providers);
+        List<URL> urls = toUrlsWithoutEmpty(consumer, path, providers);
         if (urls == null || urls.isEmpty()) {
             int i = path.lastIndexOf(PATH_SEPARATOR);
             String category = i < 0 ? path : path.substring(i + 1);
@@ -117,6 +117,10 @@ public interface Constants {
 
     String EXECUTOR_SERVICE_COMPONENT_KEY = ExecutorService.class.getName();
 
+    String SERVER_COMPONENT_KEY = Server.class.getName();
+
+    String CLIENT_COMPONENT_KEY = Client.class.getName();
+
     String RECONNECT_KEY = "reconnect";
 
     int DEFAULT_RECONNECT_PERIOD = 2000;
@@ -134,4 +138,27 @@ public interface Constants {
     String HEARTBEAT_TIMEOUT_KEY = "heartbeat.timeout";
     String CONNECTIONS_KEY = "connections";
     String DUBBO_VERSION_KEY = "dubbo";
+
+    /**
+     * How the transport flushes written messages: {@link #FLUSH_MODE_IMMEDIATE} flushes every message,
+     * {@link #FLUSH_MODE_BATCH} coalesces flushes once per event loop iteration.
+     */
+    String FLUSH_MODE_KEY = "flush.mode";
+
+    String FLUSH_MODE_IMMEDIATE = "immediate";
+
+    String FLUSH_MODE_BATCH = "batch";
+
+    String DEFAULT_FLUSH_MODE = FLUSH_MODE_IMMEDIATE;
+
+    String FLUSH_BATCH_MESSAGES_KEY = "flush.batch.messages";
+
+    int DEFAULT_FLUSH_BATCH_MESSAGES = 64;
+
+    String FLUSH_BATCH_BYTES_KEY = "flush.batch.bytes";
+
+    /**
+     * 64k
+     */
+    int DEFAULT_FLUSH_BATCH_BYTES = 64 * 1024;
 }
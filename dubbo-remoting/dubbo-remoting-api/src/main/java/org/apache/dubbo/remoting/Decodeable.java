@@ -21,4 +21,10 @@ public interface Decodeable {
 
     public void decode() throws Exception;
 
+    /**
+     * Gives up decoding, releasing what is held for it, e.g. when the message is dropped before being handled.
+     */
+    default void discard() {
+    }
+
 }
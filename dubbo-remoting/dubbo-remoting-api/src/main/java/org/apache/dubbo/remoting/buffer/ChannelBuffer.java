@@ -236,6 +236,25 @@ public interface ChannelBuffer extends Comparable<ChannelBuffer> {
      */
     ChannelBuffer copy(int index, int length);
 
+    /**
+     * Returns a buffer sharing this buffer's sub-region and holding a reference
+     * to the underlying memory, which must be given back with {@link #release()},
+     * if this buffer is reference counted. Returns {@link #copy(int, int)}
+     * otherwise. This method does not modify {@code readerIndex} or
+     * {@code writerIndex} of this buffer.
+     */
+    default ChannelBuffer retainedSlice(int index, int length) {
+        return copy(index, length);
+    }
+
+    /**
+     * Releases the reference held by a buffer returned by
+     * {@link #retainedSlice(int, int)}. Does nothing if the buffer is not
+     * reference counted.
+     */
+    default void release() {
+    }
+
     /**
      * Discards the bytes between the 0th index and {@code readerIndex}. It
      * moves the bytes between {@code readerIndex} and {@code writerIndex} to
@@ -25,12 +25,18 @@ public class ChannelBufferInputStream extends InputStream {
     private final ChannelBuffer buffer;
     private final int startIndex;
     private final int endIndex;
+    private final boolean releaseOnClose;
+    private boolean closed;
 
     public ChannelBufferInputStream(ChannelBuffer buffer) {
         this(buffer, buffer.readableBytes());
     }
 
     public ChannelBufferInputStream(ChannelBuffer buffer, int length) {
+        this(buffer, length, false);
+    }
+
+    private ChannelBufferInputStream(ChannelBuffer buffer, int length, boolean releaseOnClose) {
         if (buffer == null) {
             throw new NullPointerException("buffer");
         }
@@ -44,9 +50,21 @@ public class ChannelBufferInputStream extends InputStream {
         this.buffer = buffer;
         startIndex = buffer.readerIndex();
         endIndex = startIndex + length;
+        this.releaseOnClose = releaseOnClose;
         buffer.markReaderIndex();
     }
 
+    /**
+     * Reads the remaining bytes of this stream as a new stream. If the underlying buffer is reference counted, the
+     * new stream shares its content instead of copying it, and keeps it alive until the new stream is closed.
+     */
+    public ChannelBufferInputStream readRetainedStream() throws IOException {
+        int length = available();
+        ChannelBuffer slice = buffer.retainedSlice(buffer.readerIndex(), length);
+        buffer.skipBytes(length);
+        return new ChannelBufferInputStream(slice, length, true);
+    }
+
     public int readBytes() {
         return buffer.readerIndex() - startIndex;
     }
@@ -100,6 +118,14 @@ public class ChannelBufferInputStream extends InputStream {
         }
     }
 
+    @Override
+    public void close() throws IOException {
+        if (releaseOnClose && !closed) {
+            closed = true;
+            buffer.release();
+        }
+    }
+
     private int skipBytes(int n) throws IOException {
         int nBytes = Math.min(available(), n);
         buffer.skipBytes(nBytes);
@@ -22,8 +22,8 @@ import java.io.OutputStream;
 
 public class ChannelBufferOutputStream extends OutputStream {
 
-    private final ChannelBuffer buffer;
-    private final int startIndex;
+    private ChannelBuffer buffer;
+    private int startIndex;
 
     public ChannelBufferOutputStream(ChannelBuffer buffer) {
         if (buffer == null) {
@@ -33,6 +33,17 @@ public class ChannelBufferOutputStream extends OutputStream {
         startIndex = buffer.writerIndex();
     }
 
+    /**
+     * Rebinds this stream to the current writer index of the given buffer, so that an instance can be reused for
+     * many messages. Passing <code>null</code> detaches the stream from its last buffer.
+     *
+     * @param buffer the buffer to write to next, or null
+     */
+    public void reset(ChannelBuffer buffer) {
+        this.buffer = buffer;
+        this.startIndex = buffer == null ? 0 : buffer.writerIndex();
+    }
+
     public int writtenBytes() {
         return buffer.writerIndex() - startIndex;
     }
@@ -20,6 +20,7 @@ import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.RemotingException;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 /**
  * ExchangeChannel. (API/SPI, Prototype, ThreadSafe)
@@ -45,6 +46,19 @@ public interface ExchangeChannel extends Channel {
      */
     CompletableFuture<Object> request(Object request, int timeout) throws RemotingException;
 
+    /**
+     * send request, the response is handled by the given executor.
+     *
+     * @param request
+     * @param timeout
+     * @param executor executor to handle the response, null to use the channel's own executor
+     * @return response future
+     * @throws RemotingException
+     */
+    default CompletableFuture<Object> request(Object request, int timeout, ExecutorService executor) throws RemotingException {
+        return request(request, timeout);
+    }
+
     /**
      * get message handler.
      *
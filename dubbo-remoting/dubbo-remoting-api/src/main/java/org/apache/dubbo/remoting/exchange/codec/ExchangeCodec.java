@@ -58,6 +58,8 @@ public class ExchangeCodec extends TelnetCodec {
     protected static final byte FLAG_EVENT = (byte) 0x20;
     protected static final int SERIALIZATION_MASK = 0x1f;
     private static final Logger logger = LoggerFactory.getLogger(ExchangeCodec.class);
+    // the output stream of the encoding thread, taken out while in use so that a nested encode gets its own.
+    private static final ThreadLocal<ChannelBufferOutputStream> CACHED_OUTPUT_STREAM = new ThreadLocal<>();
 
     public Short getMagicCode() {
         return MAGIC;
@@ -209,47 +211,42 @@ public class ExchangeCodec extends TelnetCodec {
 
     protected void encodeRequest(Channel channel, ChannelBuffer buffer, Request req) throws IOException {
         Serialization serialization = getSerialization(channel);
-        // header.
-        byte[] header = new byte[HEADER_LENGTH];
-        // set magic number.
-        Bytes.short2bytes(MAGIC, header);
-
         // set request and serialization flag.
-        header[2] = (byte) (FLAG_REQUEST | serialization.getContentTypeId());
+        byte flag = (byte) (FLAG_REQUEST | serialization.getContentTypeId());
 
         if (req.isTwoWay()) {
-            header[2] |= FLAG_TWOWAY;
+            flag |= FLAG_TWOWAY;
         }
         if (req.isEvent()) {
-            header[2] |= FLAG_EVENT;
+            flag |= FLAG_EVENT;
         }
 
-        // set request id.
-        Bytes.long2bytes(req.getId(), header, 4);
-
         // encode request data.
         int savedWriteIndex = buffer.writerIndex();
         buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
-        ChannelBufferOutputStream bos = new ChannelBufferOutputStream(buffer);
-        ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
-        if (req.isEvent()) {
-            encodeEventData(channel, out, req.getData());
-        } else {
-            encodeRequestData(channel, out, req.getData(), req.getVersion());
-        }
-        out.flushBuffer();
-        if (out instanceof Cleanable) {
-            ((Cleanable) out).cleanup();
+        ChannelBufferOutputStream bos = acquireOutputStream(buffer);
+        int len;
+        try {
+            ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
+            if (req.isEvent()) {
+                encodeEventData(channel, out, req.getData());
+            } else {
+                encodeRequestData(channel, out, req.getData(), req.getVersion());
+            }
+            out.flushBuffer();
+            if (out instanceof Cleanable) {
+                ((Cleanable) out).cleanup();
+            }
+            bos.flush();
+            bos.close();
+            len = bos.writtenBytes();
+        } finally {
+            releaseOutputStream(bos);
         }
-        bos.flush();
-        bos.close();
-        int len = bos.writtenBytes();
         checkPayload(channel, len);
-        Bytes.int2bytes(len, header, 12);
 
-        // write
-        buffer.writerIndex(savedWriteIndex);
-        buffer.writeBytes(header); // write header.
+        // write header in place.
+        writeHeader(buffer, savedWriteIndex, flag, (byte) 0, req.getId(), len);
         buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
     }
 
@@ -257,47 +254,42 @@ public class ExchangeCodec extends TelnetCodec {
         int savedWriteIndex = buffer.writerIndex();
         try {
             Serialization serialization = getSerialization(channel);
-            // header.
-            byte[] header = new byte[HEADER_LENGTH];
-            // set magic number.
-            Bytes.short2bytes(MAGIC, header);
             // set request and serialization flag.
-            header[2] = serialization.getContentTypeId();
+            byte flag = serialization.getContentTypeId();
             if (res.isHeartbeat()) {
-                header[2] |= FLAG_EVENT;
+                flag |= FLAG_EVENT;
             }
             // set response status.
             byte status = res.getStatus();
-            header[3] = status;
-            // set request id.
-            Bytes.long2bytes(res.getId(), header, 4);
 
             buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
-            ChannelBufferOutputStream bos = new ChannelBufferOutputStream(buffer);
-            ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
-            // encode response data or error message.
-            if (status == Response.OK) {
-                if (res.isHeartbeat()) {
-                    encodeHeartbeatData(channel, out, res.getResult());
+            ChannelBufferOutputStream bos = acquireOutputStream(buffer);
+            int len;
+            try {
+                ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
+                // encode response data or error message.
+                if (status == Response.OK) {
+                    if (res.isHeartbeat()) {
+                        encodeHeartbeatData(channel, out, res.getResult());
+                    } else {
+                        encodeResponseData(channel, out, res.getResult(), res.getVersion());
+                    }
                 } else {
-                    encodeResponseData(channel, out, res.getResult(), res.getVersion());
+                    out.writeUTF(res.getErrorMessage());
                 }
-            } else {
-                out.writeUTF(res.getErrorMessage());
-            }
-            out.flushBuffer();
-            if (out instanceof Cleanable) {
-                ((Cleanable) out).cleanup();
+                out.flushBuffer();
+                if (out instanceof Cleanable) {
+                    ((Cleanable) out).cleanup();
+                }
+                bos.flush();
+                bos.close();
+                len = bos.writtenBytes();
+            } finally {
+                releaseOutputStream(bos);
             }
-            bos.flush();
-            bos.close();
-
-            int len = bos.writtenBytes();
             checkPayload(channel, len);
-            Bytes.int2bytes(len, header, 12);
-            // write
-            buffer.writerIndex(savedWriteIndex);
-            buffer.writeBytes(header); // write header.
+            // write header in place.
+            writeHeader(buffer, savedWriteIndex, flag, status, res.getId(), len);
             buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
         } catch (Throwable t) {
             // clear buffer
@@ -342,6 +334,40 @@ public class ExchangeCodec extends TelnetCodec {
         }
     }
 
+    /**
+     * Writes the 16 bytes header at the given index straight into the buffer: magic, flag, status, id and body
+     * length, big-endian, without an intermediate header array.
+     */
+    private static void writeHeader(ChannelBuffer buffer, int index, byte flag, byte status, long id, int len) {
+        buffer.setByte(index, MAGIC_HIGH);
+        buffer.setByte(index + 1, MAGIC_LOW);
+        buffer.setByte(index + 2, flag);
+        buffer.setByte(index + 3, status);
+        for (int i = 0; i < 8; i++) {
+            buffer.setByte(index + 4 + i, (int) (id >>> (56 - (i << 3))));
+        }
+        buffer.setByte(index + 12, len >>> 24);
+        buffer.setByte(index + 13, len >>> 16);
+        buffer.setByte(index + 14, len >>> 8);
+        buffer.setByte(index + 15, len);
+    }
+
+    private static ChannelBufferOutputStream acquireOutputStream(ChannelBuffer buffer) {
+        ChannelBufferOutputStream bos = CACHED_OUTPUT_STREAM.get();
+        if (bos == null) {
+            return new ChannelBufferOutputStream(buffer);
+        }
+        CACHED_OUTPUT_STREAM.set(null);
+        bos.reset(buffer);
+        return bos;
+    }
+
+    private static void releaseOutputStream(ChannelBufferOutputStream bos) {
+        // do not keep a reference to the (maybe pooled) buffer between messages
+        bos.reset(null);
+        CACHED_OUTPUT_STREAM.set(bos);
+    }
+
     @Override
     protected Object decodeData(ObjectInput in) throws IOException {
         return decodeRequestData(in);
@@ -22,6 +22,7 @@ import org.apache.dubbo.common.timer.HashedWheelTimer;
 import org.apache.dubbo.common.timer.Timeout;
 import org.apache.dubbo.common.timer.Timer;
 import org.apache.dubbo.common.timer.TimerTask;
+import org.apache.dubbo.common.utils.LongObjectHashMap;
 import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.RemotingException;
@@ -31,9 +32,11 @@ import org.apache.dubbo.remoting.exchange.Response;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_TIMEOUT;
@@ -46,9 +49,27 @@ public class DefaultFuture extends CompletableFuture<Object> {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultFuture.class);
 
-    private static final Map<Long, Channel> CHANNELS = new ConcurrentHashMap<>();
+    /**
+     * must be a power of 2, request ids are sequential so they spread evenly over the segments.
+     */
+    private static final int FUTURE_SEGMENTS = 64;
 
-    private static final Map<Long, DefaultFuture> FUTURES = new ConcurrentHashMap<>();
+    /**
+     * all in-flight requests by id, striped to keep lookups by response id cheap and uncontended.
+     */
+    private static final PendingTable[] FUTURES = new PendingTable[FUTURE_SEGMENTS];
+
+    /**
+     * in-flight requests of each channel, so that closing a channel only touches its own requests. Requests of the
+     * same connection are added and removed concurrently, so these are concurrent sets, not a PendingTable.
+     */
+    private static final ConcurrentMap<Channel, Set<DefaultFuture>> CHANNELS = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0; i < FUTURE_SEGMENTS; i++) {
+            FUTURES[i] = new PendingTable();
+        }
+    }
 
     public static final Timer TIME_OUT_TIMER = new HashedWheelTimer(
             new NamedThreadFactory("dubbo-future-timeout", true),
@@ -56,13 +77,17 @@ public class DefaultFuture extends CompletableFuture<Object> {
             TimeUnit.MILLISECONDS);
 
     // invoke id.
-    private final Long id;
+    private final long id;
     private final Channel channel;
     private final Request request;
     private final int timeout;
     private final long start = System.currentTimeMillis();
     private volatile long sent;
     private Timeout timeoutCheckTask;
+    // the executor the response of this request is dispatched to, null to use the channel's own executor.
+    private ExecutorService executor;
+    // the in-flight requests of the channel this request was sent through, null if it was already closed.
+    private Set<DefaultFuture> channelFutures;
 
     private DefaultFuture(Channel channel, Request request, int timeout) {
         this.channel = channel;
@@ -70,8 +95,32 @@ public class DefaultFuture extends CompletableFuture<Object> {
         this.id = request.getId();
         this.timeout = timeout > 0 ? timeout : channel.getUrl().getPositiveParameter(TIMEOUT_KEY, DEFAULT_TIMEOUT);
         // put into waiting map.
-        FUTURES.put(id, this);
-        CHANNELS.put(id, channel);
+        segmentOf(id).put(id, this);
+        // a closed channel gets no table, it would never be removed again; the request then ends by its timeout
+        if (!channel.isClosed()) {
+            Set<DefaultFuture> futures = CHANNELS.get(channel);
+            if (futures == null) {
+                futures = CHANNELS.computeIfAbsent(channel, k -> ConcurrentHashMap.newKeySet());
+            }
+            futures.add(this);
+            channelFutures = futures;
+        }
+    }
+
+    private static PendingTable segmentOf(long id) {
+        return FUTURES[(int) id & (FUTURE_SEGMENTS - 1)];
+    }
+
+    private void removeFromChannel() {
+        Set<DefaultFuture> futures = channelFutures;
+        if (futures == null) {
+            return;
+        }
+        futures.remove(this);
+        // the channel may have been closed while this request was being registered
+        if (futures.isEmpty() && channel.isClosed()) {
+            CHANNELS.remove(channel, futures);
+        }
     }
 
     /**
@@ -93,22 +142,48 @@ public class DefaultFuture extends CompletableFuture<Object> {
      * @return a new DefaultFuture
      */
     public static DefaultFuture newFuture(Channel channel, Request request, int timeout) {
+        return newFuture(channel, request, timeout, null);
+    }
+
+    /**
+     * init a DefaultFuture whose response is dispatched to the given executor
+     *
+     * @param channel  channel
+     * @param request  the request
+     * @param timeout  timeout
+     * @param executor the executor to handle the response, or null to use the channel's own executor
+     * @return a new DefaultFuture
+     */
+    public static DefaultFuture newFuture(Channel channel, Request request, int timeout, ExecutorService executor) {
         final DefaultFuture future = new DefaultFuture(channel, request, timeout);
+        future.setExecutor(executor);
         // timeout check
         timeoutCheck(future);
         return future;
     }
 
     public static DefaultFuture getFuture(long id) {
-        return FUTURES.get(id);
+        return segmentOf(id).get(id);
+    }
+
+    /**
+     * @return the number of requests still waiting for their response, across all channels
+     */
+    public static int getPendingCount() {
+        int count = 0;
+        for (PendingTable table : FUTURES) {
+            count += table.size();
+        }
+        return count;
     }
 
     public static boolean hasFuture(Channel channel) {
-        return CHANNELS.containsValue(channel);
+        Set<DefaultFuture> futures = CHANNELS.get(channel);
+        return futures != null && !futures.isEmpty();
     }
 
     public static void sent(Channel channel, Request request) {
-        DefaultFuture future = FUTURES.get(request.getId());
+        DefaultFuture future = getFuture(request.getId());
         if (future != null) {
             future.doSent();
         }
@@ -121,18 +196,19 @@ public class DefaultFuture extends CompletableFuture<Object> {
      * @param channel channel to close
      */
     public static void closeChannel(Channel channel) {
-        for (Map.Entry<Long, Channel> entry : CHANNELS.entrySet()) {
-            if (channel.equals(entry.getValue())) {
-                DefaultFuture future = getFuture(entry.getKey());
-                if (future != null && !future.isDone()) {
-                    Response disconnectResponse = new Response(future.getId());
-                    disconnectResponse.setStatus(Response.CHANNEL_INACTIVE);
-                    disconnectResponse.setErrorMessage("Channel " +
-                            channel +
-                            " is inactive. Directly return the unFinished request : " +
-                            future.getRequest());
-                    DefaultFuture.received(channel, disconnectResponse);
-                }
+        Set<DefaultFuture> futures = CHANNELS.remove(channel);
+        if (futures == null) {
+            return;
+        }
+        for (DefaultFuture future : futures) {
+            if (!future.isDone()) {
+                Response disconnectResponse = new Response(future.getId());
+                disconnectResponse.setStatus(Response.CHANNEL_INACTIVE);
+                disconnectResponse.setErrorMessage("Channel " +
+                        channel +
+                        " is inactive. Directly return the unFinished request : " +
+                        future.getRequest());
+                DefaultFuture.received(channel, disconnectResponse);
             }
         }
     }
@@ -142,24 +218,21 @@ public class DefaultFuture extends CompletableFuture<Object> {
     }
 
     public static void received(Channel channel, Response response, boolean timeout) {
-        try {
-            DefaultFuture future = FUTURES.remove(response.getId());
-            if (future != null) {
-                Timeout t = future.timeoutCheckTask;
-                if (!timeout) {
-                    // decrease Time
-                    t.cancel();
-                }
-                future.doReceived(response);
-            } else {
-                logger.warn("The timeout response finally returned at "
-                        + (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()))
-                        + ", response " + response
-                        + (channel == null ? "" : ", channel: " + channel.getLocalAddress()
-                        + " -> " + channel.getRemoteAddress()));
+        DefaultFuture future = segmentOf(response.getId()).remove(response.getId());
+        if (future != null) {
+            future.removeFromChannel();
+            Timeout t = future.timeoutCheckTask;
+            if (!timeout) {
+                // decrease Time
+                t.cancel();
             }
-        } finally {
-            CHANNELS.remove(response.getId());
+            future.doReceived(response);
+        } else {
+            logger.warn("The timeout response finally returned at "
+                    + (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()))
+                    + ", response " + response
+                    + (channel == null ? "" : ", channel: " + channel.getLocalAddress()
+                    + " -> " + channel.getRemoteAddress()));
         }
     }
 
@@ -169,8 +242,8 @@ public class DefaultFuture extends CompletableFuture<Object> {
         errorResult.setStatus(Response.CLIENT_ERROR);
         errorResult.setErrorMessage("request future has been canceled.");
         this.doReceived(errorResult);
-        FUTURES.remove(id);
-        CHANNELS.remove(id);
+        segmentOf(id).remove(id);
+        removeFromChannel();
         return true;
     }
 
@@ -208,6 +281,14 @@ public class DefaultFuture extends CompletableFuture<Object> {
         return request;
     }
 
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
     private int getTimeout() {
         return timeout;
     }
@@ -231,9 +312,9 @@ public class DefaultFuture extends CompletableFuture<Object> {
 
     private static class TimeoutCheckTask implements TimerTask {
 
-        private final Long requestID;
+        private final long requestID;
 
-        TimeoutCheckTask(Long requestID) {
+        TimeoutCheckTask(long requestID) {
             this.requestID = requestID;
         }
 
@@ -253,4 +334,28 @@ public class DefaultFuture extends CompletableFuture<Object> {
 
         }
     }
+
+    /**
+     * One segment of the in-flight requests keyed by the primitive request id, guarded by its own monitor.
+     */
+    private static final class PendingTable {
+
+        private final LongObjectHashMap<DefaultFuture> futures = new LongObjectHashMap<>();
+
+        synchronized DefaultFuture get(long id) {
+            return futures.get(id);
+        }
+
+        synchronized void put(long id, DefaultFuture future) {
+            futures.put(id, future);
+        }
+
+        synchronized DefaultFuture remove(long id) {
+            return futures.remove(id);
+        }
+
+        synchronized int size() {
+            return futures.size();
+        }
+    }
 }
@@ -31,6 +31,7 @@ import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
 
 import java.net.InetSocketAddress;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_TIMEOUT;
 import static org.apache.dubbo.common.constants.CommonConstants.TIMEOUT_KEY;
@@ -107,6 +108,11 @@ final class HeaderExchangeChannel implements ExchangeChannel {
 
     @Override
     public CompletableFuture<Object> request(Object request, int timeout) throws RemotingException {
+        return request(request, timeout, null);
+    }
+
+    @Override
+    public CompletableFuture<Object> request(Object request, int timeout, ExecutorService executor) throws RemotingException {
         if (closed) {
             throw new RemotingException(this.getLocalAddress(), null, "Failed to send request " + request + ", cause: The channel " + this + " is closed!");
         }
@@ -115,7 +121,7 @@ final class HeaderExchangeChannel implements ExchangeChannel {
         req.setVersion(Version.getProtocolVersion()); //协议的版本
         req.setTwoWay(true);//双向通信
         req.setData(request); //request：就是传进来的Invocation ->
-        DefaultFuture future = DefaultFuture.newFuture(channel, req, timeout);
+        DefaultFuture future = DefaultFuture.newFuture(channel, req, timeout, executor);
         try {
             //这里
             channel.send(req);
@@ -138,6 +144,8 @@ final class HeaderExchangeChannel implements ExchangeChannel {
         } catch (Throwable e) {
             logger.warn(e.getMessage(), e);
         }
+        // no response will come back through a closed channel, return the unfinished requests directly.
+        DefaultFuture.closeChannel(channel);
     }
 
     // graceful close
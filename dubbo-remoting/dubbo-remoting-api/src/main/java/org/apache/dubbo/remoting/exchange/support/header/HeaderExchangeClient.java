@@ -31,6 +31,7 @@ import org.apache.dubbo.remoting.exchange.ExchangeHandler;
 import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.dubbo.remoting.utils.UrlUtils.getHeartbeat;
@@ -84,6 +85,11 @@ public class HeaderExchangeClient implements ExchangeClient {
         return channel.request(request, timeout);
     }
 
+    @Override
+    public CompletableFuture<Object> request(Object request, int timeout, ExecutorService executor) throws RemotingException {
+        return channel.request(request, timeout, executor);
+    }
+
     @Override
     public ChannelHandler getChannelHandler() {
         return channel.getChannelHandler();
@@ -89,6 +89,12 @@ public abstract class AbstractClient extends AbstractEndpoint implements Client
                 .getDefaultExtension().get(CONSUMER_SIDE, Integer.toString(url.getPort()));
         ExtensionLoader.getExtensionLoader(DataStore.class)
                 .getDefaultExtension().remove(CONSUMER_SIDE, Integer.toString(url.getPort()));
+        ExtensionLoader.getExtensionLoader(DataStore.class)
+                .getDefaultExtension().put(Constants.CLIENT_COMPONENT_KEY, getStoreKey(), this);
+    }
+
+    private String getStoreKey() {
+        return getUrl().getAddress() + "@" + Integer.toHexString(System.identityHashCode(this));
     }
 
     protected static ChannelHandler wrapChannelHandler(URL url, ChannelHandler handler) {
@@ -254,6 +260,9 @@ public abstract class AbstractClient extends AbstractEndpoint implements Client
     @Override
     public void close() {
 
+        ExtensionLoader.getExtensionLoader(DataStore.class)
+                .getDefaultExtension().remove(Constants.CLIENT_COMPONENT_KEY, getStoreKey());
+
         try {
             super.close();
         } catch (Throwable e) {
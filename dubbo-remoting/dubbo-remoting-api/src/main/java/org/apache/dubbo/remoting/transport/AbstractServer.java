@@ -83,6 +83,7 @@ public abstract class AbstractServer extends AbstractEndpoint implements Server
         //fixme replace this with better method
         DataStore dataStore = ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
         executor = (ExecutorService) dataStore.get(Constants.EXECUTOR_SERVICE_COMPONENT_KEY, Integer.toString(url.getPort()));
+        dataStore.put(Constants.SERVER_COMPONENT_KEY, Integer.toString(url.getPort()), this);
     }
 
     protected abstract void doOpen() throws Throwable;
@@ -157,6 +158,8 @@ public abstract class AbstractServer extends AbstractEndpoint implements Server
             logger.info("Close " + getClass().getSimpleName() + " bind " + getBindAddress() + ", export " + getLocalAddress());
         }
         ExecutorUtil.shutdownNow(executor, 100);
+        ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension()
+                .remove(Constants.SERVER_COMPONENT_KEY, Integer.toString(getUrl().getPort()));
         try {
             super.close();
         } catch (Throwable e) {
@@ -26,7 +26,11 @@ import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.ChannelHandler;
 import org.apache.dubbo.remoting.Constants;
+import org.apache.dubbo.remoting.Decodeable;
 import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
 import org.apache.dubbo.remoting.transport.ChannelHandlerDelegate;
 
 import java.util.concurrent.ExecutorService;
@@ -120,4 +124,42 @@ public class WrappedChannelHandler implements ChannelHandlerDelegate {
         return cexecutor;
     }
 
+    /**
+     * A response goes to the executor its request was issued with, e.g. the threadless executor of a synchronous
+     * call, so that the calling thread handles it by itself. Everything else goes to {@link #getExecutorService()}.
+     *
+     * @param msg the received message
+     * @return the executor to handle the message
+     */
+    public ExecutorService getPreferredExecutorService(Object msg) {
+        if (msg instanceof Response) {
+            DefaultFuture responseFuture = DefaultFuture.getFuture(((Response) msg).getId());
+            if (responseFuture != null) {
+                ExecutorService executor = responseFuture.getExecutor();
+                if (executor != null && !executor.isShutdown()) {
+                    return executor;
+                }
+            }
+        }
+        return getExecutorService();
+    }
+
+    /**
+     * Releases what a received message holds for its decoding, to be called when the message is not going to be
+     * handled, e.g. when the thread pool rejects it.
+     *
+     * @param msg the received message
+     */
+    protected static void discard(Object msg) {
+        Object data = msg;
+        if (msg instanceof Request) {
+            data = ((Request) msg).getData();
+        } else if (msg instanceof Response) {
+            data = ((Response) msg).getResult();
+        }
+        if (data instanceof Decodeable) {
+            ((Decodeable) data).discard();
+        }
+    }
+
 }
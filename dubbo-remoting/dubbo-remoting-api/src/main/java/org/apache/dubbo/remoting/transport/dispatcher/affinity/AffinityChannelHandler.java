@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.dispatcher.affinity;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.store.DataStore;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.ChannelHandler;
+import org.apache.dubbo.remoting.Constants;
+import org.apache.dubbo.remoting.ExecutionException;
+import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.transport.dispatcher.ChannelEventRunnable;
+import org.apache.dubbo.remoting.transport.dispatcher.ChannelEventRunnable.ChannelState;
+import org.apache.dubbo.remoting.transport.dispatcher.WrappedChannelHandler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.apache.dubbo.common.constants.CommonConstants.CONSUMER_SIDE;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_QUEUES;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_THREADS;
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_THREAD_NAME;
+import static org.apache.dubbo.common.constants.CommonConstants.QUEUES_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.SIDE_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.THREADS_KEY;
+import static org.apache.dubbo.common.constants.CommonConstants.THREAD_NAME_KEY;
+
+/**
+ * Binds each channel to one of <code>threads</code> single thread executors, so that the events of a connection are
+ * handled in order, by the same thread, and connections do not contend on a shared queue. <code>queues</code> bounds
+ * the pending events of each executor.
+ */
+public class AffinityChannelHandler extends WrappedChannelHandler {
+
+    private final AffinityExecutorService affinityExecutor;
+
+    public AffinityChannelHandler(ChannelHandler handler, URL url) {
+        super(handler, url);
+        String threadName = url.getParameter(THREAD_NAME_KEY, DEFAULT_THREAD_NAME);
+        int threads = url.getPositiveParameter(THREADS_KEY, DEFAULT_THREADS);
+        int queues = url.getParameter(QUEUES_KEY, DEFAULT_QUEUES);
+        affinityExecutor = new AffinityExecutorService(threadName, threads, queues);
+
+        // the affinity executors replace the thread pool, which has not started any thread yet
+        executor.shutdown();
+        String componentKey = Constants.EXECUTOR_SERVICE_COMPONENT_KEY;
+        if (CONSUMER_SIDE.equalsIgnoreCase(url.getParameter(SIDE_KEY))) {
+            componentKey = CONSUMER_SIDE;
+        }
+        DataStore dataStore = ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
+        dataStore.put(componentKey, Integer.toString(url.getPort()), affinityExecutor);
+    }
+
+    @Override
+    public void connected(Channel channel) throws RemotingException {
+        try {
+            execute(channel, new ChannelEventRunnable(channel, handler, ChannelState.CONNECTED));
+        } catch (Throwable t) {
+            throw new ExecutionException("connect event", channel, getClass() + " error when process connected event .", t);
+        }
+    }
+
+    @Override
+    public void disconnected(Channel channel) throws RemotingException {
+        try {
+            execute(channel, new ChannelEventRunnable(channel, handler, ChannelState.DISCONNECTED));
+        } catch (Throwable t) {
+            throw new ExecutionException("disconnect event", channel, getClass() + " error when process disconnected event .", t);
+        }
+    }
+
+    @Override
+    public void received(Channel channel, Object message) throws RemotingException {
+        try {
+            ExecutorService preferred = getPreferredExecutorService(message);
+            if (preferred != affinityExecutor && preferred != SHARED_EXECUTOR) {
+                // e.g. the threadless executor of a synchronous call waiting for this response
+                preferred.execute(new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message));
+            } else {
+                execute(channel, new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message));
+            }
+        } catch (Throwable t) {
+            discard(message);
+            if (message instanceof Request && t instanceof RejectedExecutionException) {
+                Request request = (Request) message;
+                if (request.isTwoWay()) {
+                    String msg = "Server side(" + url.getIp() + "," + url.getPort() + ") threadpool is exhausted ,detail msg:" + t.getMessage();
+                    Response response = new Response(request.getId(), request.getVersion());
+                    response.setStatus(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR);
+                    response.setErrorMessage(msg);
+                    channel.send(response);
+                    return;
+                }
+            }
+            throw new ExecutionException(message, channel, getClass() + " error when process received event .", t);
+        }
+    }
+
+    @Override
+    public void caught(Channel channel, Throwable exception) throws RemotingException {
+        try {
+            execute(channel, new ChannelEventRunnable(channel, handler, ChannelState.CAUGHT, exception));
+        } catch (Throwable t) {
+            throw new ExecutionException("caught event", channel, getClass() + " error when process caught event .", t);
+        }
+    }
+
+    private void execute(Channel channel, Runnable runnable) {
+        if (affinityExecutor.isShutdown()) {
+            SHARED_EXECUTOR.execute(runnable);
+        } else {
+            affinityExecutor.execute(channel, runnable);
+        }
+    }
+
+    @Override
+    public ExecutorService getExecutor() {
+        return affinityExecutor;
+    }
+
+    @Override
+    public ExecutorService getExecutorService() {
+        if (affinityExecutor.isShutdown()) {
+            return SHARED_EXECUTOR;
+        }
+        return affinityExecutor;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        try {
+            affinityExecutor.shutdown();
+        } catch (Throwable t) {
+            logger.warn("fail to destroy thread pool of server: " + t.getMessage(), t);
+        }
+    }
+}
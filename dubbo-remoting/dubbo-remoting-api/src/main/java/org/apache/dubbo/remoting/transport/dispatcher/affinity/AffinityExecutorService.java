@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.dispatcher.affinity;
+
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed set of single thread executors, each one draining its own lock free queue. Tasks submitted with the same
+ * key always run on the same thread, in submission order. Threads are started on their first task.
+ */
+public class AffinityExecutorService extends AbstractExecutorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AffinityExecutorService.class);
+
+    private final Worker[] workers;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param threads  the number of single thread executors
+     * @param capacity the maximum number of pending tasks of each executor, unbounded if not positive
+     */
+    public AffinityExecutorService(String threadName, int threads, int capacity) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        ThreadFactory threadFactory = new NamedThreadFactory(threadName, true);
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(threadFactory, capacity);
+        }
+    }
+
+    /**
+     * Runs the task on the executor the key is bound to.
+     */
+    public void execute(Object key, Runnable task) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        workers[(hash & Integer.MAX_VALUE) % workers.length].execute(task);
+    }
+
+    /**
+     * Runs a task without any ordering requirement, the executors are used in turn.
+     */
+    @Override
+    public void execute(Runnable task) {
+        workers[(next.getAndIncrement() & Integer.MAX_VALUE) % workers.length].execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        for (Worker worker : workers) {
+            worker.wakeUp();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        List<Runnable> pending = new ArrayList<Runnable>();
+        for (Worker worker : workers) {
+            Runnable task;
+            while ((task = worker.poll()) != null) {
+                pending.add(task);
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        if (!shutdown) {
+            return false;
+        }
+        for (Worker worker : workers) {
+            if (worker.terminated.getCount() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Worker worker : workers) {
+            if (!worker.terminated.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class Worker implements Runnable {
+
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private final CountDownLatch terminated = new CountDownLatch(1);
+
+        private final ThreadFactory threadFactory;
+
+        private final int capacity;
+
+        private volatile Thread thread;
+
+        private volatile boolean parked;
+
+        Worker(ThreadFactory threadFactory, int capacity) {
+            this.threadFactory = threadFactory;
+            this.capacity = capacity;
+        }
+
+        void execute(Runnable task) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Affinity executor has been shut down");
+            }
+            if (capacity > 0 && size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                throw new RejectedExecutionException("Affinity executor queue is full, capacity: " + capacity);
+            }
+            queue.offer(task);
+            if (!started.get() && started.compareAndSet(false, true)) {
+                Thread t = threadFactory.newThread(this);
+                thread = t;
+                t.start();
+            } else if (parked) {
+                wakeUp();
+            }
+        }
+
+        Runnable poll() {
+            Runnable task = queue.poll();
+            if (task != null && capacity > 0) {
+                size.decrementAndGet();
+            }
+            return task;
+        }
+
+        void wakeUp() {
+            Thread t = thread;
+            if (t != null) {
+                LockSupport.unpark(t);
+            } else if (shutdown && !started.get() && started.compareAndSet(false, true)) {
+                // never started, nothing to wait for
+                terminated.countDown();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Runnable task = poll();
+                    if (task != null) {
+                        try {
+                            task.run();
+                        } catch (Throwable t) {
+                            logger.warn("Failed to run task in affinity executor: " + t.getMessage(), t);
+                        }
+                        continue;
+                    }
+                    if (shutdown) {
+                        break;
+                    }
+                    parked = true;
+                    // re-check after publishing the parked state, a producer missing it has queued its task before
+                    if (queue.isEmpty() && !shutdown) {
+                        LockSupport.park(this);
+                    }
+                    parked = false;
+                }
+            } finally {
+                terminated.countDown();
+            }
+        }
+    }
+}
@@ -26,6 +26,46 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 public class ChannelBufferStreamTest {
 
+    @Test
+    public void testReset() throws Exception {
+        ChannelBuffer first = ChannelBuffers.dynamicBuffer();
+        ChannelBufferOutputStream out = new ChannelBufferOutputStream(first);
+        out.write(new byte[]{1, 2, 3});
+        assertEquals(3, out.writtenBytes());
+
+        ChannelBuffer second = ChannelBuffers.dynamicBuffer();
+        second.writeByte(9);
+        out.reset(second);
+        assertSame(second, out.buffer());
+        assertEquals(0, out.writtenBytes());
+        out.write(4);
+        assertEquals(1, out.writtenBytes());
+        assertEquals(2, second.writerIndex());
+        assertEquals(3, first.writerIndex());
+
+        out.reset(null);
+        assertEquals(null, out.buffer());
+    }
+
+    @Test
+    public void testReadRetainedStream() throws Exception {
+        ChannelBuffer buf = ChannelBuffers.wrappedBuffer(new byte[]{1, 2, 3, 4, 5});
+        ChannelBufferInputStream in = new ChannelBufferInputStream(buf, 4);
+        assertEquals(1, in.read());
+
+        ChannelBufferInputStream retained = in.readRetainedStream();
+        assertEquals(0, in.available());
+        assertEquals(4, buf.readerIndex());
+        assertEquals(3, retained.available());
+        assertEquals(2, retained.read());
+        assertEquals(3, retained.read());
+        assertEquals(4, retained.read());
+        assertEquals(-1, retained.read());
+        // a heap buffer is copied, closing has nothing to release
+        retained.close();
+        retained.close();
+    }
+
     @Test
     public void testAll() throws Exception {
         ChannelBuffer buf = ChannelBuffers.dynamicBuffer();
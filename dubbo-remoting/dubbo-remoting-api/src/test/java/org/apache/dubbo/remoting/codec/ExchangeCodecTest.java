@@ -344,6 +344,49 @@ public class ExchangeCodecTest extends TelnetCodecTest {
         Assertions.assertEquals(person, obj.getData());
     }
 
+    @Test
+    public void test_Encode_Header_In_Place() throws IOException {
+        ChannelBuffer encodeBuffer = ChannelBuffers.dynamicBuffer(1024);
+        Channel channel = getCliendSideChannel(url);
+        // leading bytes must be kept, the header is written at the writer index
+        encodeBuffer.writeBytes(new byte[]{1, 2, 3});
+        Request request = new Request(0x0102030405060708L);
+        request.setTwoWay(true);
+        request.setData(new Person());
+        codec.encode(channel, encodeBuffer, request);
+        int firstEnd = encodeBuffer.writerIndex();
+        // the second message reuses the cached output stream of this thread
+        Response response = new Response(0x0102030405060708L);
+        response.setResult(new Person());
+        codec.encode(channel, encodeBuffer, response);
+
+        byte[] data = new byte[encodeBuffer.writerIndex()];
+        encodeBuffer.readBytes(data);
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3}, Bytes.copyOf(data, 3));
+
+        Assertions.assertEquals(MAGIC_HIGH, data[3]);
+        Assertions.assertEquals(MAGIC_LOW, data[4]);
+        Assertions.assertEquals((byte) (0x80 | 0x40 | 2), data[5]);
+        Assertions.assertEquals(0, data[6]);
+        Assertions.assertEquals(request.getId(), Bytes.bytes2long(data, 7));
+        Assertions.assertEquals(firstEnd - 3 - 16, Bytes.bytes2int(data, 15));
+
+        Assertions.assertEquals(MAGIC_HIGH, data[firstEnd]);
+        Assertions.assertEquals(MAGIC_LOW, data[firstEnd + 1]);
+        Assertions.assertEquals(2, data[firstEnd + 2]);
+        Assertions.assertEquals(Response.OK, data[firstEnd + 3]);
+        Assertions.assertEquals(response.getId(), Bytes.bytes2long(data, firstEnd + 4));
+        Assertions.assertEquals(data.length - firstEnd - 16, Bytes.bytes2int(data, firstEnd + 12));
+
+        ChannelBuffer decodeBuffer = ChannelBuffers.wrappedBuffer(data);
+        decodeBuffer.readerIndex(3);
+        Request decodedRequest = (Request) codec.decode(channel, decodeBuffer);
+        Assertions.assertEquals(request.getId(), decodedRequest.getId());
+        Response decodedResponse = (Response) codec.decode(channel, decodeBuffer);
+        Assertions.assertEquals(response.getId(), decodedResponse.getId());
+        Assertions.assertEquals(new Person(), decodedResponse.getResult());
+    }
+
     @Test
     public void test_Encode_Response() throws IOException {
         ChannelBuffer encodeBuffer = ChannelBuffers.dynamicBuffer(1024);
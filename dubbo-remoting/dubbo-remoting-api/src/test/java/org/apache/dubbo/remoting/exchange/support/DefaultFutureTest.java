@@ -18,15 +18,19 @@
 package org.apache.dubbo.remoting.exchange.support;
 
 import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.RemotingException;
 import org.apache.dubbo.remoting.TimeoutException;
 import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
 import org.apache.dubbo.remoting.handler.MockedChannel;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class DefaultFutureTest {
@@ -113,6 +117,69 @@ public class DefaultFutureTest {
         }
     }
 
+    @Test
+    public void closeChannel() throws Exception {
+        Channel channel = new MockedChannel();
+        Channel other = new MockedChannel();
+        DefaultFuture future = DefaultFuture.newFuture(channel, new Request(index.getAndIncrement()), 3000);
+        DefaultFuture otherFuture = DefaultFuture.newFuture(other, new Request(index.getAndIncrement()), 3000);
+        Assertions.assertTrue(DefaultFuture.hasFuture(channel));
+        Assertions.assertTrue(DefaultFuture.hasFuture(other));
+
+        DefaultFuture.closeChannel(channel);
+        Assertions.assertTrue(future.isDone());
+        Assertions.assertFalse(DefaultFuture.hasFuture(channel));
+        Assertions.assertNull(DefaultFuture.getFuture(future.getRequest().getId()));
+        try {
+            future.get();
+            Assertions.fail();
+        } catch (Exception e) {
+            Assertions.assertTrue(e.getCause() instanceof RemotingException);
+        }
+
+        Assertions.assertFalse(otherFuture.isDone());
+        Assertions.assertTrue(DefaultFuture.hasFuture(other));
+        otherFuture.cancel();
+        Assertions.assertFalse(DefaultFuture.hasFuture(other));
+    }
+
+    @Test
+    public void noTableForClosedChannel() throws Exception {
+        MockedChannel channel = new MockedChannel();
+        DefaultFuture future = DefaultFuture.newFuture(channel, new Request(index.getAndIncrement()), 3000);
+        channel.close();
+        DefaultFuture.closeChannel(channel);
+        Assertions.assertTrue(future.isDone());
+
+        // a request sent after the close, e.g. racing with it, must not leave a table behind
+        DefaultFuture late = DefaultFuture.newFuture(channel, new Request(index.getAndIncrement()), 3000);
+        Assertions.assertFalse(channels().containsKey(channel));
+        late.cancel();
+        Assertions.assertFalse(channels().containsKey(channel));
+        Assertions.assertNull(DefaultFuture.getFuture(late.getRequest().getId()));
+    }
+
+    @Test
+    public void received() throws Exception {
+        Channel channel = new MockedChannel();
+        Request request = new Request(index.getAndIncrement());
+        DefaultFuture future = DefaultFuture.newFuture(channel, request, 3000);
+        Assertions.assertSame(future, DefaultFuture.getFuture(request.getId()));
+
+        Response response = new Response(request.getId());
+        response.setResult("ok");
+        DefaultFuture.received(channel, response);
+        Assertions.assertEquals("ok", future.get());
+        Assertions.assertNull(DefaultFuture.getFuture(request.getId()));
+        Assertions.assertFalse(DefaultFuture.hasFuture(channel));
+    }
+
+    private static Map<?, ?> channels() throws Exception {
+        Field field = DefaultFuture.class.getDeclaredField("CHANNELS");
+        field.setAccessible(true);
+        return (Map<?, ?>) field.get(null);
+    }
+
     /**
      * mock a default future
      */
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.handler;
+
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.transport.dispatcher.affinity.AffinityChannelHandler;
+import org.apache.dubbo.remoting.transport.dispatcher.affinity.AffinityExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AffinityChannelHandlerTest extends WrappedChannelHandlerTest {
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        handler = new AffinityChannelHandler(new BizChannelHander(true), url.addParameter("threads", 4));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        handler.close();
+    }
+
+    @Test
+    public void testSameChannelSameThreadInOrder() throws Exception {
+        int channels = 8;
+        int messages = 200;
+        CountDownLatch latch = new CountDownLatch(channels * messages);
+        RecordingHandler recorder = new RecordingHandler(latch);
+        handler = new AffinityChannelHandler(recorder, url.addParameter("threads", 4));
+
+        List<Channel> channelList = new ArrayList<Channel>();
+        for (int i = 0; i < channels; i++) {
+            channelList.add(new MockedChannel());
+        }
+        for (int i = 0; i < messages; i++) {
+            for (Channel channel : channelList) {
+                handler.received(channel, i);
+            }
+        }
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        for (Channel channel : channelList) {
+            List<Object> received = recorder.messages.get(channel);
+            Assertions.assertEquals(messages, received.size());
+            for (int i = 0; i < messages; i++) {
+                Assertions.assertEquals(i, received.get(i));
+            }
+            Assertions.assertEquals(1, recorder.threads.get(channel).size());
+        }
+    }
+
+    @Test
+    public void testExecutorShutdown() throws Exception {
+        AffinityExecutorService executor = (AffinityExecutorService) handler.getExecutor();
+        Assertions.assertSame(executor, handler.getExecutorService());
+
+        handler.close();
+        Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(new MockedChannel(), () -> {
+        }));
+        Assertions.assertNotSame(executor, handler.getExecutorService());
+    }
+
+    @Test
+    public void testQueueFull() throws Exception {
+        CountDownLatch block = new CountDownLatch(1);
+        handler = new AffinityChannelHandler(new MockedChannelHandler() {
+            @Override
+            public void received(Channel channel, Object message) throws RemotingException {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, url.addParameter("threads", 1).addParameter("queues", 1));
+
+        AtomicReference<Object> sent = new AtomicReference<Object>();
+        Channel channel = new MockedChannel() {
+            @Override
+            public void send(Object message) throws RemotingException {
+                sent.set(message);
+            }
+        };
+        try {
+            // the first one is taken by the worker, the second one waits in the queue
+            handler.received(channel, "running");
+            Thread.sleep(100);
+            handler.received(channel, "queued");
+
+            Request request = new Request(1L);
+            request.setTwoWay(true);
+            handler.received(channel, request);
+            Assertions.assertEquals(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR, ((Response) sent.get()).getStatus());
+        } finally {
+            block.countDown();
+        }
+    }
+
+    private static class RecordingHandler extends MockedChannelHandler {
+
+        private final Map<Channel, List<Object>> messages = new ConcurrentHashMap<Channel, List<Object>>();
+
+        private final Map<Channel, List<Thread>> threads = new ConcurrentHashMap<Channel, List<Thread>>();
+
+        private final CountDownLatch latch;
+
+        RecordingHandler(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void received(Channel channel, Object message) throws RemotingException {
+            // a single thread per channel, no synchronization needed on the lists
+            messages.computeIfAbsent(channel, k -> new ArrayList<Object>()).add(message);
+            List<Thread> channelThreads = threads.computeIfAbsent(channel, k -> new ArrayList<Thread>());
+            if (!channelThreads.contains(Thread.currentThread())) {
+                channelThreads.add(Thread.currentThread());
+            }
+            latch.countDown();
+        }
+    }
+}
@@ -49,6 +49,16 @@ public class NettyBackedChannelBuffer implements ChannelBuffer {
         return new NettyBackedChannelBuffer(buffer.copy(index, length));
     }
 
+    @Override
+    public ChannelBuffer retainedSlice(int index, int length) {
+        return new NettyBackedChannelBuffer(buffer.retainedSlice(index, length));
+    }
+
+    @Override
+    public void release() {
+        buffer.release();
+    }
+
     //has nothing use
     @Override
     public ChannelBufferFactory factory() {
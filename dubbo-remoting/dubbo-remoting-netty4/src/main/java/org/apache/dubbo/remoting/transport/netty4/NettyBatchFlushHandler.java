@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.remoting.Constants;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Coalesces flushes of encoded messages. Instead of issuing one syscall per <code>writeAndFlush</code>, the flush is
+ * deferred to the end of the current event loop iteration, or performed right away once the pending message count
+ * or pending bytes reach the configured threshold.
+ * <p>
+ * Must be placed between the encoder and the head of the pipeline so that it sees the encoded {@link ByteBuf}s.
+ * The write futures are only completed once the data is really flushed, so <code>sent=true</code> still waits for
+ * the message to hit the socket.
+ */
+public class NettyBatchFlushHandler extends ChannelDuplexHandler {
+
+    private final int maxPendingMessages;
+
+    private final int maxPendingBytes;
+
+    private int pendingMessages;
+
+    private long pendingBytes;
+
+    private boolean flushScheduled;
+
+    private ChannelHandlerContext ctx;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushScheduled = false;
+            if (pendingMessages > 0) {
+                flushNow(ctx);
+            }
+        }
+    };
+
+    public NettyBatchFlushHandler(URL url) {
+        this(url.getPositiveParameter(Constants.FLUSH_BATCH_MESSAGES_KEY, Constants.DEFAULT_FLUSH_BATCH_MESSAGES),
+                url.getPositiveParameter(Constants.FLUSH_BATCH_BYTES_KEY, Constants.DEFAULT_FLUSH_BATCH_BYTES));
+    }
+
+    public NettyBatchFlushHandler(int maxPendingMessages, int maxPendingBytes) {
+        if (maxPendingMessages <= 0) {
+            throw new IllegalArgumentException("maxPendingMessages must be positive: " + maxPendingMessages);
+        }
+        if (maxPendingBytes <= 0) {
+            throw new IllegalArgumentException("maxPendingBytes must be positive: " + maxPendingBytes);
+        }
+        this.maxPendingMessages = maxPendingMessages;
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    static boolean isBatchFlush(URL url) {
+        return Constants.FLUSH_MODE_BATCH.equals(url.getParameter(Constants.FLUSH_MODE_KEY, Constants.DEFAULT_FLUSH_MODE));
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        flushIfPending(ctx);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof ByteBuf) {
+            pendingBytes += ((ByteBuf) msg).readableBytes();
+        } else if (msg instanceof ByteBufHolder) {
+            pendingBytes += ((ByteBufHolder) msg).content().readableBytes();
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        pendingMessages++;
+        if (pendingMessages >= maxPendingMessages || pendingBytes >= maxPendingBytes) {
+            flushNow(ctx);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            // the task is queued behind the writes already submitted to the event loop by business threads,
+            // so everything written before it goes out with a single flush.
+            ctx.channel().eventLoop().execute(flushTask);
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (!ctx.channel().isWritable()) {
+            // give the socket a chance to drain what is already buffered.
+            flushIfPending(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flushIfPending(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flushIfPending(ctx);
+        ctx.close(promise);
+    }
+
+    private void flushIfPending(ChannelHandlerContext ctx) {
+        if (pendingMessages > 0) {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        pendingMessages = 0;
+        pendingBytes = 0;
+        ctx.flush();
+    }
+}
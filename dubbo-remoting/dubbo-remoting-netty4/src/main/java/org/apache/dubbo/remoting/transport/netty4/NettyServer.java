@@ -101,6 +101,9 @@ public class NettyServer extends AbstractServer implements Server {
                                 .addLast("server-idle-handler|", new IdleStateHandler(0, 0, idleTimeout, MILLISECONDS))
 
                                 .addLast("handler", nettyServerHandler);
+                        if (NettyBatchFlushHandler.isBatchFlush(getUrl())) {
+                            ch.pipeline().addBefore("encoder", "batch-flusher", new NettyBatchFlushHandler(getUrl()));
+                        }
                     }
                 });
         // bind
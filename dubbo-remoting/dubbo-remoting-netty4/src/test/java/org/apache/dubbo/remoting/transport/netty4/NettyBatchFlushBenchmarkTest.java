@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.remoting.Constants;
+import org.apache.dubbo.remoting.exchange.ExchangeChannel;
+import org.apache.dubbo.remoting.exchange.ExchangeServer;
+import org.apache.dubbo.remoting.exchange.Exchangers;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares request throughput of the immediate and batch flush modes over loopback.
+ * <p>
+ * mvn test -Dtest=NettyBatchFlushBenchmarkTest -Dbenchmark=true [-Dconcurrent=64 -Druns=20000]
+ */
+public class NettyBatchFlushBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyBatchFlushBenchmarkTest.class);
+
+    @Test
+    public void testThroughput() throws Exception {
+        if (!Boolean.getBoolean("benchmark")) {
+            logger.warn("Please set -Dbenchmark=true to run the flush mode benchmark");
+            return;
+        }
+        int concurrent = Integer.getInteger("concurrent", 64);
+        int runs = Integer.getInteger("runs", 20000);
+
+        // warm up both paths first
+        run(Constants.FLUSH_MODE_IMMEDIATE, concurrent, runs / 10);
+        run(Constants.FLUSH_MODE_BATCH, concurrent, runs / 10);
+
+        long immediate = run(Constants.FLUSH_MODE_IMMEDIATE, concurrent, runs);
+        long batch = run(Constants.FLUSH_MODE_BATCH, concurrent, runs);
+        Assertions.assertTrue(immediate > 0 && batch > 0);
+        logger.info("flush.mode=immediate: " + immediate + " tps, flush.mode=batch: " + batch + " tps");
+    }
+
+    private long run(String mode, int concurrent, final int runs) throws Exception {
+        int port = NetUtils.getAvailablePort();
+        URL url = URL.valueOf("exchange://localhost:" + port + "?server=netty4&client=netty4&timeout=5000")
+                .addParameter(Constants.HEARTBEAT_KEY, 600 * 1000)
+                .addParameter(Constants.FLUSH_MODE_KEY, mode);
+        ExchangeServer server = Exchangers.bind(url, new WorldHandler());
+        final ExchangeChannel client = Exchangers.connect(url);
+        try {
+            final AtomicLong errors = new AtomicLong();
+            final CountDownLatch latch = new CountDownLatch(concurrent);
+            long start = System.nanoTime();
+            for (int i = 0; i < concurrent; i++) {
+                new Thread(() -> {
+                    try {
+                        for (int j = 0; j < runs; j++) {
+                            try {
+                                client.request(new World("world")).get();
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                }).start();
+            }
+            latch.await();
+            long elapsed = System.nanoTime() - start;
+            Assertions.assertEquals(0, errors.get());
+            return (long) concurrent * runs * 1000000000L / elapsed;
+        } finally {
+            client.close();
+            server.close();
+        }
+    }
+}
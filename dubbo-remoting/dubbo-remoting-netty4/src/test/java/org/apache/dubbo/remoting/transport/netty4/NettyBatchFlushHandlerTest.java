@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.URL;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class NettyBatchFlushHandlerTest {
+
+    @Test
+    public void testFlushDeferredToEndOfLoop() {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyBatchFlushHandler(64, 64 * 1024));
+        ChannelFuture first = channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[16]));
+        ChannelFuture second = channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[16]));
+        Assertions.assertNull(channel.readOutbound());
+        Assertions.assertFalse(first.isDone());
+        Assertions.assertFalse(second.isDone());
+
+        channel.runPendingTasks();
+        Assertions.assertTrue(first.isSuccess());
+        Assertions.assertTrue(second.isSuccess());
+        assertOutbound(channel, 2);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testFlushOnMessageThreshold() {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyBatchFlushHandler(3, 64 * 1024));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[1]));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[1]));
+        Assertions.assertNull(channel.readOutbound());
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[1]));
+        assertOutbound(channel, 3);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testFlushOnBytesThreshold() {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyBatchFlushHandler(64, 100));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[60]));
+        Assertions.assertNull(channel.readOutbound());
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[60]));
+        assertOutbound(channel, 2);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testFlushOnClose() {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyBatchFlushHandler(64, 64 * 1024));
+        ChannelFuture future = channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[8]));
+        channel.close();
+        Assertions.assertTrue(future.isSuccess());
+        assertOutbound(channel, 1);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testIsBatchFlush() {
+        Assertions.assertFalse(NettyBatchFlushHandler.isBatchFlush(URL.valueOf("dubbo://127.0.0.1:20880")));
+        Assertions.assertFalse(NettyBatchFlushHandler.isBatchFlush(URL.valueOf("dubbo://127.0.0.1:20880?flush.mode=immediate")));
+        Assertions.assertTrue(NettyBatchFlushHandler.isBatchFlush(URL.valueOf("dubbo://127.0.0.1:20880?flush.mode=batch")));
+    }
+
+    private static void assertOutbound(EmbeddedChannel channel, int expected) {
+        for (int i = 0; i < expected; i++) {
+            ByteBuf buf = channel.readOutbound();
+            Assertions.assertNotNull(buf);
+            buf.release();
+        }
+        Assertions.assertNull(channel.readOutbound());
+    }
+}
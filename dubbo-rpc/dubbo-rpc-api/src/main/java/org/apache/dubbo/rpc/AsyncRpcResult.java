@@ -18,10 +18,14 @@ package org.apache.dubbo.rpc;
 
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.threadpool.ThreadlessExecutor;
 
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
 /**
@@ -50,6 +54,11 @@ public class AsyncRpcResult extends AbstractResult {
 
     private Invocation invocation;
 
+    /**
+     * Set for synchronous calls, the thread calling {@link #get()} handles the response by itself through it.
+     */
+    private ThreadlessExecutor executor;
+
     public AsyncRpcResult(Invocation invocation) {
         this.invocation = invocation;
         this.storedContext = RpcContext.getContext();
@@ -108,6 +117,23 @@ public class AsyncRpcResult extends AbstractResult {
         return new AppResponse();
     }
 
+    @Override
+    public Result get() throws InterruptedException, ExecutionException {
+        if (executor != null) {
+            executor.waitAndDrain();
+        }
+        return super.get();
+    }
+
+    @Override
+    public Result get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (executor != null) {
+            // the response can only be handled by the waiting thread, the request timeout still applies.
+            executor.waitAndDrain();
+        }
+        return super.get(timeout, unit);
+    }
+
     @Override
     public Object recreate() throws Throwable {
         RpcInvocation rpcInvocation = (RpcInvocation) invocation;
@@ -195,6 +221,14 @@ public class AsyncRpcResult extends AbstractResult {
         return invocation;
     }
 
+    public ThreadlessExecutor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(ThreadlessExecutor executor) {
+        this.executor = executor;
+    }
+
     /**
      * tmp context to use when the thread switch to Dubbo thread.
      */
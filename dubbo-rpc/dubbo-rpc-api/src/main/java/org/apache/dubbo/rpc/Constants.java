@@ -68,6 +68,20 @@ public interface Constants {
 
     String EXECUTES_KEY = "executes";
 
+    String ADAPTIVE_LIMIT_KEY = "adaptive.limit";
+
+    String ADAPTIVE_LIMIT_INITIAL_KEY = "adaptive.limit.initial";
+
+    String ADAPTIVE_LIMIT_MIN_KEY = "adaptive.limit.min";
+
+    String ADAPTIVE_LIMIT_MAX_KEY = "adaptive.limit.max";
+
+    int DEFAULT_ADAPTIVE_LIMIT_INITIAL = 20;
+
+    int DEFAULT_ADAPTIVE_LIMIT_MIN = 1;
+
+    int DEFAULT_ADAPTIVE_LIMIT_MAX = 1000;
+
     String REFERENCE_FILTER_KEY = "reference.filter";
 
     String INVOKER_LISTENER_KEY = "invoker.listener";
@@ -80,6 +94,8 @@ public interface Constants {
 
     String ACTIVES_KEY = "actives";
 
+    String COALESCE_KEY = "coalesce";
+
     String ID_KEY = "id";
 
     String ASYNC_KEY = "async";
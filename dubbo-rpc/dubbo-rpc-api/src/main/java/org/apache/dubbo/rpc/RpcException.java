@@ -33,6 +33,7 @@ public /**final**/ class RpcException extends RuntimeException {
     public static final int FORBIDDEN_EXCEPTION = 4;
     public static final int SERIALIZATION_EXCEPTION = 5;
     public static final int NO_INVOKER_AVAILABLE_AFTER_FILTER = 6;
+    public static final int LIMIT_EXCEEDED_EXCEPTION = 7;
     private static final long serialVersionUID = 7815426752583648734L;
     /**
      * RpcException cannot be extended, use error code for exception type to keep compatibility
@@ -106,4 +107,8 @@ public /**final**/ class RpcException extends RuntimeException {
     public boolean isNoInvokerAvailableAfterFilter() {
         return code == NO_INVOKER_AVAILABLE_AFTER_FILTER;
     }
+
+    public boolean isLimitExceed() {
+        return code == LIMIT_EXCEEDED_EXCEPTION;
+    }
 }
\ No newline at end of file
@@ -56,6 +56,11 @@ public class RpcInvocation implements Invocation, Serializable {
 
     private transient InvokeMode invokeMode;
 
+    /**
+     * The {@link System#nanoTime()} the monitor filter saw this invocation start at, never sent to the remote side
+     */
+    private transient long startTime;
+
     public RpcInvocation() {
     }
 
@@ -225,6 +230,14 @@ public class RpcInvocation implements Invocation, Serializable {
         this.returnType = returnType;
     }
 
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
     public InvokeMode getInvokeMode() {
         return invokeMode;
     }
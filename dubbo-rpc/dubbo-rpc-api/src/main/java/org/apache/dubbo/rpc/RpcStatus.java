@@ -18,8 +18,12 @@ package org.apache.dubbo.rpc;
 
 import org.apache.dubbo.common.URL;
 
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -29,6 +33,7 @@ import java.util.concurrent.atomic.AtomicLong;
  * @see org.apache.dubbo.rpc.filter.ActiveLimitFilter
  * @see org.apache.dubbo.rpc.filter.ExecuteLimitFilter
  * @see org.apache.dubbo.rpc.cluster.loadbalance.LeastActiveLoadBalance
+ * @see org.apache.dubbo.rpc.cluster.loadbalance.AdaptiveLoadBalance
  */
 public class RpcStatus {
 
@@ -45,6 +50,23 @@ public class RpcStatus {
     private final AtomicLong failedMaxElapsed = new AtomicLong();
     private final AtomicLong succeededMaxElapsed = new AtomicLong();
 
+    /**
+     * Time constant of the elapsed moving average, in nanoseconds: a sample weighs 1/e of its original weight
+     * after 10 seconds.
+     */
+    private static final double EWMA_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    /**
+     * Bits of the elapsed moving average before its first sample, a NaN which no average ever is.
+     */
+    private static final long NO_EWMA_SAMPLE = -1L;
+    private final AtomicLong ewmaElapsedBits = new AtomicLong(NO_EWMA_SAMPLE);
+    private volatile long ewmaTimestamp;
+
+    private static final CompletableFuture<Boolean> GRANTED = CompletableFuture.completedFuture(true);
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<Waiter>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
     private RpcStatus() {
     }
 
@@ -121,14 +143,101 @@ public class RpcStatus {
         }
     }
 
+    /**
+     * Begins a count like {@link #beginCount(URL, String, int)}, except that a call over the limit waits in a first in,
+     * first out queue of the method instead of failing. The returned future is completed with true once the call
+     * holds a slot, handed over by a finishing call, or with false if the waiting was given up through
+     * {@link #cancelWaiting(URL, String, CompletableFuture)}. No thread is blocked meanwhile.
+     * <p>
+     * A new call does not overtake the calls already waiting.
+     */
+    public static CompletableFuture<Boolean> beginCountAsync(URL url, String methodName, int max) {
+        RpcStatus methodStatus = getStatus(url, methodName);
+        if (methodStatus.waiting.get() == 0 && beginCount(url, methodName, max)) {
+            return GRANTED;
+        }
+        Waiter waiter = new Waiter(max <= 0 ? Integer.MAX_VALUE : max);
+        methodStatus.waiting.incrementAndGet();
+        methodStatus.waiters.offer(waiter);
+        // a slot may have been freed before the waiter was queued
+        methodStatus.notifyWaiters(getStatus(url));
+        return waiter;
+    }
+
+    /**
+     * Gives up waiting for a slot, counting the call as rejected.
+     *
+     * @return false if the slot was granted in the meantime, the call then holds it and must end its count
+     */
+    public static boolean cancelWaiting(URL url, String methodName, CompletableFuture<Boolean> permit) {
+        if (!(permit instanceof Waiter) || !permit.complete(false)) {
+            return false;
+        }
+        RpcStatus methodStatus = getStatus(url, methodName);
+        methodStatus.waiting.decrementAndGet();
+        methodStatus.rejected.incrementAndGet();
+        methodStatus.waiters.remove(permit);
+        return true;
+    }
+
+    /**
+     * Gives back a slot granted by {@link #beginCountAsync(URL, String, int)} to a call which is then not made, e.g.
+     * because its thread was interrupted meanwhile. The call is counted as rejected.
+     */
+    public static void cancelCount(URL url, String methodName) {
+        RpcStatus appStatus = getStatus(url);
+        RpcStatus methodStatus = getStatus(url, methodName);
+        appStatus.active.decrementAndGet();
+        methodStatus.active.decrementAndGet();
+        methodStatus.rejected.incrementAndGet();
+        if (methodStatus.waiting.get() > 0) {
+            methodStatus.notifyWaiters(appStatus);
+        }
+    }
+
     /**
      * @param url
      * @param elapsed
      * @param succeeded
      */
     public static void endCount(URL url, String methodName, long elapsed, boolean succeeded) {
-        endCount(getStatus(url), elapsed, succeeded);
-        endCount(getStatus(url, methodName), elapsed, succeeded);
+        RpcStatus appStatus = getStatus(url);
+        RpcStatus methodStatus = getStatus(url, methodName);
+        endCount(appStatus, elapsed, succeeded);
+        endCount(methodStatus, elapsed, succeeded);
+        if (methodStatus.waiting.get() > 0) {
+            methodStatus.notifyWaiters(appStatus);
+        }
+    }
+
+    /**
+     * Hands the free slots over to the waiting calls, in order.
+     */
+    private void notifyWaiters(RpcStatus appStatus) {
+        Waiter head;
+        while ((head = waiters.peek()) != null) {
+            if (active.incrementAndGet() > head.max) {
+                active.decrementAndGet();
+                return;
+            }
+            Waiter waiter = waiters.poll();
+            if (waiter != null && waiter.complete(true)) {
+                waiting.decrementAndGet();
+                appStatus.active.incrementAndGet();
+            } else {
+                // cancelled in the meantime, or taken by another thread
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Waiter extends CompletableFuture<Boolean> {
+
+        private final int max;
+
+        Waiter(int max) {
+            this.max = max;
+        }
     }
 
     private static void endCount(RpcStatus status, long elapsed, boolean succeeded) {
@@ -149,6 +258,31 @@ public class RpcStatus {
                 status.failedMaxElapsed.set(elapsed);
             }
         }
+        status.updateEwmaElapsed(elapsed, System.nanoTime());
+    }
+
+    /**
+     * Peak sensitive moving average: a slower sample is taken as is, a faster one is averaged in according to the
+     * time passed since the previous sample.
+     * <p>
+     * Runs on every call, so the average is swapped in by CAS instead of under a lock. Its timestamp is written after
+     * it and may be one concurrent sample behind, which only shifts the decay by the time between the two.
+     */
+    private void updateEwmaElapsed(long elapsed, long now) {
+        for (;;) {
+            long bits = ewmaElapsedBits.get();
+            double ewma;
+            if (bits == NO_EWMA_SAMPLE || elapsed > Double.longBitsToDouble(bits)) {
+                ewma = elapsed;
+            } else {
+                double weight = Math.exp(-Math.max(0, now - ewmaTimestamp) / EWMA_DECAY_NANOS);
+                ewma = Double.longBitsToDouble(bits) * weight + elapsed * (1 - weight);
+            }
+            if (ewmaElapsedBits.compareAndSet(bits, Double.doubleToRawLongBits(ewma))) {
+                ewmaTimestamp = now;
+                return;
+            }
+        }
     }
 
     /**
@@ -180,6 +314,20 @@ public class RpcStatus {
         return active.get();
     }
 
+    /**
+     * @return the number of calls waiting for a slot
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * @return the number of calls rejected because no slot was free in time
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
     /**
      * get total.
      *
@@ -220,6 +368,21 @@ public class RpcStatus {
         return maxElapsed.get();
     }
 
+    /**
+     * get the exponentially weighted moving average of the elapsed time, in milliseconds. It decays towards zero
+     * while no call completes, so that a stale sample does not keep an invoker away forever.
+     *
+     * @return moving average elapsed, 0 if there is no sample
+     */
+    public double getEwmaElapsed() {
+        long bits = ewmaElapsedBits.get();
+        if (bits == NO_EWMA_SAMPLE) {
+            return 0;
+        }
+        double weight = Math.exp(-Math.max(0, System.nanoTime() - ewmaTimestamp) / EWMA_DECAY_NANOS);
+        return Double.longBitsToDouble(bits) * weight;
+    }
+
     /**
      * get failed.
      *
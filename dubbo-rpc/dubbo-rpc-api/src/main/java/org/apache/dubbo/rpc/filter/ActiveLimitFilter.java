@@ -18,14 +18,29 @@ package org.apache.dubbo.rpc.filter;
 
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.common.timer.HashedWheelTimer;
+import org.apache.dubbo.common.timer.Timeout;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.rpc.AsyncRpcResult;
 import org.apache.dubbo.rpc.Filter;
 import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.InvokeMode;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.ListenableFilter;
 import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
 import org.apache.dubbo.rpc.RpcStatus;
+import org.apache.dubbo.rpc.support.RpcUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.apache.dubbo.common.constants.CommonConstants.CONSUMER;
 import static org.apache.dubbo.common.constants.CommonConstants.TIMEOUT_KEY;
@@ -40,6 +55,11 @@ import static org.apache.dubbo.rpc.Constants.ACTIVES_KEY;
  *      If there are more than configured (in this example 2) is trying to invoke remote method, then rest of invocation
  *      will wait for configured timeout(default is 0 second) before invocation gets kill by dubbo.
  * </pre>
+ * The waiting invocations are queued in order and each finishing invocation hands its slot over to the first one, see
+ * {@link RpcStatus#beginCountAsync(URL, String, int)}. A synchronous invocation waits in its own thread, an asynchronous
+ * one returns right away and is sent from a thread of this filter once it gets a slot, not from the thread of the
+ * invocation that handed it over. Without a timeout, i.e. 0, an invocation waits as long as it takes to get a slot.
+ * The waiting and rejected invocations are counted in {@link RpcStatus}.
  *
  * @see Filter
  */
@@ -48,6 +68,16 @@ public class ActiveLimitFilter extends ListenableFilter {
 
     private static final String ACTIVELIMIT_FILTER_START_TIME = "activelimit_filter_start_time";
 
+    private static final HashedWheelTimer WAITING_TIMER = new HashedWheelTimer(
+            new NamedThreadFactory("dubbo-activelimit-timeout", true), 10, TimeUnit.MILLISECONDS);
+
+    /**
+     * Sends the asynchronous invocations which got a slot, which is handed over by the thread that ends another
+     * invocation, often an IO thread.
+     */
+    private static final ExecutorService PERMITTED_EXECUTOR = Executors.newCachedThreadPool(
+            new NamedThreadFactory("dubbo-activelimit-invoker", true));
+
     public ActiveLimitFilter() {
         super.listener = new ActiveLimitListener();
     }
@@ -56,65 +86,141 @@ public class ActiveLimitFilter extends ListenableFilter {
     public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
         URL url = invoker.getUrl();
         String methodName = invocation.getMethodName();
-        int max = invoker.getUrl().getMethodParameter(methodName, ACTIVES_KEY, 0);
-        RpcStatus rpcStatus = RpcStatus.getStatus(invoker.getUrl(), invocation.getMethodName());
-        if (!RpcStatus.beginCount(url, methodName, max)) {
-            long timeout = invoker.getUrl().getMethodParameter(invocation.getMethodName(), TIMEOUT_KEY, 0);
-            long start = System.currentTimeMillis();
-            long remain = timeout;
-            synchronized (rpcStatus) {
-                while (!RpcStatus.beginCount(url, methodName, max)) {
-                    try {
-                        rpcStatus.wait(remain);
-                    } catch (InterruptedException e) {
-                        // ignore
-                    }
-                    long elapsed = System.currentTimeMillis() - start;
-                    remain = timeout - elapsed;
-                    if (remain <= 0) {
-                        throw new RpcException("Waiting concurrent invoke timeout in client-side for service:  " + invoker.getInterface().getName() + ", method: " + invocation.getMethodName() + ", elapsed: " + elapsed + ", timeout: " + timeout + ". concurrent invokes: " + rpcStatus.getActive() + ". max concurrent invoke limit: " + max);
-                    }
+        int max = url.getMethodParameter(methodName, ACTIVES_KEY, 0);
+        CompletableFuture<Boolean> permit = RpcStatus.beginCountAsync(url, methodName, max);
+        if (permit.isDone() && permit.getNow(false)) {
+            return doInvoke(invoker, invocation);
+        }
+
+        long timeout = url.getMethodParameter(methodName, TIMEOUT_KEY, 0);
+        long start = System.currentTimeMillis();
+        // the invoker below the filters sets the invoke mode, it is not known yet
+        InvokeMode invokeMode = RpcUtils.getInvokeMode(url, invocation);
+        if (invokeMode != InvokeMode.SYNC) {
+            if (invocation instanceof RpcInvocation) {
+                ((RpcInvocation) invocation).setInvokeMode(invokeMode);
+            }
+            return invokeWhenPermitted(invoker, invocation, invokeMode, permit, max, timeout, start);
+        }
+
+        try {
+            boolean granted = timeout > 0 ? permit.get(timeout, TimeUnit.MILLISECONDS) : permit.get();
+            if (!granted) {
+                throw newLimitException(invoker, invocation, max, timeout, start);
+            }
+        } catch (TimeoutException e) {
+            if (RpcStatus.cancelWaiting(url, methodName, permit)) {
+                throw newLimitException(invoker, invocation, max, timeout, start);
+            }
+        } catch (InterruptedException e) {
+            if (!RpcStatus.cancelWaiting(url, methodName, permit)) {
+                // granted meanwhile, the slot is not used
+                RpcStatus.cancelCount(url, methodName);
+            }
+            Thread.currentThread().interrupt();
+            throw new RpcException(RpcException.LIMIT_EXCEEDED_EXCEPTION, "Interrupted unexpectedly while waiting concurrent invoke in client-side for service: "
+                    + invoker.getInterface().getName() + ", method: " + methodName, e);
+        } catch (ExecutionException e) {
+            throw new RpcException(e.getMessage(), e.getCause());
+        }
+        return doInvoke(invoker, invocation);
+    }
+
+    /**
+     * Returns right away, the invocation is sent by {@link #PERMITTED_EXECUTOR} once it gets a slot.
+     */
+    private Result invokeWhenPermitted(Invoker<?> invoker, Invocation invocation, InvokeMode invokeMode,
+                                       CompletableFuture<Boolean> permit, int max, long timeout, long start) {
+        URL url = invoker.getUrl();
+        String methodName = invocation.getMethodName();
+        AsyncRpcResult asyncResult = new AsyncRpcResult(invocation);
+        RpcContext context = RpcContext.getContext();
+        Timeout waitingTimeout = timeout > 0 ? WAITING_TIMER.newTimeout(
+                t -> RpcStatus.cancelWaiting(url, methodName, permit), timeout, TimeUnit.MILLISECONDS) : null;
+
+        permit.thenAcceptAsync(granted -> {
+            if (!granted) {
+                asyncResult.completeExceptionally(newLimitException(invoker, invocation, max, timeout, start));
+                return;
+            }
+            if (waitingTimeout != null) {
+                waitingTimeout.cancel();
+            }
+            RpcContext current = RpcContext.getContext();
+            RpcContext.restoreContext(context);
+            try {
+                Result result = doInvoke(invoker, invocation);
+                if (result instanceof AsyncRpcResult) {
+                    ((AsyncRpcResult) result).whenComplete((r, t) -> {
+                        if (t != null) {
+                            asyncResult.completeExceptionally(t);
+                        } else {
+                            asyncResult.complete(r);
+                        }
+                    });
+                } else {
+                    asyncResult.complete(result);
                 }
+            } catch (Throwable t) {
+                // the filter chain does not see this failure, end the count here
+                listener.onError(t, invoker, invocation);
+                asyncResult.completeExceptionally(t);
+            } finally {
+                RpcContext.restoreContext(current);
             }
+        }, PERMITTED_EXECUTOR);
+
+        if (invokeMode == InvokeMode.ASYNC) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            asyncResult.whenComplete((r, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                } else if (r.hasException()) {
+                    future.completeExceptionally(r.getException());
+                } else {
+                    future.complete(r.getValue());
+                }
+            });
+            context.setFuture(future);
         }
+        return asyncResult;
+    }
 
+    private Result doInvoke(Invoker<?> invoker, Invocation invocation) {
         invocation.setAttachment(ACTIVELIMIT_FILTER_START_TIME, String.valueOf(System.currentTimeMillis()));
-
         return invoker.invoke(invocation);
     }
 
+    private static RpcException newLimitException(Invoker<?> invoker, Invocation invocation, int max, long timeout, long start) {
+        RpcStatus rpcStatus = RpcStatus.getStatus(invoker.getUrl(), invocation.getMethodName());
+        long elapsed = System.currentTimeMillis() - start;
+        return new RpcException(RpcException.LIMIT_EXCEEDED_EXCEPTION, "Waiting concurrent invoke timeout in client-side for service:  " + invoker.getInterface().getName() + ", method: " + invocation.getMethodName() + ", elapsed: " + elapsed + ", timeout: " + timeout + ". concurrent invokes: " + rpcStatus.getActive() + ". max concurrent invoke limit: " + max);
+    }
+
     static class ActiveLimitListener implements Listener {
         @Override
         public void onResponse(Result appResponse, Invoker<?> invoker, Invocation invocation) {
             String methodName = invocation.getMethodName();
             URL url = invoker.getUrl();
-            int max = invoker.getUrl().getMethodParameter(methodName, ACTIVES_KEY, 0);
 
             RpcStatus.endCount(url, methodName, getElapsed(invocation), true);
-            notifyFinish(RpcStatus.getStatus(url, methodName), max);
         }
 
         @Override
         public void onError(Throwable t, Invoker<?> invoker, Invocation invocation) {
+            if (t instanceof RpcException && ((RpcException) t).isLimitExceed()) {
+                // never got a slot, nothing to end
+                return;
+            }
             String methodName = invocation.getMethodName();
             URL url = invoker.getUrl();
-            int max = invoker.getUrl().getMethodParameter(methodName, ACTIVES_KEY, 0);
 
             RpcStatus.endCount(url, methodName, getElapsed(invocation), false);
-            notifyFinish(RpcStatus.getStatus(url, methodName), max);
         }
 
         private long getElapsed(Invocation invocation) {
             String beginTime = invocation.getAttachment(ACTIVELIMIT_FILTER_START_TIME);
             return StringUtils.isNotEmpty(beginTime) ? System.currentTimeMillis() - Long.parseLong(beginTime) : 0;
         }
-
-        private void notifyFinish(RpcStatus rpcStatus, int max) {
-            if (max > 0) {
-                synchronized (rpcStatus) {
-                    rpcStatus.notifyAll();
-                }
-            }
-        }
     }
 }
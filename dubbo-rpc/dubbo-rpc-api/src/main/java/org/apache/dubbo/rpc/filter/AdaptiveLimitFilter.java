@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.constants.CommonConstants;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.ListenableFilter;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.filter.limiter.AimdLimiter;
+import org.apache.dubbo.rpc.filter.limiter.ConcurrencyLimiter;
+import org.apache.dubbo.rpc.filter.limiter.GradientLimiter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_TIMEOUT;
+import static org.apache.dubbo.common.constants.CommonConstants.TIMEOUT_KEY;
+import static org.apache.dubbo.rpc.Constants.ADAPTIVE_LIMIT_INITIAL_KEY;
+import static org.apache.dubbo.rpc.Constants.ADAPTIVE_LIMIT_KEY;
+import static org.apache.dubbo.rpc.Constants.ADAPTIVE_LIMIT_MAX_KEY;
+import static org.apache.dubbo.rpc.Constants.ADAPTIVE_LIMIT_MIN_KEY;
+import static org.apache.dubbo.rpc.Constants.DEFAULT_ADAPTIVE_LIMIT_INITIAL;
+import static org.apache.dubbo.rpc.Constants.DEFAULT_ADAPTIVE_LIMIT_MAX;
+import static org.apache.dubbo.rpc.Constants.DEFAULT_ADAPTIVE_LIMIT_MIN;
+
+/**
+ * Limits the parallel executions per method per service for the provider like {@link ExecuteLimitFilter}, but with
+ * a limit that follows the observed round trip times instead of a fixed <b>executes</b>. Invocations over the limit
+ * fail right away with a server overloaded error, so the excess load is shed before it queues up.
+ * <pre>
+ *     e.g. &lt;dubbo:service interface="org.apache.dubbo.demo.DemoService" ref="demoService"&gt;
+ *              &lt;dubbo:parameter key="adaptive.limit" value="gradient"/&gt;
+ *          &lt;/dubbo:service&gt;
+ * </pre>
+ * <b>adaptive.limit</b> selects the algorithm, <b>gradient</b> (the default for any other value) or <b>aimd</b>,
+ * <b>adaptive.limit.initial</b>, <b>adaptive.limit.min</b> and <b>adaptive.limit.max</b> bound the limit.
+ *
+ * @see GradientLimiter
+ * @see AimdLimiter
+ */
+@Activate(group = CommonConstants.PROVIDER, value = ADAPTIVE_LIMIT_KEY)
+public class AdaptiveLimitFilter extends ListenableFilter {
+
+    private static final String ADAPTIVELIMIT_FILTER_START_TIME = "adaptivelimit_filter_start_time";
+
+    private final ConcurrentMap<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<String, ConcurrencyLimiter>();
+
+    public AdaptiveLimitFilter() {
+        super.listener = new AdaptiveLimitListener();
+    }
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        URL url = invoker.getUrl();
+        String methodName = invocation.getMethodName();
+        ConcurrencyLimiter limiter = getLimiter(url, methodName);
+        if (!limiter.tryAcquire()) {
+            throw new RpcException(RpcException.LIMIT_EXCEEDED_EXCEPTION, "Server overloaded, failed to invoke method "
+                    + methodName + " in provider " + url + ", cause: The service is executing " + limiter.getInflight()
+                    + " invocations, its adaptive limit is " + limiter.getLimit() + ".");
+        }
+
+        invocation.setAttachment(ADAPTIVELIMIT_FILTER_START_TIME, String.valueOf(System.nanoTime()));
+        return invoker.invoke(invocation);
+    }
+
+    ConcurrencyLimiter getLimiter(URL url, String methodName) {
+        String key = url.getServiceKey() + "." + methodName;
+        ConcurrencyLimiter limiter = limiters.get(key);
+        if (limiter == null) {
+            limiters.putIfAbsent(key, createLimiter(url, methodName));
+            limiter = limiters.get(key);
+        }
+        return limiter;
+    }
+
+    private static ConcurrencyLimiter createLimiter(URL url, String methodName) {
+        int initial = url.getMethodPositiveParameter(methodName, ADAPTIVE_LIMIT_INITIAL_KEY, DEFAULT_ADAPTIVE_LIMIT_INITIAL);
+        int min = url.getMethodPositiveParameter(methodName, ADAPTIVE_LIMIT_MIN_KEY, DEFAULT_ADAPTIVE_LIMIT_MIN);
+        int max = Math.max(min, url.getMethodPositiveParameter(methodName, ADAPTIVE_LIMIT_MAX_KEY, DEFAULT_ADAPTIVE_LIMIT_MAX));
+        if (AimdLimiter.NAME.equals(url.getMethodParameter(methodName, ADAPTIVE_LIMIT_KEY))) {
+            int timeout = url.getMethodPositiveParameter(methodName, TIMEOUT_KEY, DEFAULT_TIMEOUT);
+            return new AimdLimiter(initial, min, max, timeout);
+        }
+        return new GradientLimiter(initial, min, max);
+    }
+
+    class AdaptiveLimitListener implements Listener {
+        @Override
+        public void onResponse(Result appResponse, Invoker<?> invoker, Invocation invocation) {
+            release(invoker, invocation, false);
+        }
+
+        @Override
+        public void onError(Throwable t, Invoker<?> invoker, Invocation invocation) {
+            if (t instanceof RpcException && ((RpcException) t).isLimitExceed()) {
+                // rejected, never held a slot
+                return;
+            }
+            release(invoker, invocation, true);
+        }
+
+        private void release(Invoker<?> invoker, Invocation invocation, boolean dropped) {
+            String beginTime = invocation.getAttachment(ADAPTIVELIMIT_FILTER_START_TIME);
+            if (StringUtils.isEmpty(beginTime)) {
+                return;
+            }
+            long rtt = System.nanoTime() - Long.parseLong(beginTime);
+            getLimiter(invoker.getUrl(), invocation.getMethodName()).release(rtt, dropped);
+        }
+    }
+}
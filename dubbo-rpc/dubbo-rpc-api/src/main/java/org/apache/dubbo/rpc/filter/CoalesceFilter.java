@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter;
+
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.AppResponse;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.InvokeMode;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.support.RpcUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.apache.dubbo.common.constants.CommonConstants.CONSUMER;
+import static org.apache.dubbo.rpc.Constants.COALESCE_KEY;
+
+/**
+ * CoalesceFilter folds identical concurrent invocations of a method into one remote call: while a call is in flight,
+ * the invocations of the same method with equal arguments on the same provider do not go over the wire but wait for
+ * its result, which is then handed to all of them.
+ * <pre>
+ *     e.g. &lt;dubbo:reference interface="org.apache.dubbo.demo.ConfigService"&gt;
+ *              &lt;dubbo:method name="getConfig" coalesce="true"/&gt;
+ *          &lt;/dubbo:reference&gt;
+ * </pre>
+ * Only meant for idempotent methods: the attachments of the waiting invocations are not sent, and they all get the
+ * same returned object. The filter is placed last in the chain, so that the other filters still see every invocation.
+ *
+ * @see Filter
+ */
+@Activate(group = CONSUMER, value = COALESCE_KEY, order = 10000)
+public class CoalesceFilter implements Filter {
+
+    private final ConcurrentMap<CoalesceKey, CompletableFuture<Result>> flights = new ConcurrentHashMap<>();
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        if (!invoker.getUrl().getMethodParameter(invocation.getMethodName(), COALESCE_KEY, false)) {
+            return invoker.invoke(invocation);
+        }
+        CoalesceKey key = new CoalesceKey(invoker, invocation);
+        CompletableFuture<Result> flight = new CompletableFuture<>();
+        CompletableFuture<Result> current = flights.putIfAbsent(key, flight);
+        if (current != null) {
+            return follow(current, invoker, invocation);
+        }
+
+        Result result;
+        try {
+            result = invoker.invoke(invocation);
+        } catch (Throwable t) {
+            land(key, flight, null, t);
+            throw t;
+        }
+        if (result instanceof AsyncRpcResult) {
+            ((AsyncRpcResult) result).whenComplete((r, t) -> land(key, flight, r, t));
+        } else {
+            land(key, flight, result, null);
+        }
+        return result;
+    }
+
+    private void land(CoalesceKey key, CompletableFuture<Result> flight, Result result, Throwable t) {
+        // removed first, so that an invocation arriving from now on starts a new call
+        flights.remove(key, flight);
+        if (t != null) {
+            flight.completeExceptionally(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+        } else {
+            flight.complete(result);
+        }
+    }
+
+    private Result follow(CompletableFuture<Result> flight, Invoker<?> invoker, Invocation invocation) throws RpcException {
+        AsyncRpcResult asyncResult = new AsyncRpcResult(invocation);
+        flight.whenComplete((r, t) -> {
+            if (t != null) {
+                asyncResult.completeExceptionally(t);
+            } else {
+                asyncResult.complete(copy(r));
+            }
+        });
+
+        // the invoker below the filters sets the invoke mode, a waiting invocation never gets there
+        InvokeMode invokeMode = RpcUtils.getInvokeMode(invoker.getUrl(), invocation);
+        if (invocation instanceof RpcInvocation) {
+            ((RpcInvocation) invocation).setInvokeMode(invokeMode);
+        }
+        if (invokeMode == InvokeMode.ASYNC) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            asyncResult.whenComplete((r, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                } else if (r.hasException()) {
+                    future.completeExceptionally(r.getException());
+                } else {
+                    future.complete(r.getValue());
+                }
+            });
+            RpcContext.getContext().setFuture(future);
+        } else if (invokeMode == InvokeMode.SYNC) {
+            // wait here like the invocation that makes the call, so that its failure surfaces the same way
+            try {
+                asyncResult.get();
+            } catch (InterruptedException e) {
+                throw new RpcException("Interrupted unexpectedly while waiting for the coalesced invocation of method: "
+                        + invocation.getMethodName() + ", cause: " + e.getMessage(), e);
+            } catch (ExecutionException e) {
+                Throwable t = e.getCause();
+                if (t instanceof RpcException) {
+                    throw (RpcException) t;
+                }
+                throw new RpcException(t.getMessage(), t);
+            }
+        }
+        return asyncResult;
+    }
+
+    private static Result copy(Result result) {
+        AppResponse appResponse = new AppResponse();
+        if (result.hasException()) {
+            appResponse.setException(result.getException());
+        } else {
+            appResponse.setValue(result.getValue());
+        }
+        appResponse.setAttachments(new HashMap<>(result.getAttachments()));
+        return appResponse;
+    }
+
+    /**
+     * Identifies the invocations that can share a call. The hash is computed once, as the arguments may be changed
+     * by the caller while the call is in flight.
+     */
+    private static final class CoalesceKey {
+
+        private final Invoker<?> invoker;
+
+        private final String methodName;
+
+        private final Class<?>[] parameterTypes;
+
+        private final Object[] arguments;
+
+        private final int hash;
+
+        CoalesceKey(Invoker<?> invoker, Invocation invocation) {
+            this.invoker = invoker;
+            this.methodName = invocation.getMethodName();
+            this.parameterTypes = invocation.getParameterTypes();
+            this.arguments = invocation.getArguments();
+            int h = System.identityHashCode(invoker);
+            h = 31 * h + methodName.hashCode();
+            h = 31 * h + Arrays.hashCode(parameterTypes);
+            h = 31 * h + Arrays.deepHashCode(arguments);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CoalesceKey)) {
+                return false;
+            }
+            CoalesceKey that = (CoalesceKey) o;
+            return hash == that.hash
+                    && invoker == that.invoker
+                    && methodName.equals(that.methodName)
+                    && Arrays.equals(parameterTypes, that.parameterTypes)
+                    && Arrays.deepEquals(arguments, that.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the in flight count without locking, the limit itself is recomputed under the limiter's monitor once per
+ * sample by {@link #update(int, long, int, boolean)}.
+ */
+public abstract class AbstractConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private volatile int limit;
+
+    protected AbstractConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Illegal limit range [" + minLimit + ", " + maxLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = clamp(initialLimit);
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        for (; ; ) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release(long rttNanos, boolean dropped) {
+        int current = inflight.getAndDecrement();
+        synchronized (this) {
+            limit = clamp(update(limit, rttNanos, current, dropped));
+        }
+    }
+
+    /**
+     * Computes the next limit from a sample, called under the limiter's monitor
+     *
+     * @param limit    the current limit
+     * @param rttNanos the time the invocation took
+     * @param inflight the invocations in flight when the sample was taken, including itself
+     * @param dropped  true if the invocation failed
+     * @return the next limit, clamped afterwards to the configured range
+     */
+    protected abstract int update(int limit, long rttNanos, int inflight, boolean dropped);
+
+    protected int clamp(double limit) {
+        return (int) Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+}
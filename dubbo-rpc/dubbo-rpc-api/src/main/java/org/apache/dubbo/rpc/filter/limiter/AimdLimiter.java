@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limiter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive increase, multiplicative decrease limiter. The limit grows by one per sample while at least half of it is
+ * used, and is cut to {@value #BACKOFF_RATIO} of itself whenever an invocation fails or takes longer than the timeout.
+ */
+public class AimdLimiter extends AbstractConcurrencyLimiter {
+
+    public static final String NAME = "aimd";
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final long timeoutNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long timeoutMillis) {
+        super(initialLimit, minLimit, maxLimit);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    @Override
+    protected int update(int limit, long rttNanos, int inflight, boolean dropped) {
+        if (dropped || rttNanos > timeoutNanos) {
+            // always back off by at least one
+            return Math.min(limit - 1, (int) (limit * BACKOFF_RATIO));
+        }
+        if (inflight * 2 >= limit) {
+            return limit + 1;
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limiter;
+
+/**
+ * Limits the number of concurrent executions of a provider method. Unlike a static <b>executes</b> limit, the limit
+ * moves with the round trip times observed by {@link #release(long, boolean)}.
+ *
+ * @see org.apache.dubbo.rpc.filter.AdaptiveLimitFilter
+ */
+public interface ConcurrencyLimiter {
+
+    /**
+     * Takes a slot if the current limit allows it
+     *
+     * @return true if the invocation may proceed, it must then call {@link #release(long, boolean)} once done
+     */
+    boolean tryAcquire();
+
+    /**
+     * Gives back a slot and feeds the sample to the limit algorithm
+     *
+     * @param rttNanos the time the invocation took
+     * @param dropped  true if the invocation failed, which is taken as a sign of overload
+     */
+    void release(long rttNanos, boolean dropped);
+
+    /**
+     * @return the current limit
+     */
+    int getLimit();
+
+    /**
+     * @return the invocations holding a slot
+     */
+    int getInflight();
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limiter;
+
+/**
+ * Gradient limiter. Compares every sample with a long term average of the round trip time: while they are close the
+ * limit grows by about its square root, the allowed queue, and once the samples get slower than the average times
+ * {@value #TOLERANCE} the limit shrinks by the same ratio, at most halved. The changes are smoothed to ride out
+ * single slow calls.
+ * <p>
+ * The limit does not grow while less than half of it is used, so that an idle method does not end up with a limit
+ * far above what it was ever able to serve.
+ */
+public class GradientLimiter extends AbstractConcurrencyLimiter {
+
+    public static final String NAME = "gradient";
+
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final int WARMUP_SAMPLES = 10;
+
+    /**
+     * about the last 600 samples make up the long term average
+     */
+    private static final double LONG_RTT_FACTOR = 2.0 / (600 + 1);
+
+    private double estimatedLimit;
+
+    private double longRtt;
+
+    private int samples;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit) {
+        super(initialLimit, minLimit, maxLimit);
+        this.estimatedLimit = getLimit();
+    }
+
+    @Override
+    protected int update(int limit, long rttNanos, int inflight, boolean dropped) {
+        double shortRtt = Math.max(rttNanos, 1);
+        if (samples < WARMUP_SAMPLES) {
+            samples++;
+            longRtt += (shortRtt - longRtt) / samples;
+        } else {
+            longRtt += (shortRtt - longRtt) * LONG_RTT_FACTOR;
+        }
+        // the average lags behind once the latency goes down again, let it catch up
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (!dropped && inflight < estimatedLimit / 2) {
+            return limit;
+        }
+
+        double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(getMinLimit(), Math.min(getMaxLimit(), newLimit));
+        return (int) estimatedLimit;
+    }
+
+    double getLongRtt() {
+        return longRtt;
+    }
+}
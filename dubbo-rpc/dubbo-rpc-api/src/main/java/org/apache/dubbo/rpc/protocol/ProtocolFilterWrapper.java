@@ -18,7 +18,10 @@ package org.apache.dubbo.rpc.protocol;
 
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.constants.CommonConstants;
+import org.apache.dubbo.common.extension.Activate;
 import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.utils.ConfigUtils;
+import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.rpc.Exporter;
 import org.apache.dubbo.rpc.Filter;
 import org.apache.dubbo.rpc.Invocation;
@@ -28,8 +31,17 @@ import org.apache.dubbo.rpc.Protocol;
 import org.apache.dubbo.rpc.Result;
 import org.apache.dubbo.rpc.RpcException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.apache.dubbo.common.constants.CommonConstants.ANY_VALUE;
+import static org.apache.dubbo.common.constants.CommonConstants.COMMA_SPLIT_PATTERN;
+import static org.apache.dubbo.common.constants.CommonConstants.METHODS_KEY;
 import static org.apache.dubbo.common.constants.RegistryConstants.REGISTRY_PROTOCOL;
 import static org.apache.dubbo.rpc.Constants.REFERENCE_FILTER_KEY;
 import static org.apache.dubbo.rpc.Constants.SERVICE_FILTER_KEY;
@@ -51,65 +63,59 @@ public class ProtocolFilterWrapper implements Protocol {
 
 
     private static <T> Invoker<T> buildInvokerChain(final Invoker<T> invoker, String key, String group) {
-        Invoker<T> last = invoker;
+        URL url = invoker.getUrl();
+        ExtensionLoader<Filter> loader = ExtensionLoader.getExtensionLoader(Filter.class);
         //根据group和key获得一个激活扩展点，获得的是filter的列表
-        List<Filter> filters = ExtensionLoader.getExtensionLoader(Filter.class).getActivateExtension(invoker.getUrl(), key, group);
-
-        if (!filters.isEmpty()) {
-            //遍历filter列表
-            for (int i = filters.size() - 1; i >= 0; i--) {
-                final Filter filter = filters.get(i);
-                //构建一个filter链
-                final Invoker<T> next = last;
-                last = new Invoker<T>() {
-
-                    @Override
-                    public Class<T> getInterface() {
-                        return invoker.getInterface();
-                    }
-
-                    @Override
-                    public URL getUrl() {
-                        return invoker.getUrl();
-                    }
-
-                    @Override
-                    public boolean isAvailable() {
-                        return invoker.isAvailable();
-                    }
-
-                    @Override
-                    public Result invoke(Invocation invocation) throws RpcException {
-                        Result asyncResult;
-                        try {
-                            asyncResult = filter.invoke(next, invocation);
-                        } catch (Exception e) {
-                            // onError callback
-                            if (filter instanceof ListenableFilter) {
-                                Filter.Listener listener = ((ListenableFilter) filter).listener();
-                                if (listener != null) {
-                                    listener.onError(e, invoker, invocation);
-                                }
-                            }
-                            throw e;
-                        }
-                        return asyncResult;
-                    }
-
-                    @Override
-                    public void destroy() {
-                        invoker.destroy();
-                    }
+        List<Filter> filters = loader.getActivateExtension(url, key, group);
+        if (filters.isEmpty()) {
+            return invoker;
+        }
 
-                    @Override
-                    public String toString() {
-                        return invoker.toString();
+        FilterChain<T> chain = new FilterChain<>(invoker, filters.toArray(new Filter[0]));
+        Map<String, FilterChain<T>> methodChains = new HashMap<>();
+        String methods = url.getParameter(METHODS_KEY);
+        if (StringUtils.isNotEmpty(methods)) {
+            Set<String> names = new HashSet<>(Arrays.asList(url.getParameter(key, new String[0])));
+            for (String method : COMMA_SPLIT_PATTERN.split(methods)) {
+                if (StringUtils.isEmpty(method) || ANY_VALUE.equals(method)) {
+                    continue;
+                }
+                List<Filter> applicable = new ArrayList<>(filters.size());
+                for (Filter filter : filters) {
+                    if (isApplicable(loader, filter, url, method, names)) {
+                        applicable.add(filter);
                     }
-                };
+                }
+                if (applicable.size() == filters.size()) {
+                    methodChains.put(method, chain);
+                } else {
+                    methodChains.put(method, new FilterChain<>(invoker, applicable.toArray(new Filter[0])));
+                }
             }
         }
+        return new FilterChainInvoker<>(invoker, chain, methodChains);
+    }
 
-        return new CallbackRegistrationInvoker<>(last, filters);
+    /**
+     * A filter activated by {@link Activate#value()} keys is only applicable to a method if one of its keys is
+     * configured for that method or for the whole service, e.g. <code>cache</code> configured for another method only
+     * does not concern this one. Filters activated without keys, or named explicitly in the filter list, always apply.
+     */
+    private static boolean isApplicable(ExtensionLoader<Filter> loader, Filter filter, URL url, String method, Set<String> names) {
+        Activate activate = filter.getClass().getAnnotation(Activate.class);
+        if (activate == null || activate.value().length == 0) {
+            return true;
+        }
+        String name = loader.getExtensionName(filter);
+        if (name == null || names.contains(name)) {
+            return true;
+        }
+        for (String key : activate.value()) {
+            if (ConfigUtils.isNotEmpty(url.getMethodParameter(method, key))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -142,33 +148,132 @@ public class ProtocolFilterWrapper implements Protocol {
         protocol.destroy();
     }
 
-    static class CallbackRegistrationInvoker<T> implements Invoker<T> {
+    /**
+     * The filters of a chain kept in an array, with one node per position built once, so that an invocation walks the
+     * chain by index instead of going through a distinct anonymous invoker per filter.
+     */
+    static final class FilterChain<T> {
 
-        private final Invoker<T> filterInvoker;
-        private final List<Filter> filters;
+        private final Invoker<T> invoker;
+        private final Filter[] filters;
+        private final Filter.Listener[] listeners;
+        private final Invoker<T>[] nodes;
 
-        public CallbackRegistrationInvoker(Invoker<T> filterInvoker, List<Filter> filters) {
-            this.filterInvoker = filterInvoker;
+        @SuppressWarnings("unchecked")
+        FilterChain(Invoker<T> invoker, Filter[] filters) {
+            this.invoker = invoker;
             this.filters = filters;
+            this.listeners = new Filter.Listener[filters.length];
+            this.nodes = new Invoker[filters.length + 1];
+            for (int i = 0; i < filters.length; i++) {
+                if (filters[i] instanceof ListenableFilter) {
+                    listeners[i] = ((ListenableFilter) filters[i]).listener();
+                }
+                nodes[i] = new FilterNode<>(this, i);
+            }
+            nodes[filters.length] = invoker;
+        }
+
+        Filter[] getFilters() {
+            return filters;
+        }
+
+        Result invoke(Invocation invocation) throws RpcException {
+            return nodes[0].invoke(invocation);
+        }
+
+        void onResponse(Result result, Invoker<T> filterInvoker, Invocation invocation) {
+            for (int i = filters.length - 1; i >= 0; i--) {
+                // onResponse callback
+                if (filters[i] instanceof ListenableFilter) {
+                    if (listeners[i] != null) {
+                        listeners[i].onResponse(result, filterInvoker, invocation);
+                    }
+                } else {
+                    filters[i].onResponse(result, filterInvoker, invocation);
+                }
+            }
+        }
+    }
+
+    static final class FilterNode<T> implements Invoker<T> {
+
+        private final FilterChain<T> chain;
+        private final int index;
+
+        FilterNode(FilterChain<T> chain, int index) {
+            this.chain = chain;
+            this.index = index;
         }
 
         @Override
         public Result invoke(Invocation invocation) throws RpcException {
-            Result asyncResult = filterInvoker.invoke(invocation);
+            try {
+                return chain.filters[index].invoke(chain.nodes[index + 1], invocation);
+            } catch (Exception e) {
+                // onError callback
+                Filter.Listener listener = chain.listeners[index];
+                if (listener != null) {
+                    listener.onError(e, chain.invoker, invocation);
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public Class<T> getInterface() {
+            return chain.invoker.getInterface();
+        }
+
+        @Override
+        public URL getUrl() {
+            return chain.invoker.getUrl();
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return chain.invoker.isAvailable();
+        }
+
+        @Override
+        public void destroy() {
+            chain.invoker.destroy();
+        }
+
+        @Override
+        public String toString() {
+            return chain.invoker.toString();
+        }
+    }
+
+    /**
+     * Picks the chain pruned for the invoked method, falling back to the full chain for methods not declared by the
+     * interface, e.g. <code>$invoke</code> or <code>$echo</code>, and registers the response callbacks of its filters.
+     */
+    static class FilterChainInvoker<T> implements Invoker<T> {
+
+        private final Invoker<T> invoker;
+        private final FilterChain<T> chain;
+        private final Map<String, FilterChain<T>> methodChains;
+
+        FilterChainInvoker(Invoker<T> invoker, FilterChain<T> chain, Map<String, FilterChain<T>> methodChains) {
+            this.invoker = invoker;
+            this.chain = chain;
+            this.methodChains = methodChains;
+        }
+
+        FilterChain<T> getChain(String methodName) {
+            FilterChain<T> methodChain = methodChains.get(methodName);
+            return methodChain != null ? methodChain : chain;
+        }
+
+        @Override
+        public Result invoke(Invocation invocation) throws RpcException {
+            FilterChain<T> chain = getChain(invocation.getMethodName());
+            Result asyncResult = chain.invoke(invocation);
 
             asyncResult.thenApplyWithContext(r -> {
-                for (int i = filters.size() - 1; i >= 0; i--) {
-                    Filter filter = filters.get(i);
-                    // onResponse callback
-                    if (filter instanceof ListenableFilter) {
-                        Filter.Listener listener = ((ListenableFilter) filter).listener();
-                        if (listener != null) {
-                            listener.onResponse(r, filterInvoker, invocation);
-                        }
-                    } else {
-                        filter.onResponse(r, filterInvoker, invocation);
-                    }
-                }
+                chain.onResponse(r, this, invocation);
                 return r;
             });
 
@@ -177,22 +282,27 @@ public class ProtocolFilterWrapper implements Protocol {
 
         @Override
         public Class<T> getInterface() {
-            return filterInvoker.getInterface();
+            return invoker.getInterface();
         }
 
         @Override
         public URL getUrl() {
-            return filterInvoker.getUrl();
+            return invoker.getUrl();
         }
 
         @Override
         public boolean isAvailable() {
-            return filterInvoker.isAvailable();
+            return invoker.isAvailable();
         }
 
         @Override
         public void destroy() {
-            filterInvoker.destroy();
+            invoker.destroy();
+        }
+
+        @Override
+        public String toString() {
+            return invoker.toString();
         }
     }
 }
@@ -20,7 +20,9 @@ import org.apache.dubbo.common.URL;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
 import org.apache.dubbo.rpc.RpcStatus;
 import org.apache.dubbo.rpc.support.BlockMyInvoker;
 import org.apache.dubbo.rpc.support.MockInvocation;
@@ -30,11 +32,18 @@ import org.apache.dubbo.rpc.support.RuntimeExceptionInvoker;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -224,4 +233,158 @@ public class ActiveLimitFilterTest {
             assertEquals(beforeExceptionActiveCount, afterExceptionActiveCount, "After exception active count should be same");
         }
     }
+
+    @Test
+    public void testWaitingAndRejectedCount() throws Exception {
+        URL url = URL.valueOf("test://test:11/testWaiting?actives=1&timeout=100");
+        Invoker<ActiveLimitFilterTest> invoker = new MyInvoker<ActiveLimitFilterTest>(url);
+        Invocation invocation = new MockInvocation();
+        RpcStatus.removeStatus(url);
+        RpcStatus.removeStatus(url, invocation.getMethodName());
+        RpcStatus status = RpcStatus.getStatus(url, invocation.getMethodName());
+
+        activeLimitFilter.invoke(invoker, invocation);
+        CountDownLatch waiting = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        Thread thread = new Thread(() -> {
+            waiting.countDown();
+            activeLimitFilter.invoke(invoker, invocation);
+            granted.incrementAndGet();
+        });
+        thread.start();
+        waiting.await();
+        while (status.getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        activeLimitFilter.listener().onResponse(null, invoker, invocation);
+        thread.join();
+        assertEquals(1, granted.get());
+        assertEquals(1, status.getActive());
+        assertEquals(0, status.getWaiting());
+
+        try {
+            activeLimitFilter.invoke(invoker, invocation);
+            fail();
+        } catch (RpcException expected) {
+            assertTrue(expected.isLimitExceed());
+            activeLimitFilter.listener().onError(expected, invoker, invocation);
+        }
+        assertEquals(1, status.getActive());
+        assertEquals(0, status.getWaiting());
+        assertEquals(1, status.getRejected());
+    }
+
+    @Test
+    public void testAsyncInvokeWaitsWithoutBlocking() throws Throwable {
+        URL url = URL.valueOf("test://test:11/testAsyncWaiting?actives=1&timeout=1000");
+        Invoker<ActiveLimitFilterTest> invoker = new MyInvoker<ActiveLimitFilterTest>(url);
+        // a method returning a future, the invoke mode is left unset as in a consumer filter chain
+        RpcInvocation invocation = new RpcInvocation("sayHello", new Class<?>[0], new Object[0]);
+        invocation.setReturnType(CompletableFuture.class);
+        RpcStatus.removeStatus(url);
+        RpcStatus.removeStatus(url, invocation.getMethodName());
+        RpcStatus status = RpcStatus.getStatus(url, invocation.getMethodName());
+
+        Result first = activeLimitFilter.invoke(invoker, invocation);
+        assertTrue(first.isDone());
+        Result second = activeLimitFilter.invoke(invoker, invocation);
+        assertFalse(second.isDone());
+        assertEquals(1, status.getWaiting());
+        Object future = second.recreate();
+        assertTrue(future instanceof CompletableFuture);
+
+        activeLimitFilter.listener().onResponse(first, invoker, invocation);
+        assertEquals("alibaba", second.get().getValue());
+        assertEquals("alibaba", ((CompletableFuture<?>) future).get(1, TimeUnit.SECONDS));
+        assertEquals(1, status.getActive());
+        assertEquals(0, status.getWaiting());
+    }
+
+    @Test
+    public void testAsyncInvokeNotSentByReleasingThread() throws Exception {
+        URL url = URL.valueOf("test://test:11/testAsyncThread?actives=1&timeout=1000&sayHello.async=true");
+        AtomicReference<Thread> sender = new AtomicReference<>();
+        Invoker<ActiveLimitFilterTest> invoker = new MyInvoker<ActiveLimitFilterTest>(url) {
+            @Override
+            public Result invoke(Invocation invocation) throws RpcException {
+                sender.set(Thread.currentThread());
+                return super.invoke(invocation);
+            }
+        };
+        // async=true, the invoke mode is left unset as in a consumer filter chain
+        RpcInvocation invocation = new RpcInvocation("sayHello", new Class<?>[0], new Object[0]);
+        RpcStatus.removeStatus(url);
+        RpcStatus.removeStatus(url, invocation.getMethodName());
+
+        Result first = activeLimitFilter.invoke(invoker, invocation);
+        RpcContext.getContext().setFuture(null);
+        Result second = activeLimitFilter.invoke(invoker, invocation);
+        assertFalse(second.isDone());
+        CompletableFuture<Object> future = RpcContext.getContext().getCompletableFuture();
+        assertNotNull(future);
+        activeLimitFilter.listener().onResponse(first, invoker, invocation);
+        assertEquals("alibaba", second.get().getValue());
+        assertEquals("alibaba", future.get(1, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), sender.get());
+    }
+
+    @Test
+    public void testWaitWithoutTimeout() throws Exception {
+        URL url = URL.valueOf("test://test:11/testWaitWithoutTimeout?actives=1&timeout=0");
+        Invoker<ActiveLimitFilterTest> invoker = new MyInvoker<ActiveLimitFilterTest>(url);
+        Invocation invocation = new MockInvocation();
+        RpcStatus.removeStatus(url);
+        RpcStatus.removeStatus(url, invocation.getMethodName());
+        RpcStatus status = RpcStatus.getStatus(url, invocation.getMethodName());
+
+        activeLimitFilter.invoke(invoker, invocation);
+        AtomicInteger granted = new AtomicInteger();
+        Thread thread = new Thread(() -> {
+            activeLimitFilter.invoke(invoker, invocation);
+            granted.incrementAndGet();
+        });
+        thread.start();
+        while (status.getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        // no timeout, so still waiting however long it takes
+        thread.join(200);
+        assertTrue(thread.isAlive());
+        assertEquals(0, status.getRejected());
+
+        activeLimitFilter.listener().onResponse(null, invoker, invocation);
+        thread.join();
+        assertEquals(1, granted.get());
+        assertEquals(1, status.getActive());
+    }
+
+    @Test
+    public void testInterruptedWhileWaiting() throws Exception {
+        URL url = URL.valueOf("test://test:11/testInterrupted?actives=1&timeout=10000");
+        Invoker<ActiveLimitFilterTest> invoker = new MyInvoker<ActiveLimitFilterTest>(url);
+        Invocation invocation = new MockInvocation();
+        RpcStatus.removeStatus(url);
+        RpcStatus.removeStatus(url, invocation.getMethodName());
+        RpcStatus status = RpcStatus.getStatus(url, invocation.getMethodName());
+
+        activeLimitFilter.invoke(invoker, invocation);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread thread = new Thread(() -> {
+            try {
+                activeLimitFilter.invoke(invoker, invocation);
+            } catch (RpcException e) {
+                interrupted.set(e.isLimitExceed() && Thread.currentThread().isInterrupted());
+            }
+        });
+        thread.start();
+        while (status.getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        thread.interrupt();
+        thread.join();
+        assertTrue(interrupted.get());
+        assertEquals(1, status.getActive());
+        assertEquals(0, status.getWaiting());
+        assertEquals(1, status.getRejected());
+    }
 }
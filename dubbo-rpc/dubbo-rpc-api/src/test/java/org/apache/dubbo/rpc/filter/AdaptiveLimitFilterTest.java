@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.AppResponse;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.filter.limiter.AimdLimiter;
+import org.apache.dubbo.rpc.filter.limiter.ConcurrencyLimiter;
+import org.apache.dubbo.rpc.filter.limiter.GradientLimiter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+public class AdaptiveLimitFilterTest {
+
+    private AdaptiveLimitFilter adaptiveLimitFilter = new AdaptiveLimitFilter();
+
+    @Test
+    public void testAdaptiveLimitInvoke() throws Exception {
+        Invoker invoker = Mockito.mock(Invoker.class);
+        when(invoker.invoke(any(Invocation.class))).thenReturn(new AppResponse("result"));
+        URL url = URL.valueOf("test://test:11/test?group=dubbo&version=1.1&adaptive.limit=gradient");
+        when(invoker.getUrl()).thenReturn(url);
+        Invocation invocation = new RpcInvocation("testAdaptiveLimitInvoke", new Class<?>[0], new Object[0]);
+
+        Result result = adaptiveLimitFilter.invoke(invoker, invocation);
+        Assertions.assertEquals("result", result.getValue());
+        ConcurrencyLimiter limiter = adaptiveLimitFilter.getLimiter(url, invocation.getMethodName());
+        Assertions.assertTrue(limiter instanceof GradientLimiter);
+        Assertions.assertEquals(1, limiter.getInflight());
+
+        adaptiveLimitFilter.listener().onResponse(result, invoker, invocation);
+        Assertions.assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void testShedOverLimit() throws Exception {
+        Invoker invoker = Mockito.mock(Invoker.class);
+        when(invoker.invoke(any(Invocation.class))).thenReturn(new AppResponse("result"));
+        URL url = URL.valueOf("test://test:11/test?group=dubbo&version=1.1&adaptive.limit=aimd&adaptive.limit.initial=2");
+        when(invoker.getUrl()).thenReturn(url);
+        Invocation invocation = new RpcInvocation("testShedOverLimit", new Class<?>[0], new Object[0]);
+
+        adaptiveLimitFilter.invoke(invoker, invocation);
+        adaptiveLimitFilter.invoke(invoker, invocation);
+        try {
+            adaptiveLimitFilter.invoke(invoker, invocation);
+            Assertions.fail();
+        } catch (RpcException expected) {
+            Assertions.assertTrue(expected.isLimitExceed());
+            Assertions.assertTrue(expected.getMessage().startsWith("Server overloaded"));
+            adaptiveLimitFilter.listener().onError(expected, invoker, invocation);
+        }
+        ConcurrencyLimiter limiter = adaptiveLimitFilter.getLimiter(url, invocation.getMethodName());
+        Assertions.assertTrue(limiter instanceof AimdLimiter);
+        Assertions.assertEquals(2, limiter.getInflight());
+    }
+
+    @Test
+    public void testBackOffOnError() throws Exception {
+        Invoker invoker = Mockito.mock(Invoker.class);
+        doThrow(new RpcException()).when(invoker).invoke(any(Invocation.class));
+        URL url = URL.valueOf("test://test:11/test?group=dubbo&version=1.1&adaptive.limit=aimd&adaptive.limit.initial=10");
+        when(invoker.getUrl()).thenReturn(url);
+        Invocation invocation = new RpcInvocation("testBackOffOnError", new Class<?>[0], new Object[0]);
+
+        try {
+            adaptiveLimitFilter.invoke(invoker, invocation);
+            Assertions.fail();
+        } catch (RpcException e) {
+            adaptiveLimitFilter.listener().onError(e, invoker, invocation);
+        }
+        ConcurrencyLimiter limiter = adaptiveLimitFilter.getLimiter(url, invocation.getMethodName());
+        Assertions.assertEquals(0, limiter.getInflight());
+        Assertions.assertEquals(9, limiter.getLimit());
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class CoalesceFilterTest {
+
+    private final CoalesceFilter coalesceFilter = new CoalesceFilter();
+
+    @Test
+    public void testNotCoalescedByDefault() {
+        AtomicInteger calls = new AtomicInteger();
+        Invoker<?> invoker = mockInvoker("test://test:11/test", calls, null, null);
+        coalesceFilter.invoke(invoker, invocation("arg"));
+        coalesceFilter.invoke(invoker, invocation("arg"));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testCoalesceIdenticalInvocations() throws Throwable {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Invoker<?> invoker = mockInvoker("test://test:11/test?echo.coalesce=true", calls, entered, release);
+
+        CompletableFuture<Result> leader = CompletableFuture.supplyAsync(() -> coalesceFilter.invoke(invoker, futureInvocation("arg")));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // the waiting invocations of a method returning a future return right away
+        Result follower1 = coalesceFilter.invoke(invoker, futureInvocation("arg"));
+        Result follower2 = coalesceFilter.invoke(invoker, futureInvocation("arg"));
+        Assertions.assertFalse(((AsyncRpcResult) follower1).isDone());
+        Object future = follower1.recreate();
+        Assertions.assertTrue(future instanceof CompletableFuture);
+
+        // different arguments go on their own
+        Result other = coalesceFilter.invoke(invoker, futureInvocation("other"));
+        Assertions.assertEquals("value", other.getValue());
+        Assertions.assertEquals(2, calls.get());
+
+        release.countDown();
+        Assertions.assertEquals("value", leader.get(5, TimeUnit.SECONDS).getValue());
+        Assertions.assertEquals("value", ((AsyncRpcResult) follower1).get(5, TimeUnit.SECONDS).getValue());
+        Assertions.assertEquals("value", ((AsyncRpcResult) follower2).get(5, TimeUnit.SECONDS).getValue());
+        Assertions.assertEquals("value", ((CompletableFuture<?>) future).get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, calls.get());
+
+        // the call is over, the next invocation makes a new one
+        coalesceFilter.invoke(mockInvoker("test://test:11/test?echo.coalesce=true", calls, null, null), invocation("arg"));
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testCoalescedFailure() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Invoker<?> invoker = Mockito.mock(Invoker.class);
+        when(invoker.getUrl()).thenReturn(URL.valueOf("test://test:11/test?coalesce=true"));
+        when(invoker.invoke(any(Invocation.class))).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            throw new RpcException(RpcException.TIMEOUT_EXCEPTION, "timeout");
+        });
+
+        CompletableFuture<Result> leader = CompletableFuture.supplyAsync(() -> coalesceFilter.invoke(invoker, futureInvocation("arg")));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Result follower = coalesceFilter.invoke(invoker, futureInvocation("arg"));
+        release.countDown();
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof RpcException);
+        e = Assertions.assertThrows(ExecutionException.class, () -> ((AsyncRpcResult) follower).get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(((RpcException) e.getCause()).isTimeout());
+    }
+
+    @Test
+    public void testSyncFollowerWaits() throws Throwable {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Invoker<?> invoker = mockInvoker("test://test:11/test?echo.coalesce=true", calls, entered, release);
+
+        CompletableFuture<Result> leader = CompletableFuture.supplyAsync(() -> coalesceFilter.invoke(invoker, invocation("arg")));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Result> follower = CompletableFuture.supplyAsync(() -> coalesceFilter.invoke(invoker, invocation("arg")));
+        Thread.sleep(100);
+        // blocked like the invocation making the call
+        Assertions.assertFalse(follower.isDone());
+
+        release.countDown();
+        Result result = follower.get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(((AsyncRpcResult) result).isDone());
+        Assertions.assertEquals("value", result.recreate());
+        Assertions.assertEquals("value", leader.get(5, TimeUnit.SECONDS).getValue());
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testAsyncFollowerSetsFuture() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Invoker<?> invoker = mockInvoker("test://test:11/test?echo.coalesce=true&echo.async=true", calls, entered, release);
+
+        CompletableFuture<Result> leader = CompletableFuture.supplyAsync(() -> coalesceFilter.invoke(invoker, invocation("arg")));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        RpcContext.getContext().setFuture(null);
+        Result follower = coalesceFilter.invoke(invoker, invocation("arg"));
+        Assertions.assertFalse(((AsyncRpcResult) follower).isDone());
+        CompletableFuture<Object> future = RpcContext.getContext().getCompletableFuture();
+        Assertions.assertNotNull(future);
+
+        release.countDown();
+        Assertions.assertEquals("value", future.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("value", leader.get(5, TimeUnit.SECONDS).getValue());
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    private static Invoker<?> mockInvoker(String url, AtomicInteger calls, CountDownLatch entered, CountDownLatch release) {
+        Invoker<?> invoker = Mockito.mock(Invoker.class);
+        when(invoker.getUrl()).thenReturn(URL.valueOf(url));
+        when(invoker.invoke(any(Invocation.class))).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            RpcInvocation rpcInvocation = invocation.getArgument(0);
+            if (entered != null && "arg".equals(rpcInvocation.getArguments()[0])) {
+                entered.countDown();
+                release.await();
+            }
+            return AsyncRpcResult.newDefaultAsyncResult("value", rpcInvocation);
+        });
+        return invoker;
+    }
+
+    /**
+     * The invoke mode is left unset, as it is when the consumer filters run
+     */
+    private static RpcInvocation invocation(String arg) {
+        return new RpcInvocation("echo", new Class<?>[]{String.class}, new Object[]{arg});
+    }
+
+    private static RpcInvocation futureInvocation(String arg) {
+        RpcInvocation invocation = invocation(arg);
+        invocation.setReturnType(CompletableFuture.class);
+        return invocation;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limiter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AimdLimiterTest {
+
+    @Test
+    public void testIncreaseWhenBusy() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 100, 1000);
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        Assertions.assertEquals(5, limiter.getLimit());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        Assertions.assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    public void testDecreaseOnDropAndTimeout() {
+        AimdLimiter limiter = new AimdLimiter(20, 1, 100, 1000);
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), true);
+        Assertions.assertEquals(18, limiter.getLimit());
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(2000), false);
+        Assertions.assertEquals(16, limiter.getLimit());
+    }
+
+    @Test
+    public void testRejectOverLimit() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 100, 1000);
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire());
+        Assertions.assertEquals(2, limiter.getInflight());
+        for (int i = 0; i < 10; i++) {
+            limiter.release(0, true);
+            limiter.tryAcquire();
+        }
+        Assertions.assertEquals(1, limiter.getLimit());
+    }
+}
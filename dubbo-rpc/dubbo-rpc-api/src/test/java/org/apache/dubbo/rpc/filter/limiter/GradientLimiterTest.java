@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limiter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class GradientLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testGrowWhileLatencyIsSteady() {
+        GradientLimiter limiter = new GradientLimiter(10, 1, 100);
+        for (int i = 0; i < 50; i++) {
+            fill(limiter);
+        }
+        Assertions.assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    public void testShrinkWhenLatencyRises() {
+        GradientLimiter limiter = new GradientLimiter(50, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            acquireAll(limiter);
+            releaseAll(limiter, RTT);
+        }
+        int steady = limiter.getLimit();
+        for (int i = 0; i < 20; i++) {
+            acquireAll(limiter);
+            releaseAll(limiter, RTT * 10);
+        }
+        Assertions.assertTrue(limiter.getLimit() < steady, limiter.getLimit() + " < " + steady);
+    }
+
+    @Test
+    public void testNoGrowthWhenAppLimited() {
+        GradientLimiter limiter = new GradientLimiter(20, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+            limiter.release(RTT, false);
+        }
+        Assertions.assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    public void testStayWithinBounds() {
+        GradientLimiter limiter = new GradientLimiter(5, 4, 6);
+        for (int i = 0; i < 100; i++) {
+            acquireAll(limiter);
+            releaseAll(limiter, i % 2 == 0 ? RTT : RTT * 100);
+            Assertions.assertTrue(limiter.getLimit() >= 4 && limiter.getLimit() <= 6);
+        }
+    }
+
+    private static void fill(GradientLimiter limiter) {
+        acquireAll(limiter);
+        releaseAll(limiter, RTT);
+    }
+
+    private static void acquireAll(GradientLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // take every slot
+        }
+    }
+
+    private static void releaseAll(GradientLimiter limiter, long rtt) {
+        while (limiter.getInflight() > 0) {
+            limiter.release(rtt, false);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.protocol;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Protocol;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcStatus;
+import org.apache.dubbo.rpc.filter.ActiveLimitFilter;
+import org.apache.dubbo.rpc.support.DemoService;
+import org.apache.dubbo.rpc.support.MyInvoker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class ProtocolFilterWrapperTest {
+
+    @Test
+    public void testPruneFiltersPerMethod() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName() + ".prune?methods=sayHello,echo&sayHello.actives=10");
+        ProtocolFilterWrapper.FilterChainInvoker<DemoService> invoker = refer(url);
+
+        Assertions.assertTrue(containsActiveLimitFilter(invoker.getChain("sayHello").getFilters()));
+        Assertions.assertFalse(containsActiveLimitFilter(invoker.getChain("echo").getFilters()));
+        // methods not declared by the interface keep the full chain
+        Assertions.assertTrue(containsActiveLimitFilter(invoker.getChain("$invoke").getFilters()));
+
+        Result result = invoker.invoke(new RpcInvocation("sayHello", new Class<?>[]{String.class}, new Object[]{"dubbo"}));
+        Assertions.assertEquals("alibaba", result.getValue());
+        result = invoker.invoke(new RpcInvocation("echo", new Class<?>[]{String.class}, new Object[]{"dubbo"}));
+        Assertions.assertEquals("alibaba", result.getValue());
+
+        Assertions.assertEquals(1, RpcStatus.getStatus(url, "sayHello").getTotal());
+        Assertions.assertEquals(0, RpcStatus.getStatus(url, "echo").getTotal());
+    }
+
+    @Test
+    public void testServiceLevelKeyAppliesToAllMethods() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName() + ".service?methods=sayHello,echo&actives=10");
+        ProtocolFilterWrapper.FilterChainInvoker<DemoService> invoker = refer(url);
+
+        Assertions.assertTrue(containsActiveLimitFilter(invoker.getChain("sayHello").getFilters()));
+        Assertions.assertTrue(containsActiveLimitFilter(invoker.getChain("echo").getFilters()));
+
+        invoker.invoke(new RpcInvocation("echo", new Class<?>[]{String.class}, new Object[]{"dubbo"}));
+        Assertions.assertEquals(1, RpcStatus.getStatus(url, "echo").getTotal());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProtocolFilterWrapper.FilterChainInvoker<DemoService> refer(URL url) {
+        Protocol protocol = Mockito.mock(Protocol.class);
+        when(protocol.refer(any(Class.class), any(URL.class))).thenReturn(new MyInvoker<DemoService>(url));
+        Invoker<DemoService> invoker = new ProtocolFilterWrapper(protocol).refer(DemoService.class, url);
+        Assertions.assertTrue(invoker instanceof ProtocolFilterWrapper.FilterChainInvoker);
+        return (ProtocolFilterWrapper.FilterChainInvoker<DemoService>) invoker;
+    }
+
+    private static boolean containsActiveLimitFilter(Object[] filters) {
+        return Arrays.stream(filters).anyMatch(filter -> filter instanceof ActiveLimitFilter);
+    }
+}
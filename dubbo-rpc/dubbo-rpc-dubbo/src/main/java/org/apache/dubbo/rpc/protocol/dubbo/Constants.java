@@ -34,6 +34,20 @@ public interface Constants {
 
     boolean DEFAULT_DECODE_IN_IO_THREAD = true;
 
+    /**
+     * Whether a request decoded out of the io thread keeps a slice of the received buffer instead of a copy of its body
+     */
+    String DECODE_RETAIN_BUFFER_KEY = "decode.retain.buffer";
+
+    boolean DEFAULT_DECODE_RETAIN_BUFFER = false;
+
+    /**
+     * Whether a synchronous call handles its response on the calling thread instead of the consumer thread pool
+     */
+    String THREADLESS_KEY = "threadless";
+
+    boolean DEFAULT_THREADLESS = true;
+
     /**
      * callback inst id
      */
@@ -79,6 +79,26 @@ public class DecodeableRpcInvocation extends RpcInvocation implements Codec, Dec
                 request.setData(e);
             } finally {
                 hasDecoded = true;
+                closeInputStream();
+            }
+        }
+    }
+
+    @Override
+    public void discard() {
+        if (!hasDecoded) {
+            hasDecoded = true;
+            closeInputStream();
+        }
+    }
+
+    private void closeInputStream() {
+        try {
+            // releases the buffer the stream may hold, see ChannelBufferInputStream#readRetainedStream
+            inputStream.close();
+        } catch (IOException e) {
+            if (log.isWarnEnabled()) {
+                log.warn("Close rpc invocation input stream failed: " + e.getMessage(), e);
             }
         }
     }
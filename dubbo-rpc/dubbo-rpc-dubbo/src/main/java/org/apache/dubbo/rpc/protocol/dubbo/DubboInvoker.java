@@ -18,6 +18,9 @@ package org.apache.dubbo.rpc.protocol.dubbo;
 
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.config.ConfigurationUtils;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.store.DataStore;
+import org.apache.dubbo.common.threadpool.ThreadlessExecutor;
 import org.apache.dubbo.common.utils.AtomicPositiveInteger;
 import org.apache.dubbo.remoting.Constants;
 import org.apache.dubbo.remoting.RemotingException;
@@ -26,6 +29,7 @@ import org.apache.dubbo.remoting.exchange.ExchangeClient;
 import org.apache.dubbo.rpc.AppResponse;
 import org.apache.dubbo.rpc.AsyncRpcResult;
 import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.InvokeMode;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.Result;
 import org.apache.dubbo.rpc.RpcContext;
@@ -36,8 +40,10 @@ import org.apache.dubbo.rpc.support.RpcUtils;
 
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static org.apache.dubbo.common.constants.CommonConstants.CONSUMER_SIDE;
 import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_TIMEOUT;
 import static org.apache.dubbo.common.constants.CommonConstants.GROUP_KEY;
 import static org.apache.dubbo.common.constants.CommonConstants.INTERFACE_KEY;
@@ -45,6 +51,8 @@ import static org.apache.dubbo.common.constants.CommonConstants.PATH_KEY;
 import static org.apache.dubbo.common.constants.CommonConstants.TIMEOUT_KEY;
 import static org.apache.dubbo.common.constants.CommonConstants.VERSION_KEY;
 import static org.apache.dubbo.rpc.Constants.TOKEN_KEY;
+import static org.apache.dubbo.rpc.protocol.dubbo.Constants.DEFAULT_THREADLESS;
+import static org.apache.dubbo.rpc.protocol.dubbo.Constants.THREADLESS_KEY;
 
 /**
  * DubboInvoker
@@ -107,9 +115,10 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
             } else { //存在返回值
                 //是否采用异步
                 AsyncRpcResult asyncRpcResult = new AsyncRpcResult(inv);
+                ExecutorService executor = getCallbackExecutor(methodName, inv, asyncRpcResult);
                 //timeout ->超时时间
                 //currentClient -> ReferenceCountExhcangeClient(HeaderExchangeClient(HeaderExchangeChannel( ->request)
-                CompletableFuture<Object> responseFuture = currentClient.request(inv, timeout);
+                CompletableFuture<Object> responseFuture = currentClient.request(inv, timeout, executor);
                 responseFuture.whenComplete((obj, t) -> {
                     if (t != null) {
                         asyncRpcResult.completeExceptionally(t);
@@ -127,6 +136,24 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
         }
     }
 
+    /**
+     * A synchronous call gets a threadless executor, so that the thread blocking in
+     * {@link org.apache.dubbo.rpc.protocol.AsyncToSyncInvoker} handles the response itself.
+     * Other calls keep using the executor of the client channel.
+     */
+    private ExecutorService getCallbackExecutor(String methodName, RpcInvocation inv, AsyncRpcResult asyncRpcResult) {
+        if (InvokeMode.SYNC != inv.getInvokeMode()
+                || !getUrl().getMethodParameter(methodName, THREADLESS_KEY, DEFAULT_THREADLESS)) {
+            return null;
+        }
+        DataStore dataStore = ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
+        ThreadlessExecutor executor = new ThreadlessExecutor(
+                (ExecutorService) dataStore.get(CONSUMER_SIDE, Integer.toString(getUrl().getPort())));
+        executor.setWaitingFuture(asyncRpcResult);
+        asyncRpcResult.setExecutor(executor);
+        return executor;
+    }
+
     @Override
     public boolean isAvailable() {
         if (!super.isAvailable()) {
@@ -21,11 +21,11 @@ import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.status.Status;
 import org.apache.dubbo.common.status.StatusChecker;
 import org.apache.dubbo.common.store.DataStore;
+import org.apache.dubbo.common.threadpool.ThreadPoolStats;
 import org.apache.dubbo.remoting.Constants;
 
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * ThreadPoolStatusChecker
@@ -44,28 +44,33 @@ public class ThreadPoolStatusChecker implements StatusChecker {
             String port = entry.getKey();
             ExecutorService executor = (ExecutorService) entry.getValue();
 
-            if (executor instanceof ThreadPoolExecutor) {
-                ThreadPoolExecutor tp = (ThreadPoolExecutor) executor;
-                boolean ok = tp.getActiveCount() < tp.getMaximumPoolSize() - 1;
-                Status.Level lvl = Status.Level.OK;
-                if (!ok) {
-                    level = Status.Level.WARN;
-                    lvl = Status.Level.WARN;
-                }
-
-                if (msg.length() > 0) {
-                    msg.append(";");
-                }
-                msg.append("Pool status:" + lvl
-                        + ", max:" + tp.getMaximumPoolSize()
-                        + ", core:" + tp.getCorePoolSize()
-                        + ", largest:" + tp.getLargestPoolSize()
-                        + ", active:" + tp.getActiveCount()
-                        + ", task:" + tp.getTaskCount()
-                        + ", service port: " + port);
+            ThreadPoolStats stats = ThreadPoolStats.of(executor);
+            if (stats != null && !append(msg, port, stats)) {
+                level = Status.Level.WARN;
             }
         }
         return msg.length() == 0 ? new Status(Status.Level.UNKNOWN) : new Status(level, msg.toString());
     }
 
+    /**
+     * @return false if the pool is about to be exhausted
+     */
+    private static boolean append(StringBuilder msg, String port, ThreadPoolStats stats) {
+        int max = stats.getMaximumPoolSize();
+        int active = stats.getActiveCount();
+        boolean ok = active < max - 1;
+        Status.Level lvl = ok ? Status.Level.OK : Status.Level.WARN;
+        if (msg.length() > 0) {
+            msg.append(";");
+        }
+        msg.append("Pool status:" + lvl
+                + ", max:" + max
+                + ", core:" + stats.getCorePoolSize()
+                + ", largest:" + stats.getLargestPoolSize()
+                + ", active:" + active
+                + ", task:" + stats.getTaskCount()
+                + ", service port: " + port);
+        return ok;
+    }
+
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.protocol.dubbo.decode;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.buffer.ChannelBuffer;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.transport.netty4.NettyBackedChannelBuffer;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.protocol.dubbo.DecodeableRpcInvocation;
+import org.apache.dubbo.rpc.protocol.dubbo.DubboCodec;
+import org.apache.dubbo.rpc.protocol.dubbo.support.DemoService;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.apache.dubbo.rpc.protocol.dubbo.Constants.DECODE_IN_IO_THREAD_KEY;
+import static org.apache.dubbo.rpc.protocol.dubbo.Constants.DECODE_RETAIN_BUFFER_KEY;
+
+public class DubboCodecRetainBufferTest {
+
+    private final Channel channel = new MockChannel() {
+        @Override
+        public URL getUrl() {
+            return new URL("dubbo", "localhost", 20880)
+                    .addParameter(DECODE_IN_IO_THREAD_KEY, false)
+                    .addParameter(DECODE_RETAIN_BUFFER_KEY, true);
+        }
+    };
+
+    @Test
+    public void testDecodeFromRetainedBuffer() throws Exception {
+        ByteBuf byteBuf = createDubboByteBuf();
+        Request request = (Request) new DubboCodec().decode(channel, new NettyBackedChannelBuffer(byteBuf));
+        DecodeableRpcInvocation invocation = (DecodeableRpcInvocation) request.getData();
+
+        // the whole message is consumed, but the body is still referenced by the invocation
+        Assertions.assertFalse(byteBuf.isReadable());
+        Assertions.assertEquals(2, byteBuf.refCnt());
+
+        invocation.decode();
+        Assertions.assertEquals(1, byteBuf.refCnt());
+        Assertions.assertEquals("sayHello", invocation.getMethodName());
+        Assertions.assertEquals("dubbo", invocation.getArguments()[0]);
+        Assertions.assertEquals(DemoService.class.getName(), invocation.getAttachment("path"));
+        byteBuf.release();
+    }
+
+    @Test
+    public void testDiscardReleasesRetainedBuffer() throws Exception {
+        ByteBuf byteBuf = createDubboByteBuf();
+        Request request = (Request) new DubboCodec().decode(channel, new NettyBackedChannelBuffer(byteBuf));
+        DecodeableRpcInvocation invocation = (DecodeableRpcInvocation) request.getData();
+        Assertions.assertEquals(2, byteBuf.refCnt());
+
+        invocation.discard();
+        Assertions.assertEquals(1, byteBuf.refCnt());
+
+        // nothing left to decode from
+        invocation.decode();
+        Assertions.assertNull(invocation.getMethodName());
+        byteBuf.release();
+    }
+
+    private ByteBuf createDubboByteBuf() throws IOException {
+        Request request = new Request();
+        RpcInvocation rpcInvocation = new RpcInvocation();
+        rpcInvocation.setMethodName("sayHello");
+        rpcInvocation.setParameterTypes(new Class[]{String.class});
+        rpcInvocation.setArguments(new String[]{"dubbo"});
+        rpcInvocation.setAttachment("path", DemoService.class.getName());
+        rpcInvocation.setAttachment("version", "0.0.0");
+
+        request.setData(rpcInvocation);
+        request.setVersion("2.0.2");
+
+        ByteBuf dubboByteBuf = Unpooled.buffer();
+        ChannelBuffer buffer = new NettyBackedChannelBuffer(dubboByteBuf);
+        new DubboCodec().encode(new MockChannel(), buffer, request);
+        return dubboByteBuf;
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.dubbo.common.serialize.hessian2;
 
+import org.apache.dubbo.common.serialize.Cleanable;
 import org.apache.dubbo.common.serialize.ObjectInput;
 
 import com.alibaba.com.caucho.hessian.io.Hessian2Input;
@@ -23,16 +24,45 @@ import com.alibaba.com.caucho.hessian.io.Hessian2Input;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.util.List;
 
 /**
  * Hessian2 object input implementation
+ * <p>
+ * Reused the same way as {@link Hessian2ObjectOutput}. The {@link Hessian2Input} reads through a {@link MessageStream}
+ * which is pointed at the stream of each new message. It is only given back when the message was read up to the end
+ * of its stream, since bytes it buffered ahead would otherwise be read as part of the next message.
  */
-public class Hessian2ObjectInput implements ObjectInput {
-    private final Hessian2Input mH2i;
+public class Hessian2ObjectInput implements ObjectInput, Cleanable {
+
+    private static final ThreadLocal<ReusableHessian2Input[]> IDLE_INPUT =
+            ThreadLocal.withInitial(() -> new ReusableHessian2Input[1]);
+
+    private final boolean reuse;
+
+    private Hessian2Input mH2i;
 
     public Hessian2ObjectInput(InputStream is) {
-        mH2i = new Hessian2Input(is);
-        mH2i.setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
+        this(is, false);
+    }
+
+    public Hessian2ObjectInput(InputStream is, boolean reuse) {
+        this.reuse = reuse;
+        Hessian2Input h2i;
+        if (reuse) {
+            ReusableHessian2Input[] idle = IDLE_INPUT.get();
+            ReusableHessian2Input reusable = idle[0];
+            idle[0] = null;
+            if (reusable == null) {
+                reusable = new ReusableHessian2Input();
+            }
+            reusable.init(is);
+            h2i = reusable;
+        } else {
+            h2i = new Hessian2Input(is);
+        }
+        h2i.setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
+        mH2i = h2i;
     }
 
     @Override
@@ -97,4 +127,99 @@ public class Hessian2ObjectInput implements ObjectInput {
         return readObject(cls);
     }
 
+    /**
+     * Gives the input back to the thread when reused, this object must not be read from any more.
+     */
+    @Override
+    public void cleanup() {
+        Hessian2Input h2i = mH2i;
+        if (!reuse || h2i == null) {
+            return;
+        }
+        mH2i = null;
+        ReusableHessian2Input reusable = (ReusableHessian2Input) h2i;
+        try {
+            // at the end of the stream nothing is left in the buffer, a 'Z' still buffered is not the end
+            if (!reusable.isEnd() || !reusable.stream.eof) {
+                return;
+            }
+        } catch (IOException e) {
+            return;
+        }
+        reusable.reset();
+        IDLE_INPUT.get()[0] = reusable;
+    }
+
+    /**
+     * Hessian2Input of hessian-lite can not be given a new stream, so it reads through this one instead.
+     */
+    private static final class MessageStream extends InputStream {
+
+        private InputStream in;
+
+        private boolean eof;
+
+        void init(InputStream in) {
+            this.in = in;
+            this.eof = false;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                eof = true;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n < 0) {
+                eof = true;
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in.available();
+        }
+    }
+
+    private static final class ReusableHessian2Input extends Hessian2Input {
+
+        private final MessageStream stream;
+
+        ReusableHessian2Input() {
+            this(new MessageStream());
+        }
+
+        private ReusableHessian2Input(MessageStream stream) {
+            super(stream);
+            this.stream = stream;
+        }
+
+        @Override
+        public void init(InputStream is) {
+            stream.init(is);
+        }
+
+        /**
+         * Drops what was read from the last message: object references, class definitions and types.
+         */
+        void reset() {
+            resetReferences();
+            clear(_classDefs);
+            clear(_types);
+            stream.init(null);
+        }
+
+        private static void clear(List<?> list) {
+            if (list != null) {
+                list.clear();
+            }
+        }
+    }
 }
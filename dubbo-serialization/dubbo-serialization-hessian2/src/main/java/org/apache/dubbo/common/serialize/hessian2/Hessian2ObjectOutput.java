@@ -16,22 +16,92 @@
  */
 package org.apache.dubbo.common.serialize.hessian2;
 
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.serialize.Cleanable;
 import org.apache.dubbo.common.serialize.ObjectOutput;
 
 import com.alibaba.com.caucho.hessian.io.Hessian2Output;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.Map;
 
 /**
  * Hessian2 object output implementation
+ * <p>
+ * When reused, the {@link Hessian2Output}, with its buffer and reference tables, is taken from the one the current
+ * thread keeps idle and given back by {@link #cleanup()}. While it is taken, another output of the same thread, e.g. a
+ * nested one or one never cleaned up, gets a new instance. Between two messages the object references and the class
+ * and type definitions are dropped, a message never refers to what an earlier one defined.
  */
-public class Hessian2ObjectOutput implements ObjectOutput {
-    private final Hessian2Output mH2o;
+public class Hessian2ObjectOutput implements ObjectOutput, Cleanable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Hessian2ObjectOutput.class);
+
+    private static final ThreadLocal<ReusableHessian2Output[]> IDLE_OUTPUT =
+            ThreadLocal.withInitial(() -> new ReusableHessian2Output[1]);
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    /**
+     * The class and type definitions of Hessian2Output, which resetReferences() keeps.
+     */
+    private static final Field CLASS_REFS;
+
+    private static final Field TYPE_REFS;
+
+    static {
+        Field classRefs = null;
+        Field typeRefs = null;
+        try {
+            classRefs = Hessian2Output.class.getDeclaredField("_classRefs");
+            typeRefs = Hessian2Output.class.getDeclaredField("_typeRefs");
+            classRefs.setAccessible(true);
+            typeRefs.setAccessible(true);
+        } catch (Exception e) {
+            logger.warn("Hessian2Output can not be reset, it will not be reused: " + e.getMessage(), e);
+            classRefs = null;
+            typeRefs = null;
+        }
+        CLASS_REFS = classRefs;
+        TYPE_REFS = typeRefs;
+    }
+
+    private final boolean reuse;
+
+    private Hessian2Output mH2o;
 
     public Hessian2ObjectOutput(OutputStream os) {
-        mH2o = new Hessian2Output(os);
-        mH2o.setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
+        this(os, false);
+    }
+
+    public Hessian2ObjectOutput(OutputStream os, boolean reuse) {
+        this.reuse = reuse && CLASS_REFS != null;
+        Hessian2Output h2o;
+        if (this.reuse) {
+            ReusableHessian2Output[] idle = IDLE_OUTPUT.get();
+            ReusableHessian2Output reusable = idle[0];
+            idle[0] = null;
+            if (reusable == null) {
+                reusable = new ReusableHessian2Output();
+            }
+            reusable.init(os);
+            h2o = reusable;
+        } else {
+            h2o = new Hessian2Output(os);
+        }
+        h2o.setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
+        mH2o = h2o;
     }
 
     @Override
@@ -93,4 +163,54 @@ public class Hessian2ObjectOutput implements ObjectOutput {
     public void flushBuffer() throws IOException {
         mH2o.flushBuffer();
     }
+
+    /**
+     * Gives the output back to the thread when reused, this object must not be written to any more.
+     */
+    @Override
+    public void cleanup() {
+        Hessian2Output h2o = mH2o;
+        if (!reuse || h2o == null) {
+            return;
+        }
+        mH2o = null;
+        ReusableHessian2Output reusable = (ReusableHessian2Output) h2o;
+        try {
+            reusable.reset();
+        } catch (Exception e) {
+            return;
+        }
+        IDLE_OUTPUT.get()[0] = reusable;
+    }
+
+    private static final class ReusableHessian2Output extends Hessian2Output {
+
+        ReusableHessian2Output() {
+            super(null);
+        }
+
+        @Override
+        public void init(OutputStream os) {
+            _os = os;
+        }
+
+        /**
+         * Drops what was written for the last message: object references, class and type definitions and the bytes
+         * still buffered if it was never flushed.
+         */
+        void reset() throws IOException, IllegalAccessException {
+            resetReferences();
+            clear((Map<?, ?>) CLASS_REFS.get(this));
+            clear((Map<?, ?>) TYPE_REFS.get(this));
+            _os = DISCARD;
+            flushBuffer();
+            _os = null;
+        }
+
+        private static void clear(Map<?, ?> map) {
+            if (map != null) {
+                map.clear();
+            }
+        }
+    }
 }
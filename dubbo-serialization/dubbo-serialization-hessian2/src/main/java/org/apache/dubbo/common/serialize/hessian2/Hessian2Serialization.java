@@ -33,9 +33,12 @@ import static org.apache.dubbo.common.serialize.Constants.HESSIAN2_SERIALIZATION
  * <pre>
  *     e.g. &lt;dubbo:protocol serialization="hessian2" /&gt;
  * </pre>
+ * Set <code>hessian2.reuse=true</code> to reuse the hessian2 input and output of the current thread across messages.
  */
 public class Hessian2Serialization implements Serialization {
 
+    public static final String REUSE_KEY = "hessian2.reuse";
+
     @Override
     public byte getContentTypeId() {
         return HESSIAN2_SERIALIZATION_ID;
@@ -48,12 +51,16 @@ public class Hessian2Serialization implements Serialization {
 
     @Override
     public ObjectOutput serialize(URL url, OutputStream out) throws IOException {
-        return new Hessian2ObjectOutput(out);
+        return new Hessian2ObjectOutput(out, isReuse(url));
     }
 
     @Override
     public ObjectInput deserialize(URL url, InputStream is) throws IOException {
-        return new Hessian2ObjectInput(is);
+        return new Hessian2ObjectInput(is, isReuse(url));
+    }
+
+    private static boolean isReuse(URL url) {
+        return url != null && url.getParameter(REUSE_KEY, false);
     }
 
 }
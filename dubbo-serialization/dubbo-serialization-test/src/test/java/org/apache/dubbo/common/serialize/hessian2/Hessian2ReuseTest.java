@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.serialize.hessian2;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.serialize.Cleanable;
+import org.apache.dubbo.common.serialize.ObjectInput;
+import org.apache.dubbo.common.serialize.ObjectOutput;
+import org.apache.dubbo.common.serialize.model.SerializablePerson;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class Hessian2ReuseTest {
+
+    private final Hessian2Serialization serialization = new Hessian2Serialization();
+
+    private final URL url = URL.valueOf("dubbo://127.0.0.1:20880/demo?hessian2.reuse=true");
+
+    @Test
+    public void testReferencesDoNotLeakAcrossMessages() throws Exception {
+        SerializablePerson person = new SerializablePerson();
+        person.setName("reuse");
+
+        // the class definition and the object reference of the first message must not be used by the second one
+        byte[] first = write(person, person);
+        byte[] second = write(person, person);
+        assertEquals(first.length, second.length);
+
+        for (byte[] bytes : new byte[][]{first, second, first}) {
+            ObjectInput in = serialization.deserialize(url, new ByteArrayInputStream(bytes));
+            assertEquals(person, in.readObject(SerializablePerson.class));
+            assertEquals(person, in.readObject(SerializablePerson.class));
+            ((Cleanable) in).cleanup();
+        }
+    }
+
+    @Test
+    public void testRoundTripWithReusedInstances() throws Exception {
+        SerializablePerson person = new SerializablePerson();
+        person.setName("round trip");
+
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ObjectOutput out = serialization.serialize(url, first);
+        Object h2o = field(out, "mH2o");
+        out.writeObject(person);
+        out.writeUTF("first");
+        out.flushBuffer();
+        ((Cleanable) out).cleanup();
+
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        out = serialization.serialize(url, second);
+        assertSame(h2o, field(out, "mH2o"));
+        out.writeObject(person);
+        out.writeUTF("second");
+        out.flushBuffer();
+        ((Cleanable) out).cleanup();
+
+        // each message is complete on its own, a reader without reuse decodes it
+        ObjectInput in = new Hessian2ObjectInput(new ByteArrayInputStream(second.toByteArray()));
+        assertEquals(person, in.readObject(SerializablePerson.class));
+        assertEquals("second", in.readUTF());
+
+        in = serialization.deserialize(url, new ByteArrayInputStream(first.toByteArray()));
+        Object h2i = field(in, "mH2i");
+        assertEquals(person, in.readObject(SerializablePerson.class));
+        assertEquals("first", in.readUTF());
+        ((Cleanable) in).cleanup();
+
+        in = serialization.deserialize(url, new ByteArrayInputStream(second.toByteArray()));
+        assertSame(h2i, field(in, "mH2i"));
+        assertEquals(person, in.readObject(SerializablePerson.class));
+        assertEquals("second", in.readUTF());
+        ((Cleanable) in).cleanup();
+    }
+
+    @Test
+    public void testPartiallyReadMessage() throws Exception {
+        byte[] bytes = write("first", "second");
+
+        ObjectInput in = serialization.deserialize(url, new ByteArrayInputStream(bytes));
+        assertEquals("first", in.readUTF());
+        ((Cleanable) in).cleanup();
+
+        in = serialization.deserialize(url, new ByteArrayInputStream(bytes));
+        assertEquals("first", in.readUTF());
+        assertEquals("second", in.readUTF());
+        ((Cleanable) in).cleanup();
+    }
+
+    @Test
+    public void testNestedOutputs() throws Exception {
+        ByteArrayOutputStream outer = new ByteArrayOutputStream();
+        ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        ObjectOutput out = serialization.serialize(url, outer);
+        out.writeUTF("outer");
+        ObjectOutput nested = serialization.serialize(url, inner);
+        nested.writeUTF("inner");
+        nested.flushBuffer();
+        ((Cleanable) nested).cleanup();
+        out.flushBuffer();
+        ((Cleanable) out).cleanup();
+
+        assertEquals("outer", serialization.deserialize(url, new ByteArrayInputStream(outer.toByteArray())).readUTF());
+        assertEquals("inner", serialization.deserialize(url, new ByteArrayInputStream(inner.toByteArray())).readUTF());
+    }
+
+    private byte[] write(Object... objects) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutput out = serialization.serialize(url, bytes);
+        for (Object object : objects) {
+            if (object instanceof String) {
+                out.writeUTF((String) object);
+            } else {
+                out.writeObject(object);
+            }
+        }
+        out.flushBuffer();
+        ((Cleanable) out).cleanup();
+        return bytes.toByteArray();
+    }
+
+    private static Object field(Object target, String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+}